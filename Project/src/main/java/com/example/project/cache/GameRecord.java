@@ -0,0 +1,56 @@
+package com.example.project.cache;
+
+import com.example.project.model.Game;
+import com.example.project.model.GameTag;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the scalar part of a {@link Game}: id, name and the
+ * ids of its tags.
+ */
+public final class GameRecord {
+
+    private final Long id;
+    private final String name;
+    private final Set<Long> tagIds;
+
+    public GameRecord(Long id, String name, Set<Long> tagIds) {
+        this.id = id;
+        this.name = name;
+        this.tagIds = Set.copyOf(tagIds);
+    }
+
+    static GameRecord of(Game game) {
+        Set<Long> tagIds = new HashSet<>();
+        for (GameTag tag : game.getTags()) {
+            tagIds.add(tag.getId());
+        }
+        return new GameRecord(game.getId(), game.getName(), tagIds);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<Long> getTagIds() {
+        return tagIds;
+    }
+
+    /**
+     * A detached {@link Game} carrying this record's id and name, for use as
+     * the target of an association (purchases, owned games) without loading
+     * the row. Its tags and owners are empty, so it must not be serialized
+     * where tags are expected.
+     */
+    public Game toReference() {
+        Game game = new Game(name);
+        game.setId(id);
+        return game;
+    }
+}
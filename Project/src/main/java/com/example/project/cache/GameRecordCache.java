@@ -0,0 +1,137 @@
+package com.example.project.cache;
+
+import com.example.project.model.CacheStatsDTO;
+import com.example.project.model.Game;
+import com.example.project.repository.GameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache of {@link GameRecord}s keyed by game id.
+ * <p>
+ * Entries live for at most {@code game-cache.ttl-ms} and the least recently
+ * used one is evicted once {@code game-cache.max-size} is exceeded. Writers
+ * that change a game call {@link #invalidate}; a load that raced with an
+ * invalidation is returned to its caller but not stored, so a stale record can
+ * never outlive the write that made it stale.
+ */
+@Component
+public class GameRecordCache {
+
+    private final GameRepository gameRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public GameRecordCache(GameRepository gameRepository,
+            @Value("${game-cache.max-size:10000}") int maxSize,
+            @Value("${game-cache.ttl-ms:300000}") long ttlMillis) {
+        this(gameRepository, maxSize, ttlMillis, System::nanoTime);
+    }
+
+    public GameRecordCache(GameRepository gameRepository, int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize < 1 || ttlMillis < 1) {
+            throw new IllegalArgumentException("Cache size and TTL must be positive.");
+        }
+        this.gameRepository = gameRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * The record for {@code gameId}, loading it (with its tags, in one
+     * statement) on a miss. Empty if the game does not exist; absence is not
+     * cached.
+     */
+    public Optional<GameRecord> get(Long gameId) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(gameId);
+            if (entry != null) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return Optional.of(entry.record);
+                }
+                entries.remove(gameId);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+
+        long loadGeneration = generation.get();
+        List<Game> loaded = gameRepository.findByIdIn(List.of(gameId));
+        if (loaded.isEmpty()) {
+            return Optional.empty();
+        }
+        GameRecord record = GameRecord.of(loaded.get(0));
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                entries.put(gameId, new Entry(record, now));
+                evictOverflow();
+            }
+        }
+        return Optional.of(record);
+    }
+
+    public void invalidate(Long gameId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(gameId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatsDTO(size, maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+
+        final GameRecord record;
+        final long loadedAt;
+
+        Entry(GameRecord record, long loadedAt) {
+            this.record = record;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
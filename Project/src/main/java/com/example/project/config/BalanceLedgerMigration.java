@@ -0,0 +1,65 @@
+package com.example.project.config;
+
+import com.example.project.model.LedgerReason;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Copies balances from the old {@code users.balance_cents} column into the
+ * balance ledger, one {@code OPENING} entry per user with a non-zero balance,
+ * and drops the column's NOT NULL constraint, since {@code User} no longer
+ * writes it, in one transaction. The column and its values are left in place
+ * so the change can be rolled back; dropping it is left to a later, explicit
+ * migration. Does nothing once the column is nullable or gone. Runs at
+ * startup, after Hibernate has created the ledger tables (hence the
+ * {@link EntityManagerFactory} dependency) and before requests are served.
+ */
+@Component
+public class BalanceLedgerMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BalanceLedgerMigration(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!needsMigration()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE users IN ACCESS EXCLUSIVE MODE");
+            // Another instance may have migrated while this one waited.
+            if (!needsMigration()) {
+                return;
+            }
+            jdbcTemplate.update("""
+                    INSERT INTO balance_ledger (user_id, amount_cents, reason, created_at)
+                    SELECT u.id, u.balance_cents, ?, now() FROM users u
+                    WHERE u.balance_cents <> 0
+                      AND NOT EXISTS (SELECT 1 FROM balance_ledger l WHERE l.user_id = u.id AND l.reason = ?)
+                    ORDER BY u.id
+                    """, LedgerReason.OPENING.name(), LedgerReason.OPENING.name());
+            jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN balance_cents DROP NOT NULL");
+        });
+    }
+
+    /** True while the legacy column still has the NOT NULL constraint that the copy removes. */
+    private boolean needsMigration() {
+        Integer columns = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'balance_cents'
+                  AND is_nullable = 'NO'
+                """, Integer.class);
+        return columns != null && columns > 0;
+    }
+}
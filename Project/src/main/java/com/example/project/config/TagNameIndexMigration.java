@@ -0,0 +1,40 @@
+package com.example.project.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes tag names unique regardless of case and surrounding blanks, as
+ * {@code GameTagService} and {@code TagDictionary} compare them, with a unique
+ * index on {@code lower(btrim(name))}. Hibernate's column constraint is
+ * case-sensitive and cannot express it. Runs at startup, after Hibernate has
+ * created the tables (hence the {@link EntityManagerFactory} dependency);
+ * does nothing once the index exists. If tags that differ only in case are
+ * already stored, the index cannot be built: startup goes on with a warning
+ * and the service-level check alone until they are merged.
+ */
+@Component
+public class TagNameIndexMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TagNameIndexMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TagNameIndexMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_tags_lower_name ON tags (lower(btrim(name)))");
+        } catch (DataAccessException ex) {
+            log.warn("Could not create uk_tags_lower_name; tag names that differ only in case are stored", ex);
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package com.example.project.controller;
 
+import com.example.project.model.BulkTagRequestDTO;
+import com.example.project.model.BulkTagResultDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.ExportFormat;
 import com.example.project.model.Game;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.model.ImportReportDTO;
+import com.example.project.model.SuggestionDTO;
+import com.example.project.service.ExportService;
+import com.example.project.service.GameImportService;
 import com.example.project.service.GameService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,9 +32,13 @@ import java.util.List;
 public class GameController {
 
     private final GameService gameService;
+    private final GameImportService gameImportService;
+    private final ExportService exportService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, GameImportService gameImportService, ExportService exportService) {
         this.gameService = gameService;
+        this.gameImportService = gameImportService;
+        this.exportService = exportService;
     }
 
     @Operation(summary = "Create a new game", description = "Creates a new game. The game name must be unique. Returns the created game.")
@@ -36,11 +53,40 @@ public class GameController {
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
-    @Operation(summary = "Get all games", description = "Returns the complete list of games. If there are no games, an empty list is returned.")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved all games.")
+    @Operation(summary = "Bulk import games", description = "Streams newline-delimited JSON, one {\"name\": ..., \"tags\": [...]} object per line. Games are matched by exact name and created when missing; listed tags are added to them and created when unknown (matched case-insensitively). Lines are applied in batches, each in its own transaction. Invalid lines are skipped and listed in the report.")
+    @ApiResponse(responseCode = "200", description = "Import finished; the report lists counts and per-line errors.")
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportReportDTO> importGames(InputStream body) {
+        return ResponseEntity.ok(gameImportService.importGames(body));
+    }
+
+    @Operation(summary = "Export the catalog", description = "Streams every game with its tag names as NDJSON (default) or CSV (tags joined by '|'), in id order. Memory use does not depend on the catalog size.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed."),
+            @ApiResponse(responseCode = "400", description = "Unknown format.")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportGames(@RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        StreamingResponseBody body = out -> exportService.exportGames(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"games." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Get games (paginated)", description = "Returns one page of games ordered by id (default) or name. Pass the returned nextCursor to fetch the following page. Page size defaults to 20 and is capped at 100. With facets=true the response also carries per-tag game counts for the whole catalog.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of games."),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or sort.")
+    })
     @GetMapping
-    public ResponseEntity<List<Game>> getAllGames() {
-        return ResponseEntity.ok(gameService.getAll());
+    public ResponseEntity<CursorPageDTO<Game>> getAllGames(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "false") boolean facets) {
+        return ResponseEntity.ok(gameService.getPage(cursor, size, sort, facets));
     }
 
     @Operation(summary = "Get game by ID", description = "Retrieves a single game by its unique ID. Returns 404 if the game does not exist.")
@@ -64,14 +110,38 @@ public class GameController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Search games by name (partial match)", description = "Searches games by name using a case-insensitive partial match.")
+    @Operation(summary = "Search games by name (partial match)", description = "Searches games by name using a case-insensitive partial match. Results are ranked exact > prefix > substring and limited to 20 by default (max 100).")
     @ApiResponse(responseCode = "200", description = "Search completed successfully.")
     @GetMapping("/search/name")
-    public ResponseEntity<List<Game>> searchByName(@RequestParam String name) {
-        return ResponseEntity.ok(gameService.searchByName(name));
+    public ResponseEntity<List<GameSummaryDTO>> searchByName(@RequestParam String name,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(gameService.searchByName(name, limit));
+    }
+
+    @Operation(summary = "Fuzzy search games by name", description = "Typo-tolerant search: returns games whose name, or the start of it, is within maxDistance edits (insert, delete, substitute, swap adjacent) of the query. maxDistance defaults to 1-3 depending on query length and is capped at 3. Closer matches rank first. Limited to 20 by default (max 100).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search completed successfully."),
+            @ApiResponse(responseCode = "400", description = "Invalid maxDistance or limit.")
+    })
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<GameSummaryDTO>> fuzzySearchByName(@RequestParam String name,
+            @RequestParam(required = false) Integer maxDistance,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(gameService.fuzzySearchByName(name, maxDistance, limit));
+    }
+
+    @Operation(summary = "Autocomplete game names", description = "Returns ids and names of games whose name starts with the given prefix (case-insensitive), most owned first. Limited to 20 by default (max 100).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Suggestions returned."),
+            @ApiResponse(responseCode = "400", description = "Invalid limit.")
+    })
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<SuggestionDTO>> autocomplete(@RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(gameService.autocomplete(prefix, limit));
     }
 
-    @Operation(summary = "Search games by tags", description = "Returns games that have at least one of the provided tag names.")
+    @Operation(summary = "Search games by tags", description = "Returns games that have at least one of the provided tag names. Add facets=true to also get per-tag counts over the result.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Search completed successfully."),
             @ApiResponse(responseCode = "400", description = "No tags provided or tags are invalid.")
@@ -81,6 +151,39 @@ public class GameController {
         return ResponseEntity.ok(gameService.searchByTags(tags));
     }
 
+    @Operation(summary = "Search games by tags with facets", description = "Same as the search by tags above, answered from the in-memory tag index: returns every game that has at least one of the provided tags, in index order, as the items of a single page, together with, for every tag, how many of those games have it.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search completed successfully.")
+    })
+    @GetMapping(value = "/search/tags", params = {"tags", "facets=true"})
+    public ResponseEntity<CursorPageDTO<Game>> searchByTagsWithFacets(@RequestParam List<String> tags) {
+        return ResponseEntity.ok(gameService.searchByTagsWithFacets(tags));
+    }
+
+    @Operation(summary = "Search games by tag expression (paginated)", description = "Evaluates a boolean tag expression such as 'rpg AND NOT survival' or '(indie OR action) AND \"open world\"' and returns one page of matching games in index order: ascending id, except that games created since the last index rebuild may follow in creation order. Pass the returned nextCursor to continue. With facets=true the response also carries, for every tag, how many games in the full result set have it.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search completed successfully."),
+            @ApiResponse(responseCode = "400", description = "Malformed query, cursor or size.")
+    })
+    @GetMapping(value = "/search/tags", params = "query")
+    public ResponseEntity<CursorPageDTO<Game>> searchByTagQuery(@RequestParam String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean facets) {
+        return ResponseEntity.ok(gameService.searchByTagQuery(query, cursor, size, facets));
+    }
+
+    @Operation(summary = "Add or remove tags in bulk", description = "Applies action 'add' or 'remove' to either a list of (gameId, tagId) pairs or one tagId on every game matching a tag query such as \"indie AND NOT multiplayer\". Runs in one transaction as a single set-based statement; at most 100000 pairs per request. Pairs naming unknown games or tags, and links already in the requested state, are skipped.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Links updated; the result counts requested and changed links."),
+            @ApiResponse(responseCode = "400", description = "Invalid action, query, or pair list."),
+            @ApiResponse(responseCode = "404", description = "Tag not found (query form).")
+    })
+    @PostMapping("/tags/bulk")
+    public ResponseEntity<BulkTagResultDTO> bulkUpdateTags(@Valid @RequestBody BulkTagRequestDTO request) {
+        return ResponseEntity.ok(gameService.bulkUpdateTags(request));
+    }
+
     @Operation(summary = "Add a tag to a game", description = "Associates an existing tag with an existing game. Returns the updated game.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Tag added to game."),
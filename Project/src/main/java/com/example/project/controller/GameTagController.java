@@ -1,6 +1,7 @@
 package com.example.project.controller;
 
 import com.example.project.model.GameTag;
+import com.example.project.model.SuggestionDTO;
 import com.example.project.service.GameTagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -43,6 +44,17 @@ public class GameTagController {
         return ResponseEntity.ok(tagService.getAll());
     }
 
+    @Operation(summary = "Autocomplete tag names", description = "Returns ids and names of tags whose name starts with the given prefix (case-insensitive), most used first. Limited to 20 by default (max 100).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Suggestions returned."),
+            @ApiResponse(responseCode = "400", description = "Invalid limit.")
+    })
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<SuggestionDTO>> autocomplete(@RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(tagService.autocomplete(prefix, limit));
+    }
+
     @Operation(summary = "Get tag by ID", description = "Returns a tag by its ID.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Tag found and returned."),
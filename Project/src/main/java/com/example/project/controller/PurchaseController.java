@@ -1,18 +1,33 @@
 package com.example.project.controller;
 
-import com.example.project.model.Purchase;
+import com.example.project.exception.NotFoundException;
+import com.example.project.model.CheckoutRequestDTO;
+import com.example.project.model.CheckoutResultDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.ExportFormat;
 import com.example.project.model.PurchaseCreateRequestDTO;
+import com.example.project.model.PurchaseHistoryItemDTO;
+import com.example.project.model.PurchaseReceiptDTO;
+import com.example.project.model.PurchaseRequestStatusDTO;
+import com.example.project.queue.PurchasePipeline;
+import com.example.project.queue.UserWriteQueue;
+import com.example.project.service.ExportService;
 import com.example.project.service.PurchaseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.net.URI;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/rest/purchases")
@@ -20,35 +35,118 @@ import java.util.List;
 public class PurchaseController {
 
     private final PurchaseService purchaseService;
+    private final ExportService exportService;
+    private final UserWriteQueue userWriteQueue;
+    private final PurchasePipeline purchasePipeline;
 
-    public PurchaseController(PurchaseService purchaseService) {
+    public PurchaseController(PurchaseService purchaseService, ExportService exportService,
+            UserWriteQueue userWriteQueue, PurchasePipeline purchasePipeline) {
         this.purchaseService = purchaseService;
+        this.exportService = exportService;
+        this.userWriteQueue = userWriteQueue;
+        this.purchasePipeline = purchasePipeline;
     }
 
-    @Operation(summary = "Purchase a game", description = "Creates a purchase record for a user and a game.")
+    @Operation(summary = "Purchase a game", description = "Creates a purchase record for a user and a game and returns a receipt with the new balance. Purchases for the same user run one at a time, in arrival order.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Purchase created successfully."),
             @ApiResponse(responseCode = "404", description = "User or Game not found."),
-            @ApiResponse(responseCode = "409", description = "User already purchased this game."),
-            @ApiResponse(responseCode = "400", description = "Validation failed.")
+            @ApiResponse(responseCode = "409", description = "User already purchased this game, or the balance does not cover the price."),
+            @ApiResponse(responseCode = "400", description = "Validation failed."),
+            @ApiResponse(responseCode = "503", description = "Too many pending operations for this user.")
     })
     @PostMapping("/user/{userId}/game/{gameId}")
-    public ResponseEntity<Purchase> purchaseGame(
+    public ResponseEntity<PurchaseReceiptDTO> purchaseGame(
             @PathVariable Long userId,
             @PathVariable Long gameId,
             @Valid @RequestBody PurchaseCreateRequestDTO request) {
 
-        Purchase created = purchaseService.create(userId, gameId, request.getPriceCents());
+        PurchaseReceiptDTO created = userWriteQueue.submit(userId,
+                () -> purchaseService.create(userId, gameId, request.getPriceCents()));
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
-    @Operation(summary = "Get purchase history by user", description = "Returns all purchases made by the specified user.")
+    @Operation(summary = "Purchase a game asynchronously", description = "Queues the purchase and answers at once with its status; poll the Location header for the outcome. Queued purchases run in small batches, in arrival order per user.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Purchase queued."),
+            @ApiResponse(responseCode = "400", description = "Validation failed."),
+            @ApiResponse(responseCode = "503", description = "The purchase queue is full.")
+    })
+    @PostMapping("/user/{userId}/game/{gameId}/async")
+    public ResponseEntity<PurchaseRequestStatusDTO> purchaseGameAsync(
+            @PathVariable Long userId,
+            @PathVariable Long gameId,
+            @Valid @RequestBody PurchaseCreateRequestDTO request) {
+
+        PurchaseRequestStatusDTO status = purchasePipeline.submit(userId, gameId, request.getPriceCents());
+        return ResponseEntity.accepted()
+                .location(URI.create("/rest/purchases/requests/" + status.getRequestId()))
+                .body(status);
+    }
+
+    @Operation(summary = "Get an asynchronous purchase", description = "Returns the status of a queued purchase: QUEUED, then SUCCEEDED with the receipt or FAILED with the error status and message. Outcomes are kept for a limited time.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Status returned."),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired request id.")
+    })
+    @GetMapping("/requests/{requestId}")
+    public ResponseEntity<PurchaseRequestStatusDTO> getPurchaseRequest(@PathVariable String requestId) {
+        return purchasePipeline.status(requestId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new NotFoundException("Purchase request not found."));
+    }
+
+    @Operation(summary = "Check out a cart", description = "Buys several games for a user in one transaction: the balance is debited once with the total, and either every game is bought or none. Runs in order with the user's other purchases and top-ups.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Every game purchased."),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized cart, a game listed twice, or validation failed."),
+            @ApiResponse(responseCode = "404", description = "User or one of the games not found."),
+            @ApiResponse(responseCode = "409", description = "A game was already purchased, or the balance does not cover the total."),
+            @ApiResponse(responseCode = "503", description = "Too many pending operations for this user.")
+    })
+    @PostMapping("/user/{userId}/checkout")
+    public ResponseEntity<CheckoutResultDTO> checkout(
+            @PathVariable Long userId,
+            @Valid @RequestBody CheckoutRequestDTO request) {
+
+        CheckoutResultDTO result = userWriteQueue.submit(userId,
+                () -> purchaseService.checkout(userId, request.getItems()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    @Operation(summary = "Get purchase history by user", description = "Returns one page of the user's purchases, newest first, as game id, game name, price and time. "
+            + "from and to (ISO-8601 instants) keep purchases made at or after from and before to. "
+            + "Pass the returned nextCursor to fetch the following page.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Purchases returned."),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or time range."),
             @ApiResponse(responseCode = "404", description = "User not found.")
     })
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Purchase>> getPurchasesByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(purchaseService.getByUser(userId));
+    public ResponseEntity<CursorPageDTO<PurchaseHistoryItemDTO>> getPurchasesByUser(@PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(purchaseService.getHistory(userId, from, to, cursor, size));
+    }
+
+    @Operation(summary = "Export purchase history", description = "Streams purchases as NDJSON (default) or CSV in id order, for one user when userId is given and for everyone otherwise. Memory use does not depend on the number of purchases.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed."),
+            @ApiResponse(responseCode = "400", description = "Unknown format."),
+            @ApiResponse(responseCode = "404", description = "User not found.")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPurchases(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        exportService.checkPurchaseExport(userId);
+        StreamingResponseBody body = out -> exportService.exportPurchases(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"purchases." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 }
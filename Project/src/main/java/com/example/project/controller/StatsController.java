@@ -0,0 +1,63 @@
+package com.example.project.controller;
+
+import com.example.project.model.CacheStatsDTO;
+import com.example.project.model.NameFilterStatsDTO;
+import com.example.project.model.PurchasePipelineStatsDTO;
+import com.example.project.model.WriteQueueStatsDTO;
+import com.example.project.service.StatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/rest/stats")
+@Tag(name = "Statistics", description = "APIs for inspecting in-memory caches, indexes and queues.")
+public class StatsController {
+
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @Operation(summary = "Get game cache statistics", description = "Returns the size, capacity, hit and miss counts and evictions of the game record cache since startup.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned.")
+    @GetMapping("/game-cache")
+    public ResponseEntity<CacheStatsDTO> getGameCacheStats() {
+        return ResponseEntity.ok(statsService.getGameCacheStats());
+    }
+
+    @Operation(summary = "Get user write queue statistics", description = "Returns, per stripe of the per-user write queue, the operations currently queued or running, how many ran, were rejected or timed out, and the mean and maximum time they waited before starting.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned.")
+    @GetMapping("/user-write-queue")
+    public ResponseEntity<WriteQueueStatsDTO> getUserWriteQueueStats() {
+        return ResponseEntity.ok(statsService.getUserWriteQueueStats());
+    }
+
+    @Operation(summary = "Get unique-name filter statistics", description = "Returns, per Bloom filter in front of the username and game name uniqueness checks, its size, fill, how many database lookups it avoided or let through, and the observed and expected false positive rates.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned.")
+    @GetMapping("/name-filters")
+    public ResponseEntity<List<NameFilterStatsDTO>> getNameFilterStats() {
+        return ResponseEntity.ok(statsService.getNameFilterStats());
+    }
+
+    @Operation(summary = "Get idempotency cache statistics", description = "Returns the size, capacity, hit and miss counts and evictions of the in-memory cache of responses recorded per Idempotency-Key. A hit is a retry answered without touching the database.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned.")
+    @GetMapping("/idempotency")
+    public ResponseEntity<CacheStatsDTO> getIdempotencyCacheStats() {
+        return ResponseEntity.ok(statsService.getIdempotencyCacheStats());
+    }
+
+    @Operation(summary = "Get purchase pipeline statistics", description = "Returns the queue depth and capacity, the backpressure policy, accepted, rejected, succeeded and failed counts, batch sizes and the end-to-end latency of asynchronous purchases.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned.")
+    @GetMapping("/purchase-pipeline")
+    public ResponseEntity<PurchasePipelineStatsDTO> getPurchasePipelineStats() {
+        return ResponseEntity.ok(statsService.getPurchasePipelineStats());
+    }
+}
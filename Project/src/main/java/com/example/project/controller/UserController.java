@@ -1,8 +1,11 @@
 package com.example.project.controller;
 
 import com.example.project.model.BalanceTopUpRequestDTO;
-import com.example.project.model.Game;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.GameSummaryDTO;
 import com.example.project.model.User;
+import com.example.project.model.UserSummaryDTO;
+import com.example.project.queue.UserWriteQueue;
 import com.example.project.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,7 +16,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/rest/users")
@@ -21,9 +23,11 @@ import java.util.Set;
 public class UserController {
 
         private final UserService userService;
+        private final UserWriteQueue userWriteQueue;
 
-        public UserController(UserService userService) {
+        public UserController(UserService userService, UserWriteQueue userWriteQueue) {
                 this.userService = userService;
+                this.userWriteQueue = userWriteQueue;
         }
 
         @Operation(summary = "Create a new user", description = "Creates a new user.")
@@ -38,11 +42,18 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(saved);
         }
 
-        @Operation(summary = "Get all users", description = "Returns all users.")
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved all users.")
+        @Operation(summary = "Get users", description = "Returns one page of users in id order as summaries (id, username, balance, owned-game count). "
+                        + "Pass the returned nextCursor to fetch the following page. expand=ownedGames,wishlist also includes those collections.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page."),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or expand value.")
+        })
         @GetMapping
-        public ResponseEntity<List<User>> getAllUsers() {
-                return ResponseEntity.ok(userService.getAll());
+        public ResponseEntity<CursorPageDTO<UserSummaryDTO>> getAllUsers(
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size,
+                        @RequestParam(required = false) List<String> expand) {
+                return ResponseEntity.ok(userService.getPage(cursor, size, expand));
         }
 
         @Operation(summary = "Get user by ID", description = "Returns a user by ID. Returns 404 if not found.")
@@ -65,14 +76,31 @@ public class UserController {
                 return ResponseEntity.ok(userService.getByUsername(username));
         }
 
-        @Operation(summary = "Get user's owned games", description = "Returns the set of games owned by the user.")
+        @Operation(summary = "Get user's owned games", description = "Returns one page of the games owned by the user as id and name, sorted by id (default) or name. "
+                        + "Pass the returned nextCursor to fetch the following page.")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Owned games returned."),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or sort."),
                         @ApiResponse(responseCode = "404", description = "User not found.")
         })
         @GetMapping("/{userId}/owned-games")
-        public ResponseEntity<Set<Game>> getOwnedGames(@PathVariable Long userId) {
-                return ResponseEntity.ok(userService.getOwnedGames(userId));
+        public ResponseEntity<CursorPageDTO<GameSummaryDTO>> getOwnedGames(@PathVariable Long userId,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size,
+                        @RequestParam(defaultValue = "id") String sort) {
+                return ResponseEntity.ok(userService.getOwnedGames(userId, cursor, size, sort));
+        }
+
+        @Operation(summary = "Check game ownership", description = "Returns 204 if the user owns the game and 404 otherwise. Also answers HEAD.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "204", description = "The user owns the game."),
+                        @ApiResponse(responseCode = "404", description = "The user does not own the game, or either does not exist.")
+        })
+        @GetMapping("/{userId}/owned-games/{gameId}")
+        public ResponseEntity<Void> ownsGame(@PathVariable Long userId, @PathVariable Long gameId) {
+                return userService.ownsGame(userId, gameId)
+                                ? ResponseEntity.noContent().build()
+                                : ResponseEntity.notFound().build();
         }
 
         @Operation(summary = "Add a game to user's owned games", description = "Associates an existing game to the user's owned games.")
@@ -95,15 +123,17 @@ public class UserController {
                 return ResponseEntity.ok(userService.removeOwnedGame(userId, gameId));
         }
 
-        @Operation(summary = "Top up user balance", description = "Adds amountCents to the user's balance.")
+        @Operation(summary = "Top up user balance", description = "Adds amountCents to the user's balance. Runs after any pending purchases or top-ups for the same user.")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Balance updated."),
                         @ApiResponse(responseCode = "400", description = "Validation failed."),
-                        @ApiResponse(responseCode = "404", description = "User not found.")
+                        @ApiResponse(responseCode = "404", description = "User not found."),
+                        @ApiResponse(responseCode = "503", description = "Too many pending operations for this user.")
         })
         @PostMapping("/{id}/balance")
         public ResponseEntity<User> topUpBalance(@PathVariable Long id,
                         @Valid @RequestBody BalanceTopUpRequestDTO request) {
-                return ResponseEntity.ok(userService.topUpBalance(id, request.getAmountCents()));
+                return ResponseEntity.ok(userWriteQueue.submit(id,
+                                () -> userService.topUpBalance(id, request.getAmountCents())));
         }
 }
@@ -0,0 +1,16 @@
+package com.example.project.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException() {
+        super("Bad request!");
+    }
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
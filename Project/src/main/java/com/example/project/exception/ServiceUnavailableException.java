@@ -0,0 +1,16 @@
+package com.example.project.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException() {
+        super("Service unavailable!");
+    }
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
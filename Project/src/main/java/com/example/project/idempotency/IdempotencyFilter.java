@@ -0,0 +1,219 @@
+package com.example.project.idempotency;
+
+import com.example.project.model.IdempotentResponseDTO;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Makes the money-moving POST endpoints ({@code idempotency.paths}) safe to
+ * retry. A request carrying an {@code Idempotency-Key} header claims the key
+ * for its method and path before it runs; its response, when successful, is
+ * recorded in the {@link IdempotencyStore}, and a retry with the same key and
+ * body is answered with that response, marked {@code Idempotent-Replayed},
+ * without running the request again.
+ * <p>
+ * A retry that arrives while the first request is still running gets 409, and
+ * reusing a key with a different body gets 400. Bodies are buffered to be
+ * hashed, so one longer than {@code idempotency.max-body-bytes} gets 413. Failed responses are not
+ * recorded: the request changed nothing, so a retry runs it again. When a
+ * successful response cannot be recorded, or the instance dies mid-request,
+ * the claim stays until the key expires and retries keep getting 409: the
+ * request may have committed, and running it twice is worse than asking the
+ * client for a new key. Requests without the header are passed through
+ * untouched.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final List<String> paths;
+    private final int maxBodyBytes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(IdempotencyStore store,
+            @Value("${idempotency.paths:/rest/purchases/user/*/game/*,/rest/purchases/user/*/game/*/async,/rest/purchases/user/*/checkout,/rest/users/*/balance}") List<String> paths,
+            @Value("${idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        if (maxBodyBytes < 1) {
+            throw new IllegalArgumentException("Idempotency body limit must be positive.");
+        }
+        this.store = store;
+        this.paths = paths;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+
+        // The body is held in memory to be hashed, so it is read only up to the limit, plus one byte to
+        // tell a body of exactly the limit from a longer one sent without a Content-Length.
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null
+                : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Requests with an " + HEADER + " may carry at most " + maxBodyBytes + " bytes.");
+            return;
+        }
+        String recordKey = sha256(request.getMethod() + ' ' + request.getRequestURI() + ' ' + key);
+        String requestHash = sha256(body);
+
+        IdempotentResponseDTO recorded = store.claim(recordKey, requestHash);
+        if (recorded != null) {
+            if (!recorded.isCompleted()) {
+                response.sendError(HttpServletResponse.SC_CONFLICT,
+                        "A request with this " + HEADER + " is still in progress or its outcome is unknown.");
+            } else if (!requestHash.equals(recorded.getRequestHash())) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                        "This " + HEADER + " was already used with a different request body.");
+            } else {
+                replay(recorded, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), captured);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            store.release(recordKey);
+            throw ex;
+        }
+
+        int status = captured.getStatus();
+        if (status >= 200 && status < 300) {
+            try {
+                store.complete(recordKey, requestHash, status, captured.getContentType(),
+                        new String(captured.getContentAsByteArray(), StandardCharsets.UTF_8));
+            } catch (DataAccessException ex) {
+                // The request went through; the claim stays until the key expires, so a retry gets 409
+                // instead of running it a second time.
+                logger.warn("Could not record the response for an " + HEADER, ex);
+            }
+        } else {
+            store.release(recordKey);
+        }
+        captured.copyBodyToResponse();
+    }
+
+    private static void replay(IdempotentResponseDTO recorded, HttpServletResponse response) throws IOException {
+        response.setStatus(recorded.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (recorded.getContentType() != null) {
+            response.setContentType(recorded.getContentType());
+        }
+        if (recorded.getBody() != null) {
+            byte[] bytes = recorded.getBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+    }
+
+    /** The request with its body already read, so the body can be both hashed and handled. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /** The whole body is already in memory, so it is available, and then read, at once. */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.project.idempotency;
+
+import com.example.project.model.CacheStatsDTO;
+import com.example.project.model.IdempotentResponseDTO;
+import com.example.project.repository.IdempotencyJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Responses recorded per idempotency key: the {@code idempotency_records}
+ * table, fronted by a bounded LRU of completed responses.
+ * <p>
+ * A retry of a request whose response is in the LRU is answered with one map
+ * lookup and no statement. Otherwise one statement either claims the key or
+ * returns what is recorded for it, so a retry that reaches another instance,
+ * or arrives after a restart, is still answered from the table. Records live
+ * for {@code idempotency.ttl-ms}; expired rows are deleted every
+ * {@code idempotency.cleanup-interval-ms}, in batches of
+ * {@code idempotency.cleanup-batch}. A claim whose request never recorded a
+ * response is kept for the whole TTL too, since the request may have
+ * committed before it failed to record one.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyJdbcRepository repository;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long ttlNanos;
+    private final int cleanupBatch;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyJdbcRepository repository,
+            @Value("${idempotency.cache-size:10000}") int maxSize,
+            @Value("${idempotency.ttl-ms:86400000}") long ttlMillis,
+            @Value("${idempotency.cleanup-batch:1000}") int cleanupBatch) {
+        this(repository, maxSize, ttlMillis, cleanupBatch, System::nanoTime);
+    }
+
+    public IdempotencyStore(IdempotencyJdbcRepository repository, int maxSize, long ttlMillis, int cleanupBatch,
+            LongSupplier clock) {
+        if (maxSize < 1 || ttlMillis < 1 || cleanupBatch < 1) {
+            throw new IllegalArgumentException("Idempotency cache size, TTL and batch must be positive.");
+        }
+        this.repository = repository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.cleanupBatch = cleanupBatch;
+        this.clock = clock;
+    }
+
+    /**
+     * Claims {@code recordKey} for the caller and returns null, or returns
+     * what is already recorded for it: a completed response, or a claim
+     * (null status) held by a request still running or one that ended without
+     * recording its response.
+     */
+    public IdempotentResponseDTO claim(String recordKey, String requestHash) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(recordKey);
+            if (entry != null) {
+                if (now - entry.storedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.response;
+                }
+                entries.remove(recordKey);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+
+        IdempotentResponseDTO recorded = repository.claim(recordKey, requestHash, ttlMillis);
+        if (recorded != null && recorded.isCompleted()) {
+            // Remembered for the rest of the TTL as seen from here; the row may be a little older.
+            remember(recordKey, recorded, now);
+        }
+        return recorded;
+    }
+
+    /** Records the response of the request holding the claim on {@code recordKey}. */
+    public void complete(String recordKey, String requestHash, int status, String contentType, String body) {
+        repository.complete(recordKey, status, contentType, body);
+        remember(recordKey, new IdempotentResponseDTO(requestHash, status, contentType, body), clock.getAsLong());
+    }
+
+    /** Gives up the claim on {@code recordKey}, so that a retry runs the request again. */
+    public void release(String recordKey) {
+        repository.release(recordKey);
+    }
+
+    @Scheduled(initialDelayString = "${idempotency.cleanup-interval-ms:600000}", fixedDelayString = "${idempotency.cleanup-interval-ms:600000}")
+    public void scheduledCleanup() {
+        cleanUp();
+    }
+
+    /** Deletes every expired record, one batch per statement, and returns how many it deleted. */
+    public int cleanUp() {
+        int deleted = 0;
+        while (true) {
+            int batch = repository.deleteExpired(cleanupBatch);
+            deleted += batch;
+            if (batch < cleanupBatch) {
+                return deleted;
+            }
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatsDTO(size, maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private void remember(String recordKey, IdempotentResponseDTO response, long now) {
+        synchronized (entries) {
+            entries.put(recordKey, new Entry(response, now));
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final IdempotentResponseDTO response;
+        final long storedAt;
+
+        Entry(IdempotentResponseDTO response, long storedAt) {
+            this.response = response;
+            this.storedAt = storedAt;
+        }
+    }
+}
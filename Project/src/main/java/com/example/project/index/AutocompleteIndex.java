@@ -0,0 +1,98 @@
+package com.example.project.index;
+
+import com.example.project.model.SuggestionDTO;
+import com.example.project.repository.GameRepository;
+import com.example.project.repository.GameTagRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prefix autocomplete for game names (ranked by number of owners) and tag
+ * names (ranked by number of tagged games). Both are loaded on startup and
+ * reloaded periodically, which also refreshes the popularity figures; games
+ * and tags created in between are suggested straight away with no popularity
+ * yet.
+ */
+@Component
+public class AutocompleteIndex {
+
+    private static final int MAX_PENDING = 5_000;
+
+    private final GameRepository gameRepository;
+    private final GameTagRepository gameTagRepository;
+
+    private final PrefixSuggester games = new PrefixSuggester();
+    private final PrefixSuggester tags = new PrefixSuggester();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+
+    public AutocompleteIndex(GameRepository gameRepository, GameTagRepository gameTagRepository) {
+        this.gameRepository = gameRepository;
+        this.gameTagRepository = gameTagRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${autocomplete.rebuild-interval-ms:900000}", fixedDelayString = "${autocomplete.rebuild-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long gamesStartedAt = games.sequence();
+            games.replace(gameRepository.findAllNamePopularity(), gamesStartedAt);
+            long tagsStartedAt = tags.sequence();
+            tags.replace(gameTagRepository.findAllNamePopularity(), tagsStartedAt);
+        }
+    }
+
+    public List<SuggestionDTO> suggestGames(String prefix, int limit) {
+        return games.suggest(prefix, limit);
+    }
+
+    public List<SuggestionDTO> suggestTags(String prefix, int limit) {
+        return tags.suggest(prefix, limit);
+    }
+
+    public void putGame(Long id, String name) {
+        games.put(id, name, 0);
+        requestRebuildIfBacklogged();
+    }
+
+    public void removeGame(Long id) {
+        games.remove(id);
+        requestRebuildIfBacklogged();
+    }
+
+    public void putTag(Long id, String name) {
+        tags.put(id, name, 0);
+        requestRebuildIfBacklogged();
+    }
+
+    public void removeTag(Long id) {
+        tags.remove(id);
+        requestRebuildIfBacklogged();
+    }
+
+    private void requestRebuildIfBacklogged() {
+        if (games.pendingSize() + tags.pendingSize() > MAX_PENDING && rebuildRequested.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuildRequested.set(false);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,575 @@
+package com.example.project.index;
+
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.repository.GameRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory trigram index over game names.
+ * <p>
+ * Searches read an immutable {@link Snapshot} through a volatile reference, so
+ * they never wait on a rebuild: a rebuild prepares the next snapshot off to the
+ * side and swaps it in. Creates and deletes that happen between rebuilds are
+ * kept in a small pending map that overrides the snapshot until the next
+ * rebuild has picked them up.
+ */
+@Component
+public class GameNameIndex {
+
+    static final int GRAM = 3;
+    static final int MAX_EDIT_DISTANCE = 3;
+
+    private static final int MAX_PENDING = 5_000;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final GameRepository gameRepository;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, PendingChange> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    public GameNameIndex(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${game-index.rebuild-interval-ms:600000}", fixedDelayString = "${game-index.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every game name and swaps in a fresh snapshot. Pending changes
+     * recorded before the reload started are already part of it and dropped.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startedAt = sequence.get();
+            snapshot = Snapshot.build(gameRepository.findAllSummaries());
+            pending.values().removeIf(change -> change.sequence <= startedAt);
+        }
+    }
+
+    public void put(Long id, String name) {
+        pending.put(id, new PendingChange(sequence.incrementAndGet(), name));
+        requestRebuildIfBacklogged();
+    }
+
+    public void remove(Long id) {
+        pending.put(id, new PendingChange(sequence.incrementAndGet(), null));
+        requestRebuildIfBacklogged();
+    }
+
+    /**
+     * Case-insensitive substring search. Exact matches rank first, then
+     * prefix matches, then any other substring match; ties go to the shorter
+     * and then alphabetically smaller name.
+     */
+    public List<GameSummaryDTO> search(String query, int limit) {
+        String needle = normalize(query);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        TopMatches top = new TopMatches(limit);
+        current.forEachContaining(needle, ord -> {
+            long id = current.ids[ord];
+            if (!pending.containsKey(id)) {
+                top.offer(id, current.names[ord], rank(current.lowerNames[ord], needle));
+            }
+        });
+        for (Map.Entry<Long, PendingChange> entry : pending.entrySet()) {
+            PendingChange change = entry.getValue();
+            if (change.lowerName != null && change.lowerName.contains(needle)) {
+                top.offer(entry.getKey(), change.name, rank(change.lowerName, needle));
+            }
+        }
+        return top.toList();
+    }
+
+    /**
+     * Typo-tolerant search: games whose name, or the beginning of whose name,
+     * is within {@code maxDistance} edits of the query. When {@code maxDistance} is null it grows
+     * with the query length: 1 up to four characters, 2 up to eight, 3 beyond.
+     * Ties in rank go to the shorter and then alphabetically smaller name.
+     * <p>
+     * Edits include swaps of adjacent characters, and one swap can break up
+     * to four trigrams, so a name within {@code d} edits shares at least
+     * {@code |grams(query)| - 4d} trigrams with the query. When that bound is
+     * positive only names sharing that many are checked (see
+     * {@link #fuzzyRank}). Otherwise, which is the case for short queries,
+     * the names are walked in sorted order: names sharing a prefix share the
+     * edit-distance columns computed for it, and a whole prefix range is
+     * skipped or accepted at once as soon as its outcome is known.
+     */
+    public List<GameSummaryDTO> fuzzySearch(String query, Integer maxDistance, int limit) {
+        String needle = normalize(query);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int distance = maxDistance != null ? maxDistance : defaultDistance(needle.length());
+        if (distance < 0 || distance > MAX_EDIT_DISTANCE) {
+            throw new IllegalArgumentException("Edit distance must be between 0 and " + MAX_EDIT_DISTANCE + ".");
+        }
+
+        Snapshot current = snapshot;
+        TopMatches top = new TopMatches(limit);
+        current.forEachFuzzyMatch(needle, distance, (ord, rank) -> {
+            long id = current.ids[ord];
+            if (!pending.containsKey(id)) {
+                top.offer(id, current.names[ord], rank);
+            }
+        });
+        for (Map.Entry<Long, PendingChange> entry : pending.entrySet()) {
+            PendingChange change = entry.getValue();
+            if (change.lowerName != null) {
+                int rank = fuzzyRank(change.lowerName, needle, distance);
+                if (rank >= 0) {
+                    top.offer(entry.getKey(), change.name, rank);
+                }
+            }
+        }
+        return top.toList();
+    }
+
+    static int defaultDistance(int length) {
+        if (length <= 4) {
+            return 1;
+        }
+        return length <= 8 ? 2 : MAX_EDIT_DISTANCE;
+    }
+
+    /**
+     * Rank of {@code name} as a fuzzy match for {@code needle}, or -1 if it is
+     * not within {@code maxDistance} edits. A whole-name match ranks
+     * {@code 2 * distance}; a match against a prefix of the name ranks
+     * {@code 2 * distance + 3}, i.e. as if it needed one and a half more edits.
+     * <p>
+     * Edits are insertions, deletions, substitutions and swaps of adjacent
+     * characters (optimal string alignment). One pass over the name's first
+     * {@code needle.length() + maxDistance} characters yields both distances,
+     * since the last row of the table holds the distance from the needle to
+     * every prefix of the name; the pass stops early once no cell in the
+     * current column is within bounds.
+     */
+    static int fuzzyRank(String name, String needle, int maxDistance) {
+        int m = needle.length();
+        int columns = Math.min(name.length(), m + maxDistance);
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            previous[i] = i;
+        }
+        int bestPrefix = Integer.MAX_VALUE;
+        for (int j = 1; j <= columns; j++) {
+            char c = name.charAt(j - 1);
+            current[0] = j;
+            int columnMin = j;
+            for (int i = 1; i <= m; i++) {
+                char n = needle.charAt(i - 1);
+                int value = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + (n == c ? 0 : 1));
+                if (i > 1 && j > 1 && n == name.charAt(j - 2) && needle.charAt(i - 2) == c) {
+                    value = Math.min(value, beforePrevious[i - 2] + 1);
+                }
+                current[i] = value;
+                columnMin = Math.min(columnMin, value);
+            }
+            if (current[m] <= maxDistance) {
+                if (j == name.length()) {
+                    return 2 * current[m];
+                }
+                bestPrefix = Math.min(bestPrefix, current[m]);
+            }
+            if (columnMin > maxDistance) {
+                break;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return bestPrefix <= maxDistance ? 2 * bestPrefix + 3 : -1;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int rank(String lowerName, String needle) {
+        if (lowerName.equals(needle)) {
+            return 0;
+        }
+        return lowerName.startsWith(needle) ? 1 : 2;
+    }
+
+    private void requestRebuildIfBacklogged() {
+        if (pending.size() > MAX_PENDING && rebuildRequested.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuildRequested.set(false);
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    interface RankedConsumer {
+
+        void accept(int ordinal, int rank);
+    }
+
+    private static final class PendingChange {
+
+        final long sequence;
+        final String name;
+        final String lowerName;
+
+        PendingChange(long sequence, String name) {
+            this.sequence = sequence;
+            this.name = name;
+            this.lowerName = name == null ? null : normalize(name);
+        }
+    }
+
+    static final class Snapshot {
+
+        final long[] ids;
+        final String[] names;
+        final String[] lowerNames;
+        final Map<String, int[]> postings;
+        /** Ordinals in {@link #lowerNames} order. */
+        final int[] byName;
+
+        private Snapshot(long[] ids, String[] names, String[] lowerNames, Map<String, int[]> postings, int[] byName) {
+            this.ids = ids;
+            this.names = names;
+            this.lowerNames = lowerNames;
+            this.postings = postings;
+            this.byName = byName;
+        }
+
+        static Snapshot build(List<GameSummaryDTO> games) {
+            List<GameSummaryDTO> sorted = new ArrayList<>(games);
+            sorted.sort(Comparator.comparing(GameSummaryDTO::getId));
+
+            int size = sorted.size();
+            long[] ids = new long[size];
+            String[] names = new String[size];
+            String[] lowerNames = new String[size];
+            Map<String, IntList> builders = new HashMap<>();
+
+            for (int ord = 0; ord < size; ord++) {
+                GameSummaryDTO game = sorted.get(ord);
+                ids[ord] = game.getId();
+                names[ord] = game.getName();
+                lowerNames[ord] = normalize(game.getName());
+                for (String gram : grams(lowerNames[ord])) {
+                    builders.computeIfAbsent(gram, g -> new IntList()).add(ord);
+                }
+            }
+
+            Map<String, int[]> postings = new HashMap<>(builders.size() * 2);
+            builders.forEach((gram, list) -> postings.put(gram, list.toArray()));
+            int[] byName = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparing((Integer ord) -> lowerNames[ord]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            return new Snapshot(ids, names, lowerNames, postings, byName);
+        }
+
+        void forEachContaining(String needle, IntConsumer action) {
+            if (needle.length() < GRAM) {
+                for (int ord = 0; ord < lowerNames.length; ord++) {
+                    if (lowerNames[ord].contains(needle)) {
+                        action.accept(ord);
+                    }
+                }
+                return;
+            }
+            for (int ord : candidates(needle)) {
+                if (lowerNames[ord].contains(needle)) {
+                    action.accept(ord);
+                }
+            }
+        }
+
+        /** Passes every name within {@code maxDistance} edits to {@code action} with its {@link #fuzzyRank}. */
+        void forEachFuzzyMatch(String needle, int maxDistance, RankedConsumer action) {
+            Set<String> needleGrams = grams(needle);
+            int required = needleGrams.size() - (GRAM + 1) * maxDistance;
+            if (required <= 0) {
+                walkSorted(needle, maxDistance, action);
+                return;
+            }
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String gram : needleGrams) {
+                for (int ord : postings.getOrDefault(gram, NO_POSTINGS)) {
+                    if (shared.merge(ord, 1, Integer::sum) == required) {
+                        int rank = fuzzyRank(lowerNames[ord], needle, maxDistance);
+                        if (rank >= 0) {
+                            action.accept(ord, rank);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * {@link #fuzzyRank} for every name, walking them in sorted order as
+         * if they were a trie. Column {@code j} of the table only depends on
+         * the first {@code j} characters of the name, so the columns shared
+         * with the previous name are kept. Once a column is out of bounds, or
+         * the walk is {@code needle.length() + maxDistance} deep, every name
+         * with the same prefix has the same rank and the range is handled in
+         * one go.
+         */
+        private void walkSorted(String needle, int maxDistance, RankedConsumer action) {
+            int m = needle.length();
+            int maxDepth = m + maxDistance;
+            int[][] columns = new int[maxDepth + 1][m + 1];
+            for (int i = 0; i <= m; i++) {
+                columns[0][i] = i;
+            }
+            // bestPrefix[j]: the smallest distance from the needle to the first 1..j characters.
+            int[] bestPrefix = new int[maxDepth + 1];
+            bestPrefix[0] = Integer.MAX_VALUE;
+
+            String previous = "";
+            int computed = 0;
+            int k = 0;
+            while (k < byName.length) {
+                String name = lowerNames[byName[k]];
+                int limit = Math.min(name.length(), maxDepth);
+                int depth = commonPrefix(previous, name, Math.min(computed, limit));
+                boolean outOfBounds = false;
+                while (depth < limit && !outOfBounds) {
+                    depth++;
+                    outOfBounds = fillColumn(columns, depth, name, needle, maxDistance);
+                    bestPrefix[depth] = Math.min(bestPrefix[depth - 1], columns[depth][m]);
+                }
+                previous = name;
+                computed = depth;
+
+                int prefixRank = bestPrefix[depth] <= maxDistance ? 2 * bestPrefix[depth] + 3 : -1;
+                if (!outOfBounds && depth == name.length()) {
+                    if (depth > 0) {
+                        int whole = columns[depth][m];
+                        int rank = whole <= maxDistance ? 2 * whole : prefixRank;
+                        if (rank >= 0) {
+                            action.accept(byName[k], rank);
+                        }
+                    }
+                    k++;
+                    continue;
+                }
+                // Every later name starting with the same depth characters ends the same way.
+                int end = endOfPrefix(name, depth, k);
+                if (prefixRank >= 0) {
+                    for (int i = k; i < end; i++) {
+                        action.accept(byName[i], prefixRank);
+                    }
+                }
+                k = end;
+            }
+        }
+
+        /**
+         * Computes column {@code j} of the {@link #fuzzyRank} table from the
+         * two before it and returns whether every cell exceeds
+         * {@code maxDistance}.
+         */
+        private static boolean fillColumn(int[][] columns, int j, String name, String needle, int maxDistance) {
+            int[] previous = columns[j - 1];
+            int[] current = columns[j];
+            char c = name.charAt(j - 1);
+            current[0] = j;
+            int columnMin = j;
+            for (int i = 1; i < current.length; i++) {
+                char n = needle.charAt(i - 1);
+                int value = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + (n == c ? 0 : 1));
+                if (i > 1 && j > 1 && n == name.charAt(j - 2) && needle.charAt(i - 2) == c) {
+                    value = Math.min(value, columns[j - 2][i - 2] + 1);
+                }
+                current[i] = value;
+                columnMin = Math.min(columnMin, value);
+            }
+            return columnMin > maxDistance;
+        }
+
+        private static int commonPrefix(String a, String b, int max) {
+            int length = Math.min(max, Math.min(a.length(), b.length()));
+            int i = 0;
+            while (i < length && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * First position after {@code start} whose name does not start with
+         * the first {@code length} characters of {@code name}. Most ranges are
+         * short, so the search gallops forward before bisecting.
+         */
+        private int endOfPrefix(String name, int length, int start) {
+            int bound = 1;
+            while (start + bound < byName.length && sharesPrefix(start + bound, name, length)) {
+                bound *= 2;
+            }
+            // The name at start + bound / 2 shares the prefix; the first one that does not is at most start + bound.
+            int low = start + bound / 2 + 1;
+            int high = Math.min(start + bound, byName.length);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sharesPrefix(mid, name, length)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private boolean sharesPrefix(int position, String name, int length) {
+            return lowerNames[byName[position]].regionMatches(0, name, 0, length);
+        }
+
+        private int[] candidates(String needle) {
+            List<int[]> lists = new ArrayList<>();
+            for (String gram : grams(needle)) {
+                int[] list = postings.get(gram);
+                if (list == null) {
+                    return NO_POSTINGS;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.length));
+
+            int[] result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+            return result;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class TopMatches {
+
+        private static final Comparator<Match> ORDER = Comparator
+                .comparingInt((Match m) -> m.rank)
+                .thenComparingInt(m -> m.name.length())
+                .thenComparing(m -> m.name);
+
+        private final int limit;
+        private final PriorityQueue<Match> worstFirst;
+
+        TopMatches(int limit) {
+            this.limit = limit;
+            this.worstFirst = new PriorityQueue<>(limit + 1, ORDER.reversed());
+        }
+
+        void offer(long id, String name, int rank) {
+            worstFirst.add(new Match(id, name, rank));
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+
+        List<GameSummaryDTO> toList() {
+            List<Match> matches = new ArrayList<>(worstFirst);
+            matches.sort(ORDER);
+            List<GameSummaryDTO> result = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                result.add(new GameSummaryDTO(match.id, match.name));
+            }
+            return result;
+        }
+    }
+
+    private static final class Match {
+
+        final long id;
+        final String name;
+        final int rank;
+
+        Match(long id, String name, int rank) {
+            this.id = id;
+            this.name = name;
+            this.rank = rank;
+        }
+    }
+}
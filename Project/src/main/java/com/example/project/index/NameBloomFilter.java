@@ -0,0 +1,198 @@
+package com.example.project.index;
+
+import com.example.project.model.NameFilterStatsDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bloom filter over one space of unique names, used to skip the database
+ * lookup before an insert when a name is certainly new.
+ * <p>
+ * The filter can only answer "certainly absent" or "maybe present", so a
+ * lookup still runs for every name it has seen; names that were deleted stay
+ * in the filter until the next rebuild and only cost that lookup. Until the
+ * first rebuild the filter knows nothing and every check goes to the
+ * database. A rebuild sizes a new filter for twice the current number of
+ * names, fills it off to the side and swaps it in; names put meanwhile are
+ * replayed into it. Reads do not lock.
+ * <p>
+ * The database unique constraint remains the final arbiter: a name whose
+ * insert had not committed when a rebuild read the table can be missing from
+ * the rebuilt filter, and a second create with that name then fails on the
+ * constraint instead of the lookup.
+ */
+public class NameBloomFilter {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final String name;
+    private final double falsePositiveRate;
+    private final Object rebuildLock = new Object();
+    private final LongAdder lookupsAvoided = new LongAdder();
+    private final LongAdder lookupsPerformed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private volatile Bits bits;
+    private List<String> replay;
+
+    public NameBloomFilter(String name, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1.");
+        }
+        this.name = name;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /** Replaces the filter with one holding exactly the names {@code loader} returns. */
+    public void rebuild(Supplier<? extends Collection<String>> loader) {
+        synchronized (rebuildLock) {
+            replay = new ArrayList<>();
+        }
+        Bits next;
+        try {
+            Collection<String> names = loader.get();
+            next = new Bits(Math.max(names.size() * 2L, MIN_CAPACITY), falsePositiveRate);
+            for (String value : names) {
+                next.put(value);
+            }
+        } catch (RuntimeException ex) {
+            synchronized (rebuildLock) {
+                replay = null;
+            }
+            throw ex;
+        }
+        synchronized (rebuildLock) {
+            for (String value : replay) {
+                next.put(value);
+            }
+            replay = null;
+            bits = next;
+        }
+    }
+
+    public void put(String value) {
+        if (value == null) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            if (bits != null) {
+                bits.put(value);
+            }
+            if (replay != null) {
+                replay.add(value);
+            }
+        }
+    }
+
+    /** False only if {@code value} was certainly never put. */
+    public boolean mightContain(String value) {
+        Bits current = bits;
+        return current == null || current.mightContain(value);
+    }
+
+    /**
+     * Whether {@code value} is taken: false straight away when the filter
+     * rules it out, otherwise whatever {@code lookup} says.
+     */
+    public boolean isTaken(String value, Predicate<String> lookup) {
+        Bits current = bits;
+        if (current != null && !current.mightContain(value)) {
+            lookupsAvoided.increment();
+            return false;
+        }
+        lookupsPerformed.increment();
+        boolean taken = lookup.test(value);
+        if (!taken && current != null) {
+            falsePositives.increment();
+        }
+        return taken;
+    }
+
+    public NameFilterStatsDTO stats() {
+        Bits current = bits;
+        NameFilterStatsDTO stats = new NameFilterStatsDTO();
+        stats.setName(name);
+        stats.setReady(current != null);
+        stats.setTargetFalsePositiveRate(falsePositiveRate);
+        if (current != null) {
+            stats.setBits(current.size);
+            stats.setHashFunctions(current.hashes);
+            stats.setCapacity(current.capacity);
+            stats.setInsertions(current.insertions.get());
+            stats.setExpectedFalsePositiveRate(current.expectedFalsePositiveRate());
+        }
+        stats.setLookupsAvoided(lookupsAvoided.sum());
+        stats.setLookupsPerformed(lookupsPerformed.sum());
+        stats.setFalsePositives(falsePositives.sum());
+        return stats;
+    }
+
+    private static final class Bits {
+
+        private final long capacity;
+        private final long size;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong insertions = new AtomicLong();
+
+        Bits(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long bitCount = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min((bitCount + 63) / 64, Integer.MAX_VALUE - 8));
+            this.size = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, size);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                words.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * insertions.get() / size), hashes);
+        }
+
+        /** FNV-1a over the UTF-16 code units, finished with the MurmurHash3 mixer. */
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
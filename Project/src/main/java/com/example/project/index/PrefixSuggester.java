@@ -0,0 +1,270 @@
+package com.example.project.index;
+
+import com.example.project.model.NamePopularityDTO;
+import com.example.project.model.SuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Top-k prefix completion over a set of names weighted by popularity.
+ * <p>
+ * Names are kept in one lower-cased, sorted array, which is the flattened form
+ * of a trie: every trie node corresponds to a contiguous range of it, found by
+ * binary search. A max segment tree over the popularity column then yields the
+ * k most popular names in that range in {@code O(k log n)} without visiting
+ * the rest of the range, so short prefixes over millions of names stay cheap.
+ * The arrays cost a few bytes per name beyond the strings themselves, and the
+ * lower-cased key shares its instance with the display name when they match.
+ * <p>
+ * Like {@link GameNameIndex}, the sorted arrays form an immutable snapshot
+ * replaced by {@link #replace}; entries added or removed in between live in a
+ * small pending map that overrides the snapshot until the next replace.
+ */
+public final class PrefixSuggester {
+
+    private static final Comparator<Candidate> ORDER = Comparator
+            .comparingLong((Candidate c) -> -c.popularity)
+            .thenComparing(c -> c.key)
+            .thenComparingLong(c -> c.id);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, PendingEntry> pending = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    /**
+     * Sequence number of the latest change; pass it to {@link #replace} when
+     * the entries were read after this call returned.
+     */
+    public long sequence() {
+        return sequence.get();
+    }
+
+    public int pendingSize() {
+        return pending.size();
+    }
+
+    /**
+     * Swaps in a snapshot built from {@code entries} and drops the pending
+     * changes up to {@code startedAt}, which the entries already reflect.
+     */
+    public void replace(List<NamePopularityDTO> entries, long startedAt) {
+        snapshot = Snapshot.build(entries);
+        pending.values().removeIf(entry -> entry.sequence <= startedAt);
+    }
+
+    public void put(Long id, String name, long popularity) {
+        pending.put(id, new PendingEntry(sequence.incrementAndGet(), name, popularity));
+    }
+
+    public void remove(Long id) {
+        pending.put(id, new PendingEntry(sequence.incrementAndGet(), null, 0));
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix} (case-insensitive),
+     * most popular first; ties go to the alphabetically smaller name.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String needle = normalize(prefix);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        List<Candidate> candidates = new ArrayList<>(limit * 2);
+        current.top(needle, limit, pending, candidates);
+        for (Map.Entry<Long, PendingEntry> entry : pending.entrySet()) {
+            PendingEntry change = entry.getValue();
+            if (change.key != null && change.key.startsWith(needle)) {
+                candidates.add(new Candidate(entry.getKey(), change.name, change.key, change.popularity));
+            }
+        }
+        candidates.sort(ORDER);
+
+        List<SuggestionDTO> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && result.size() < limit; i++) {
+            Candidate candidate = candidates.get(i);
+            result.add(new SuggestionDTO(candidate.id, candidate.name));
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class PendingEntry {
+
+        final long sequence;
+        final String name;
+        final String key;
+        final long popularity;
+
+        PendingEntry(long sequence, String name, long popularity) {
+            this.sequence = sequence;
+            this.name = name;
+            this.key = name == null ? null : normalize(name);
+            this.popularity = popularity;
+        }
+    }
+
+    private static final class Candidate {
+
+        final long id;
+        final String name;
+        final String key;
+        final long popularity;
+
+        Candidate(long id, String name, String key, long popularity) {
+            this.id = id;
+            this.name = name;
+            this.key = key;
+            this.popularity = popularity;
+        }
+    }
+
+    static final class Snapshot {
+
+        final String[] keys;
+        final String[] names;
+        final long[] ids;
+        final long[] popularity;
+        /** Leaves at [n, 2n); each node holds the position of the best entry below it. */
+        final int[] tree;
+
+        private Snapshot(String[] keys, String[] names, long[] ids, long[] popularity) {
+            this.keys = keys;
+            this.names = names;
+            this.ids = ids;
+            this.popularity = popularity;
+
+            int n = keys.length;
+            this.tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int node = n - 1; node > 0; node--) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Snapshot build(List<NamePopularityDTO> entries) {
+            int n = entries.size();
+            Integer[] order = new Integer[n];
+            String[] rawKeys = new String[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+                rawKeys[i] = normalize(entries.get(i).getName());
+            }
+            Arrays.sort(order, Comparator.<Integer, String>comparing(i -> rawKeys[i])
+                    .thenComparingLong(i -> entries.get(i).getId()));
+
+            String[] keys = new String[n];
+            String[] names = new String[n];
+            long[] ids = new long[n];
+            long[] popularity = new long[n];
+            for (int pos = 0; pos < n; pos++) {
+                NamePopularityDTO entry = entries.get(order[pos]);
+                String name = entry.getName();
+                keys[pos] = rawKeys[order[pos]].equals(name) ? name : rawKeys[order[pos]];
+                names[pos] = name;
+                ids[pos] = entry.getId();
+                popularity[pos] = entry.getPopularity() == null ? 0 : entry.getPopularity();
+            }
+            return new Snapshot(keys, names, ids, popularity);
+        }
+
+        /**
+         * Adds the best {@code limit} snapshot entries under {@code prefix} to
+         * {@code out}, skipping ids that a pending change overrides.
+         */
+        void top(String prefix, int limit, Map<Long, ?> overridden, List<Candidate> out) {
+            int lo = lowerBound(prefix);
+            int hi = endOfPrefix(prefix, lo);
+            if (lo >= hi) {
+                return;
+            }
+
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(a[2], b[2]));
+            ranges.add(new int[] {lo, hi, best(lo, hi)});
+            int taken = 0;
+            while (!ranges.isEmpty() && taken < limit) {
+                int[] range = ranges.poll();
+                int pos = range[2];
+                if (!overridden.containsKey(ids[pos])) {
+                    out.add(new Candidate(ids[pos], names[pos], keys[pos], popularity[pos]));
+                    taken++;
+                }
+                if (range[0] < pos) {
+                    ranges.add(new int[] {range[0], pos, best(range[0], pos)});
+                }
+                if (pos + 1 < range[1]) {
+                    ranges.add(new int[] {pos + 1, range[1], best(pos + 1, range[1])});
+                }
+            }
+        }
+
+        private int lowerBound(String prefix) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** Keys sharing a prefix are contiguous, so this is a binary search too. */
+        private int endOfPrefix(String prefix, int from) {
+            int lo = from;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** Position of the best entry in [from, to). */
+        private int best(int from, int to) {
+            int n = keys.length;
+            int result = from;
+            for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    result = better(result, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    result = better(result, tree[--r]);
+                }
+            }
+            return result;
+        }
+
+        private int better(int a, int b) {
+            return compare(a, b) <= 0 ? a : b;
+        }
+
+        /** Higher popularity first, then sort order (name, id). */
+        private int compare(int a, int b) {
+            int byPopularity = Long.compare(popularity[b], popularity[a]);
+            return byPopularity != 0 ? byPopularity : Integer.compare(a, b);
+        }
+    }
+}
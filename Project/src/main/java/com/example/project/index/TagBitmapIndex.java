@@ -0,0 +1,318 @@
+package com.example.project.index;
+
+import com.example.project.model.GameTag;
+import com.example.project.model.GameTagLinkDTO;
+import com.example.project.repository.GameRepository;
+import com.example.project.repository.GameTagRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * One {@link CompressedBitmap} per tag over dense game ordinals, used to
+ * answer boolean tag queries without touching {@code game_tags}.
+ * <p>
+ * Ordinals are handed out in game id order when the index is loaded and
+ * appended for games created afterwards, in the order they are indexed, which
+ * concurrent creates can make differ from id order until the next rebuild.
+ * Results come in this index order. Mutations take the write lock and
+ * queries the read lock; a full reload builds the next state without holding
+ * the lock and replays any mutation that raced with it before swapping.
+ */
+@Component
+public class TagBitmapIndex {
+
+    private final GameRepository gameRepository;
+    private final GameTagRepository gameTagRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+
+    private State state = new State();
+    private List<Consumer<State>> replay;
+
+    public TagBitmapIndex(GameRepository gameRepository, GameTagRepository gameTagRepository) {
+        this.gameRepository = gameRepository;
+        this.gameTagRepository = gameTagRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${tag-index.rebuild-interval-ms:3600000}", fixedDelayString = "${tag-index.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            State next = null;
+            try {
+                next = load();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (next != null) {
+                        for (Consumer<State> change : replay) {
+                            change.accept(next);
+                        }
+                        state = next;
+                    }
+                    replay = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private State load() {
+        State loaded = new State();
+        for (Long gameId : gameRepository.findAllIds()) {
+            loaded.addGame(gameId);
+        }
+        for (GameTag tag : gameTagRepository.findAll()) {
+            loaded.putTag(tag.getId(), tag.getName());
+        }
+        for (GameTagLinkDTO link : gameRepository.findAllTagLinks()) {
+            loaded.tag(link.getGameId(), link.getTagId());
+        }
+        return loaded;
+    }
+
+    public void addGame(long gameId) {
+        mutate(s -> s.addGame(gameId));
+    }
+
+    public void removeGame(long gameId) {
+        mutate(s -> s.removeGame(gameId));
+    }
+
+    public void tag(long gameId, long tagId) {
+        mutate(s -> s.tag(gameId, tagId));
+    }
+
+    public void untag(long gameId, long tagId) {
+        mutate(s -> s.untag(gameId, tagId));
+    }
+
+    public void putTag(long tagId, String name) {
+        mutate(s -> s.putTag(tagId, name));
+    }
+
+    public void removeTag(long tagId) {
+        mutate(s -> s.removeTag(tagId));
+    }
+
+    /**
+     * Evaluates {@code query} and returns up to {@code limit} matching game ids
+     * in index order, starting after {@code afterGameId} (or from the start
+     * when it is null); see {@link State#ordinalAfter}.
+     */
+    public List<Long> query(TagQuery query, Long afterGameId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(query.evaluate(state::bitmapForName, state.live), afterGameId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@link #query} and {@link #facets} in one: the query is evaluated once
+     * and both the page and the counts are read from that result, under the
+     * same read lock.
+     */
+    public TagQueryResult queryWithFacets(TagQuery query, Long afterGameId, int limit) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap matches = query.evaluate(state::bitmapForName, state.live);
+            return new TagQueryResult(page(matches, afterGameId, limit), facetCounts(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts, for every tag, how many of the games matching {@code query} (or
+     * all games when it is null) carry it. Each count is a single bitmap
+     * intersection cardinality, so the cost depends on the number of tags and
+     * not on the size of the result set. Tags with a zero count are left out;
+     * the rest are ordered by count, highest first, then by name.
+     */
+    public Map<String, Integer> facets(TagQuery query) {
+        lock.readLock().lock();
+        try {
+            return facetCounts(query == null ? state.live : query.evaluate(state::bitmapForName, state.live));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Caller holds the read lock. */
+    private List<Long> page(CompressedBitmap matches, Long afterGameId, int limit) {
+        List<Long> gameIds = new ArrayList<>(Math.min(limit, 64));
+        int ordinal = matches.nextValue(afterGameId == null ? 0 : state.ordinalAfter(afterGameId));
+        while (ordinal >= 0 && gameIds.size() < limit) {
+            gameIds.add(state.gameIds[ordinal]);
+            ordinal = matches.nextValue(ordinal + 1);
+        }
+        return gameIds;
+    }
+
+    /** Caller holds the read lock. */
+    private Map<String, Integer> facetCounts(CompressedBitmap matches) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (Map.Entry<Long, CompressedBitmap> entry : state.bitmaps.entrySet()) {
+            String name = state.tagNames.get(entry.getKey());
+            if (name == null) {
+                continue;
+            }
+            int count = CompressedBitmap.andCardinality(matches, entry.getValue());
+            if (count > 0) {
+                counts.add(Map.entry(name, count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> count : counts) {
+            facets.put(count.getKey(), count.getValue());
+        }
+        return facets;
+    }
+
+    private void mutate(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class State {
+
+        private static final CompressedBitmap EMPTY = new CompressedBitmap();
+
+        long[] gameIds = new long[1024];
+        int count;
+        /** Length of the leading run of {@link #gameIds} in ascending id order. */
+        int sortedCount;
+        final Map<Long, Integer> ordinals = new HashMap<>();
+        final CompressedBitmap live = new CompressedBitmap();
+        final Map<Long, CompressedBitmap> bitmaps = new HashMap<>();
+        final Map<String, Long> tagIdsByName = new HashMap<>();
+        final Map<Long, String> tagNames = new HashMap<>();
+
+        int addGame(long gameId) {
+            Integer existing = ordinals.get(gameId);
+            if (existing != null) {
+                live.add(existing);
+                return existing;
+            }
+            if (count == gameIds.length) {
+                gameIds = Arrays.copyOf(gameIds, count * 2);
+            }
+            if (sortedCount == count && (count == 0 || gameId > gameIds[count - 1])) {
+                sortedCount++;
+            }
+            int ordinal = count++;
+            gameIds[ordinal] = gameId;
+            ordinals.put(gameId, ordinal);
+            live.add(ordinal);
+            return ordinal;
+        }
+
+        void removeGame(long gameId) {
+            Integer ordinal = ordinals.get(gameId);
+            if (ordinal == null) {
+                return;
+            }
+            live.remove(ordinal);
+            for (CompressedBitmap bitmap : bitmaps.values()) {
+                bitmap.remove(ordinal);
+            }
+        }
+
+        void tag(long gameId, long tagId) {
+            int ordinal = addGame(gameId);
+            bitmaps.computeIfAbsent(tagId, id -> new CompressedBitmap()).add(ordinal);
+        }
+
+        void untag(long gameId, long tagId) {
+            Integer ordinal = ordinals.get(gameId);
+            CompressedBitmap bitmap = bitmaps.get(tagId);
+            if (ordinal != null && bitmap != null) {
+                bitmap.remove(ordinal);
+            }
+        }
+
+        void putTag(long tagId, String name) {
+            String previous = tagNames.put(tagId, name);
+            if (previous != null) {
+                tagIdsByName.remove(normalize(previous));
+            }
+            tagIdsByName.put(normalize(name), tagId);
+        }
+
+        void removeTag(long tagId) {
+            String name = tagNames.remove(tagId);
+            if (name != null) {
+                tagIdsByName.remove(normalize(name));
+            }
+            bitmaps.remove(tagId);
+        }
+
+        CompressedBitmap bitmapForName(String normalizedName) {
+            Long tagId = tagIdsByName.get(normalizedName);
+            CompressedBitmap bitmap = tagId == null ? null : bitmaps.get(tagId);
+            return bitmap == null ? EMPTY : bitmap;
+        }
+
+        /**
+         * First ordinal to scan when resuming after {@code gameId}: the one
+         * after the game's own. A game deleted before the last rebuild has no
+         * ordinal any more; the scan then resumes at the first larger id of
+         * the leading run that is in id order, the only part a binary search
+         * is defined on. Games appended after that run follow it in index
+         * order, so they are scanned too.
+         */
+        int ordinalAfter(long gameId) {
+            Integer ordinal = ordinals.get(gameId);
+            if (ordinal != null) {
+                return ordinal + 1;
+            }
+            int position = Arrays.binarySearch(gameIds, 0, sortedCount, gameId);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+
+        private static String normalize(String name) {
+            return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.project.index;
+
+import com.example.project.model.GameTag;
+import com.example.project.repository.GameTagRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Every tag, held in memory and looked up by id or by normalized (trimmed,
+ * lower-case) name without touching the database.
+ * <p>
+ * Readers go through a volatile reference to an immutable {@link Snapshot}.
+ * Writers copy it, apply their change and swap the copy in, all under one
+ * monitor, so a reader sees either the whole change or none of it. Tags are
+ * few and rarely change, so copying the maps on every write costs less than
+ * any locking on the read path. A reload holds the same monitor while it
+ * queries, so a create or delete that commits during the reload is applied
+ * after the swap and never lost.
+ * <p>
+ * Returned tags are detached copies carrying only id and name.
+ */
+@Component
+public class TagDictionary {
+
+    private final GameTagRepository gameTagRepository;
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    public TagDictionary(GameTagRepository gameTagRepository) {
+        this.gameTagRepository = gameTagRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${tag-dictionary.reload-interval-ms:600000}", fixedDelayString = "${tag-dictionary.reload-interval-ms:600000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    public void reload() {
+        synchronized (writeLock) {
+            snapshot = Snapshot.of(gameTagRepository.findAll());
+        }
+    }
+
+    public List<GameTag> getAll() {
+        Collection<GameTag> tags = current().byId.values();
+        List<GameTag> copies = new ArrayList<>(tags.size());
+        for (GameTag tag : tags) {
+            copies.add(copy(tag));
+        }
+        return copies;
+    }
+
+    public Optional<GameTag> getById(Long id) {
+        GameTag tag = id == null ? null : current().byId.get(id);
+        return tag == null ? Optional.empty() : Optional.of(copy(tag));
+    }
+
+    public Optional<Long> idForName(String name) {
+        GameTag tag = current().byName.get(normalize(name));
+        return tag == null ? Optional.empty() : Optional.of(tag.getId());
+    }
+
+    public boolean containsName(String name) {
+        return current().byName.containsKey(normalize(name));
+    }
+
+    /**
+     * Ids of the known tags among {@code names}, matched case-insensitively.
+     * Blank and unknown names are skipped.
+     */
+    public Set<Long> idsForNames(Collection<String> names) {
+        Snapshot current = current();
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String name : names) {
+            GameTag tag = current.byName.get(normalize(name));
+            if (tag != null) {
+                ids.add(tag.getId());
+            }
+        }
+        return ids;
+    }
+
+    public void put(GameTag tag) {
+        synchronized (writeLock) {
+            snapshot = current().with(copy(tag));
+        }
+    }
+
+    public void remove(Long id) {
+        synchronized (writeLock) {
+            snapshot = current().without(id);
+        }
+    }
+
+    /**
+     * The current snapshot, loading it on first use so that requests served
+     * before the ready event never see an empty dictionary.
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (writeLock) {
+                if (snapshot == null) {
+                    snapshot = Snapshot.of(gameTagRepository.findAll());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static GameTag copy(GameTag tag) {
+        GameTag copy = new GameTag(tag.getName());
+        copy.setId(tag.getId());
+        return copy;
+    }
+
+    private static final class Snapshot {
+
+        /** Sorted by id, which is the order {@link #getAll} returns. */
+        final Map<Long, GameTag> byId;
+        final Map<String, GameTag> byName;
+
+        private Snapshot(Map<Long, GameTag> byId, Map<String, GameTag> byName) {
+            this.byId = byId;
+            this.byName = byName;
+        }
+
+        static Snapshot of(List<GameTag> tags) {
+            Map<Long, GameTag> byId = new TreeMap<>();
+            Map<String, GameTag> byName = new HashMap<>();
+            for (GameTag tag : tags) {
+                GameTag entry = copy(tag);
+                byId.put(entry.getId(), entry);
+                byName.put(normalize(entry.getName()), entry);
+            }
+            return new Snapshot(byId, byName);
+        }
+
+        Snapshot with(GameTag tag) {
+            Map<Long, GameTag> byId = new TreeMap<>(this.byId);
+            Map<String, GameTag> byName = new HashMap<>(this.byName);
+            GameTag previous = byId.put(tag.getId(), tag);
+            if (previous != null) {
+                byName.remove(normalize(previous.getName()));
+            }
+            byName.put(normalize(tag.getName()), tag);
+            return new Snapshot(byId, byName);
+        }
+
+        Snapshot without(Long id) {
+            if (!byId.containsKey(id)) {
+                return this;
+            }
+            Map<Long, GameTag> byId = new TreeMap<>(this.byId);
+            Map<String, GameTag> byName = new HashMap<>(this.byName);
+            GameTag removed = byId.remove(id);
+            byName.remove(normalize(removed.getName()));
+            return new Snapshot(byId, byName);
+        }
+    }
+}
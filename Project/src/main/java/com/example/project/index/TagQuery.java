@@ -0,0 +1,265 @@
+package com.example.project.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A parsed boolean tag expression such as {@code rpg AND NOT survival} or
+ * {@code (indie OR action) AND "open world"}.
+ * <p>
+ * Grammar (keywords are case-insensitive, NOT binds tightest, then AND, then OR):
+ * <pre>
+ * expr   := term (OR term)*
+ * term   := factor (AND factor)*
+ * factor := NOT factor | '(' expr ')' | tag
+ * tag    := word | "quoted name"
+ * </pre>
+ * Tag names are matched case-insensitively. Syntax errors are reported as
+ * {@link IllegalArgumentException}.
+ */
+public final class TagQuery {
+
+    private final Node root;
+    private final Set<String> tagNames;
+
+    private TagQuery(Node root, Set<String> tagNames) {
+        this.root = root;
+        this.tagNames = tagNames;
+    }
+
+    public static TagQuery parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Tag query must not be empty.");
+        }
+        Parser parser = new Parser(tokenize(expression));
+        Node root = parser.expression();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position).text + "' in tag query.");
+        }
+        return new TagQuery(root, parser.tagNames);
+    }
+
+    /**
+     * The query matching games that carry any of {@code names}, as if they
+     * were quoted and joined with OR. Blank names are ignored; at least one
+     * must remain.
+     */
+    public static TagQuery anyOf(Collection<String> names) {
+        Set<String> tagNames = new LinkedHashSet<>();
+        Node root = null;
+        for (String name : names) {
+            String normalized = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+            if (!normalized.isEmpty() && tagNames.add(normalized)) {
+                root = root == null ? new TagRef(normalized) : new Or(root, new TagRef(normalized));
+            }
+        }
+        if (root == null) {
+            throw new IllegalArgumentException("Tag query must not be empty.");
+        }
+        return new TagQuery(root, tagNames);
+    }
+
+    /**
+     * Normalized (trimmed, lower-case) names of every tag the query mentions.
+     */
+    public Set<String> getTagNames() {
+        return tagNames;
+    }
+
+    /**
+     * Evaluates the query. {@code tagBitmap} maps a normalized tag name to the
+     * set of games carrying it, and {@code universe} is the set of all games,
+     * used to complement NOT terms. Returned bitmaps may be shared with the
+     * caller's index and must not be modified.
+     */
+    public CompressedBitmap evaluate(Function<String, CompressedBitmap> tagBitmap, CompressedBitmap universe) {
+        return root.evaluate(tagBitmap, universe);
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(c == '(' ? TokenType.OPEN : TokenType.CLOSE, String.valueOf(c)));
+                i++;
+            } else if (c == '"') {
+                int end = expression.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in tag query.");
+                }
+                tokens.add(new Token(TokenType.TAG, expression.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < expression.length()) {
+                    char d = expression.charAt(i);
+                    if (Character.isWhitespace(d) || d == '(' || d == ')' || d == '"') {
+                        break;
+                    }
+                    i++;
+                }
+                String word = expression.substring(start, i);
+                switch (word.toUpperCase(Locale.ROOT)) {
+                    case "AND" -> tokens.add(new Token(TokenType.AND, word));
+                    case "OR" -> tokens.add(new Token(TokenType.OR, word));
+                    case "NOT" -> tokens.add(new Token(TokenType.NOT, word));
+                    default -> tokens.add(new Token(TokenType.TAG, word));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private enum TokenType {
+        TAG, AND, OR, NOT, OPEN, CLOSE
+    }
+
+    private static final class Token {
+
+        final TokenType type;
+        final String text;
+
+        Token(TokenType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+    }
+
+    private static final class Parser {
+
+        final List<Token> tokens;
+        final Set<String> tagNames = new LinkedHashSet<>();
+        int position;
+
+        Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Node expression() {
+            Node left = term();
+            while (accept(TokenType.OR)) {
+                left = new Or(left, term());
+            }
+            return left;
+        }
+
+        Node term() {
+            Node left = factor();
+            while (accept(TokenType.AND)) {
+                left = new And(left, factor());
+            }
+            return left;
+        }
+
+        Node factor() {
+            if (accept(TokenType.NOT)) {
+                return new Not(factor());
+            }
+            if (accept(TokenType.OPEN)) {
+                Node inner = expression();
+                if (!accept(TokenType.CLOSE)) {
+                    throw new IllegalArgumentException("Missing ')' in tag query.");
+                }
+                return inner;
+            }
+            if (position < tokens.size() && tokens.get(position).type == TokenType.TAG) {
+                String name = tokens.get(position++).text.trim().toLowerCase(Locale.ROOT);
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Empty tag name in tag query.");
+                }
+                tagNames.add(name);
+                return new TagRef(name);
+            }
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(position).text + "' in tag query.");
+            }
+            throw new IllegalArgumentException("Tag query ended unexpectedly.");
+        }
+
+        boolean accept(TokenType type) {
+            if (position < tokens.size() && tokens.get(position).type == type) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private interface Node {
+
+        CompressedBitmap evaluate(Function<String, CompressedBitmap> tagBitmap, CompressedBitmap universe);
+    }
+
+    private static final class TagRef implements Node {
+
+        private final String name;
+
+        TagRef(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public CompressedBitmap evaluate(Function<String, CompressedBitmap> tagBitmap, CompressedBitmap universe) {
+            return tagBitmap.apply(name);
+        }
+    }
+
+    private static final class And implements Node {
+
+        private final Node left;
+        private final Node right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public CompressedBitmap evaluate(Function<String, CompressedBitmap> tagBitmap, CompressedBitmap universe) {
+            CompressedBitmap l = left.evaluate(tagBitmap, universe);
+            if (right instanceof Not not) {
+                return CompressedBitmap.andNot(l, not.operand.evaluate(tagBitmap, universe));
+            }
+            return CompressedBitmap.and(l, right.evaluate(tagBitmap, universe));
+        }
+    }
+
+    private static final class Or implements Node {
+
+        private final Node left;
+        private final Node right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public CompressedBitmap evaluate(Function<String, CompressedBitmap> tagBitmap, CompressedBitmap universe) {
+            return CompressedBitmap.or(left.evaluate(tagBitmap, universe), right.evaluate(tagBitmap, universe));
+        }
+    }
+
+    private static final class Not implements Node {
+
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public CompressedBitmap evaluate(Function<String, CompressedBitmap> tagBitmap, CompressedBitmap universe) {
+            return CompressedBitmap.andNot(universe, operand.evaluate(tagBitmap, universe));
+        }
+    }
+}
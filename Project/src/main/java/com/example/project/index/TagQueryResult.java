@@ -0,0 +1,28 @@
+package com.example.project.index;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a tag query together with the facet counts over its whole
+ * result set, both taken from a single evaluation of the query (see
+ * {@link TagBitmapIndex#queryWithFacets}).
+ */
+public final class TagQueryResult {
+
+    private final List<Long> gameIds;
+    private final Map<String, Integer> facets;
+
+    public TagQueryResult(List<Long> gameIds, Map<String, Integer> facets) {
+        this.gameIds = gameIds;
+        this.facets = facets;
+    }
+
+    public List<Long> getGameIds() {
+        return gameIds;
+    }
+
+    public Map<String, Integer> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.project.index;
+
+import com.example.project.model.NameFilterStatsDTO;
+import com.example.project.repository.GameRepository;
+import com.example.project.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The {@link NameBloomFilter}s in front of the uniqueness checks on user and
+ * game creation. Both are filled when the application is ready and rebuilt
+ * every {@code name-filter.rebuild-interval-ms}, which resizes them for the
+ * current number of names and drops deleted ones. Tag names need no filter:
+ * they are few, {@link TagDictionary} answers most checks from memory and
+ * only a miss goes to the table.
+ */
+@Component
+public class UniqueNameFilters {
+
+    private final UserRepository userRepository;
+    private final GameRepository gameRepository;
+    private final NameBloomFilter usernames;
+    private final NameBloomFilter gameNames;
+
+    public UniqueNameFilters(UserRepository userRepository, GameRepository gameRepository,
+            @Value("${name-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.gameRepository = gameRepository;
+        this.usernames = new NameBloomFilter("usernames", falsePositiveRate);
+        this.gameNames = new NameBloomFilter("game-names", falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${name-filter.rebuild-interval-ms:3600000}", fixedDelayString = "${name-filter.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        usernames.rebuild(userRepository::findAllUsernames);
+        gameNames.rebuild(gameRepository::findAllNames);
+    }
+
+    public NameBloomFilter usernames() {
+        return usernames;
+    }
+
+    public NameBloomFilter gameNames() {
+        return gameNames;
+    }
+
+    public List<NameFilterStatsDTO> stats() {
+        return List.of(usernames.stats(), gameNames.stats());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.project.model;
+
+/** What a bounded queue does with a new item while it is full. */
+public enum BackpressurePolicy {
+    /** Refuse the item at once. */
+    REJECT,
+    /** Wait for room, up to a timeout, then refuse the item. */
+    BLOCK
+}
@@ -0,0 +1,55 @@
+package com.example.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One signed change to a user's balance. Rows are only ever inserted (see
+ * {@code BalanceLedgerJdbcRepository}); this mapping exists so the table and
+ * its index are part of the schema.
+ */
+@Entity
+@Table(name = "balance_ledger", indexes = @Index(name = "idx_balance_ledger_user_id", columnList = "user_id, id"))
+public class BalanceLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(nullable = false, updatable = false)
+    private Long amountCents;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 16)
+    private LedgerReason reason;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public BalanceLedgerEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getAmountCents() {
+        return amountCents;
+    }
+
+    public LedgerReason getReason() {
+        return reason;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A user's balance after every ledger entry up to {@code lastEntryId}. The
+ * current balance is this plus the entries after it. Written only by
+ * compaction (see {@code BalanceService}).
+ */
+@Entity
+@Table(name = "balance_snapshots")
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long balanceCents;
+
+    @Column(nullable = false)
+    private Long lastEntryId;
+
+    @Column(nullable = false)
+    private Instant takenAt;
+
+    public BalanceSnapshot() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public Long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+}
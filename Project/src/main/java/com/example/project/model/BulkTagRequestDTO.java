@@ -0,0 +1,60 @@
+package com.example.project.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Either explicit {@code pairs}, or a {@code tagId} applied to every game
+ * matching the tag expression in {@code query}.
+ */
+public class BulkTagRequestDTO {
+
+    /** "add" or "remove". */
+    @NotBlank
+    private String action;
+
+    @Valid
+    private List<GameTagLinkDTO> pairs = new ArrayList<>();
+
+    private Long tagId;
+
+    private String query;
+
+    public BulkTagRequestDTO() {
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public List<GameTagLinkDTO> getPairs() {
+        return pairs;
+    }
+
+    public Long getTagId() {
+        return tagId;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public void setPairs(List<GameTagLinkDTO> pairs) {
+        this.pairs = pairs;
+    }
+
+    public void setTagId(Long tagId) {
+        this.tagId = tagId;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.project.model;
+
+public class BulkTagResultDTO {
+
+    /** Distinct (game, tag) pairs in the request after resolving the query. */
+    private int requested;
+
+    /** Links actually added or removed; pairs already in the target state or naming unknown ids are not counted. */
+    private int changed;
+
+    public BulkTagResultDTO() {
+    }
+
+    public BulkTagResultDTO(int requested, int changed) {
+        this.requested = requested;
+        this.changed = changed;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getChanged() {
+        return changed;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public void setChanged(int changed) {
+        this.changed = changed;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.project.model;
+
+/** A game of a checkout cart as found in the database: its name (null when it does not exist) and whether the buyer already purchased it. */
+public class CartGameStatusDTO {
+
+    private Long gameId;
+
+    private String name;
+
+    private boolean purchased;
+
+    public CartGameStatusDTO() {
+    }
+
+    public CartGameStatusDTO(Long gameId, String name, boolean purchased) {
+        this.gameId = gameId;
+        this.name = name;
+        this.purchased = purchased;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isPurchased() {
+        return purchased;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setPurchased(boolean purchased) {
+        this.purchased = purchased;
+    }
+}
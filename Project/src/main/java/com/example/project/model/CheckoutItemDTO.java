@@ -0,0 +1,38 @@
+package com.example.project.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class CheckoutItemDTO {
+
+    @NotNull
+    private Long gameId;
+
+    @NotNull
+    @PositiveOrZero
+    private Long priceCents;
+
+    public CheckoutItemDTO() {
+    }
+
+    public CheckoutItemDTO(Long gameId, Long priceCents) {
+        this.gameId = gameId;
+        this.priceCents = priceCents;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.project.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class CheckoutRequestDTO {
+
+    @NotEmpty
+    @Valid
+    private List<CheckoutItemDTO> items;
+
+    public CheckoutRequestDTO() {
+    }
+
+    public List<CheckoutItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CheckoutItemDTO> items) {
+        this.items = items;
+    }
+}
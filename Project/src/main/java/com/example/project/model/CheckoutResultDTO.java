@@ -0,0 +1,56 @@
+package com.example.project.model;
+
+import java.util.List;
+
+public class CheckoutResultDTO {
+
+    private Long userId;
+
+    private long totalCents;
+
+    private long balanceCents;
+
+    private List<CheckoutLineDTO> purchases;
+
+    public CheckoutResultDTO() {
+    }
+
+    public CheckoutResultDTO(Long userId, long totalCents, long balanceCents, List<CheckoutLineDTO> purchases) {
+        this.userId = userId;
+        this.totalCents = totalCents;
+        this.balanceCents = balanceCents;
+        this.purchases = purchases;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public List<CheckoutLineDTO> getPurchases() {
+        return purchases;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
+    }
+
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+
+    public void setPurchases(List<CheckoutLineDTO> purchases) {
+        this.purchases = purchases;
+    }
+}
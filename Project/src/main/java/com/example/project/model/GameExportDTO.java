@@ -0,0 +1,45 @@
+package com.example.project.model;
+
+import java.util.List;
+
+public class GameExportDTO {
+
+    private Long id;
+
+    private String name;
+
+    private List<String> tags;
+
+    public GameExportDTO() {
+    }
+
+    public GameExportDTO(Long id, String name, List<String> tags) {
+        this.id = id;
+        this.name = name;
+        this.tags = tags;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.project.model;
+
+/**
+ * One (game, tag) row of the catalog export query; a game without tags
+ * yields a single row with a null tag name.
+ */
+public class GameExportRowDTO {
+
+    private Long gameId;
+
+    private String gameName;
+
+    private String tagName;
+
+    public GameExportRowDTO() {
+    }
+
+    public GameExportRowDTO(Long gameId, String gameName, String tagName) {
+        this.gameId = gameId;
+        this.gameName = gameName;
+        this.tagName = tagName;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public String getGameName() {
+        return gameName;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setGameName(String gameName) {
+        this.gameName = gameName;
+    }
+
+    public void setTagName(String tagName) {
+        this.tagName = tagName;
+    }
+}
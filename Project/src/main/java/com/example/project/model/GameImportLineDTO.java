@@ -0,0 +1,35 @@
+package com.example.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameImportLineDTO {
+
+    private String name;
+
+    private List<String> tags = new ArrayList<>();
+
+    public GameImportLineDTO() {
+    }
+
+    public GameImportLineDTO(String name, List<String> tags) {
+        this.name = name;
+        this.tags = tags;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
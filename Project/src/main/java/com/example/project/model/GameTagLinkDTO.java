@@ -0,0 +1,36 @@
+package com.example.project.model;
+
+import jakarta.validation.constraints.NotNull;
+
+public class GameTagLinkDTO {
+
+    @NotNull
+    private Long gameId;
+
+    @NotNull
+    private Long tagId;
+
+    public GameTagLinkDTO() {
+    }
+
+    public GameTagLinkDTO(Long gameId, Long tagId) {
+        this.gameId = gameId;
+        this.tagId = tagId;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getTagId() {
+        return tagId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setTagId(Long tagId) {
+        this.tagId = tagId;
+    }
+}
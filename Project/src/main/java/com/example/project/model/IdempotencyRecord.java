@@ -0,0 +1,71 @@
+package com.example.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * The recorded outcome of a request sent with an {@code Idempotency-Key}. A
+ * row without a status is a claim by a request still running. Rows are read
+ * and written by {@code IdempotencyJdbcRepository}; this mapping exists so
+ * the table and its index are part of the schema.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    /** SHA-256 of the method, path and key, in hex. */
+    @Id
+    @Column(name = "record_key", length = 64)
+    private String recordKey;
+
+    /** SHA-256 of the request body, in hex. */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public String getRecordKey() {
+        return recordKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.project.model;
+
+/** A response recorded for an idempotency key, or, with a null status, a claim on the key by a request still running. */
+public class IdempotentResponseDTO {
+
+    private String requestHash;
+
+    private Integer status;
+
+    private String contentType;
+
+    private String body;
+
+    public IdempotentResponseDTO() {
+    }
+
+    public IdempotentResponseDTO(String requestHash, Integer status, String contentType, String body) {
+        this.requestHash = requestHash;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+}
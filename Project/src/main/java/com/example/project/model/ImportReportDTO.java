@@ -0,0 +1,81 @@
+package com.example.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReportDTO {
+
+    private long linesRead;
+
+    private long gamesCreated;
+
+    private long gamesMatched;
+
+    private long tagsCreated;
+
+    private long tagLinksAdded;
+
+    private long errorCount;
+
+    /** The first errors only; errorCount holds the total. */
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public ImportReportDTO() {
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public long getGamesCreated() {
+        return gamesCreated;
+    }
+
+    public long getGamesMatched() {
+        return gamesMatched;
+    }
+
+    public long getTagsCreated() {
+        return tagsCreated;
+    }
+
+    public long getTagLinksAdded() {
+        return tagLinksAdded;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public void setGamesCreated(long gamesCreated) {
+        this.gamesCreated = gamesCreated;
+    }
+
+    public void setGamesMatched(long gamesMatched) {
+        this.gamesMatched = gamesMatched;
+    }
+
+    public void setTagsCreated(long tagsCreated) {
+        this.tagsCreated = tagsCreated;
+    }
+
+    public void setTagLinksAdded(long tagLinksAdded) {
+        this.tagLinksAdded = tagLinksAdded;
+    }
+
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public void setErrors(List<ImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
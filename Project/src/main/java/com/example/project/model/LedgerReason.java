@@ -0,0 +1,8 @@
+package com.example.project.model;
+
+public enum LedgerReason {
+    /** Balance a user started with, or carried over from before the ledger. */
+    OPENING,
+    TOP_UP,
+    PURCHASE
+}
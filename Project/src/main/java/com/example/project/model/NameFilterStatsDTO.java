@@ -0,0 +1,126 @@
+package com.example.project.model;
+
+public class NameFilterStatsDTO {
+
+    private String name;
+
+    private boolean ready;
+
+    private long bits;
+
+    private int hashFunctions;
+
+    private long capacity;
+
+    private long insertions;
+
+    private double targetFalsePositiveRate;
+
+    private double expectedFalsePositiveRate;
+
+    private long lookupsAvoided;
+
+    private long lookupsPerformed;
+
+    private long falsePositives;
+
+    public NameFilterStatsDTO() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getInsertions() {
+        return insertions;
+    }
+
+    public double getTargetFalsePositiveRate() {
+        return targetFalsePositiveRate;
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        return expectedFalsePositiveRate;
+    }
+
+    public long getLookupsAvoided() {
+        return lookupsAvoided;
+    }
+
+    public long getLookupsPerformed() {
+        return lookupsPerformed;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    /**
+     * Share of checked names that turned out to be new but still went to the
+     * database because the filter could not rule them out.
+     */
+    public double getObservedFalsePositiveRate() {
+        long newNames = lookupsAvoided + falsePositives;
+        return newNames == 0 ? 0.0 : (double) falsePositives / newNames;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public void setBits(long bits) {
+        this.bits = bits;
+    }
+
+    public void setHashFunctions(int hashFunctions) {
+        this.hashFunctions = hashFunctions;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setInsertions(long insertions) {
+        this.insertions = insertions;
+    }
+
+    public void setTargetFalsePositiveRate(double targetFalsePositiveRate) {
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+    }
+
+    public void setExpectedFalsePositiveRate(double expectedFalsePositiveRate) {
+        this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+    }
+
+    public void setLookupsAvoided(long lookupsAvoided) {
+        this.lookupsAvoided = lookupsAvoided;
+    }
+
+    public void setLookupsPerformed(long lookupsPerformed) {
+        this.lookupsPerformed = lookupsPerformed;
+    }
+
+    public void setFalsePositives(long falsePositives) {
+        this.falsePositives = falsePositives;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.project.model;
+
+public class NamePopularityDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Long popularity;
+
+    public NamePopularityDTO() {
+    }
+
+    public NamePopularityDTO(Long id, String name, Long popularity) {
+        this.id = id;
+        this.name = name;
+        this.popularity = popularity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getPopularity() {
+        return popularity;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setPopularity(Long popularity) {
+        this.popularity = popularity;
+    }
+}
@@ -8,7 +8,8 @@ import jakarta.validation.constraints.PositiveOrZero;
 import java.time.Instant;
 
 @Entity
-@Table(name = "purchases", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "game_id" }))
+@Table(name = "purchases", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "game_id" }),
+        indexes = @Index(name = "idx_purchases_user_purchased_at", columnList = "user_id, purchased_at, id"))
 public class Purchase {
 
     @Id
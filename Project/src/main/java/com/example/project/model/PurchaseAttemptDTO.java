@@ -0,0 +1,69 @@
+package com.example.project.model;
+
+import java.time.Instant;
+
+/** What a single-statement purchase found and did: whether the buyer exists and already owned a purchase of the game, their balance before the purchase, and the inserted purchase (null ids when nothing was inserted). */
+public class PurchaseAttemptDTO {
+
+    private boolean userFound;
+
+    private boolean alreadyPurchased;
+
+    private long balanceCents;
+
+    private Long purchaseId;
+
+    private Instant purchasedAt;
+
+    public PurchaseAttemptDTO() {
+    }
+
+    public PurchaseAttemptDTO(boolean userFound, boolean alreadyPurchased, long balanceCents, Long purchaseId,
+            Instant purchasedAt) {
+        this.userFound = userFound;
+        this.alreadyPurchased = alreadyPurchased;
+        this.balanceCents = balanceCents;
+        this.purchaseId = purchaseId;
+        this.purchasedAt = purchasedAt;
+    }
+
+    public boolean isUserFound() {
+        return userFound;
+    }
+
+    public boolean isAlreadyPurchased() {
+        return alreadyPurchased;
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public Long getPurchaseId() {
+        return purchaseId;
+    }
+
+    public Instant getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public void setUserFound(boolean userFound) {
+        this.userFound = userFound;
+    }
+
+    public void setAlreadyPurchased(boolean alreadyPurchased) {
+        this.alreadyPurchased = alreadyPurchased;
+    }
+
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+
+    public void setPurchaseId(Long purchaseId) {
+        this.purchaseId = purchaseId;
+    }
+
+    public void setPurchasedAt(Instant purchasedAt) {
+        this.purchasedAt = purchasedAt;
+    }
+}
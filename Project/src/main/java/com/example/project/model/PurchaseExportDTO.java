@@ -0,0 +1,90 @@
+package com.example.project.model;
+
+import java.time.Instant;
+
+public class PurchaseExportDTO {
+
+    private Long id;
+
+    private Long userId;
+
+    private String username;
+
+    private Long gameId;
+
+    private String gameName;
+
+    private Long priceCents;
+
+    private Instant purchasedAt;
+
+    public PurchaseExportDTO() {
+    }
+
+    public PurchaseExportDTO(Long id, Long userId, String username, Long gameId, String gameName,
+            Long priceCents, Instant purchasedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.gameId = gameId;
+        this.gameName = gameName;
+        this.priceCents = priceCents;
+        this.purchasedAt = purchasedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public String getGameName() {
+        return gameName;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public Instant getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setGameName(String gameName) {
+        this.gameName = gameName;
+    }
+
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
+    }
+
+    public void setPurchasedAt(Instant purchasedAt) {
+        this.purchasedAt = purchasedAt;
+    }
+}
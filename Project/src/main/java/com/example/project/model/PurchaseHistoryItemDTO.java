@@ -0,0 +1,67 @@
+package com.example.project.model;
+
+import java.time.Instant;
+
+public class PurchaseHistoryItemDTO {
+
+    private Long purchaseId;
+
+    private Long gameId;
+
+    private String gameName;
+
+    private Long priceCents;
+
+    private Instant purchasedAt;
+
+    public PurchaseHistoryItemDTO() {
+    }
+
+    public PurchaseHistoryItemDTO(Long purchaseId, Long gameId, String gameName, Long priceCents, Instant purchasedAt) {
+        this.purchaseId = purchaseId;
+        this.gameId = gameId;
+        this.gameName = gameName;
+        this.priceCents = priceCents;
+        this.purchasedAt = purchasedAt;
+    }
+
+    public Long getPurchaseId() {
+        return purchaseId;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public String getGameName() {
+        return gameName;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public Instant getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public void setPurchaseId(Long purchaseId) {
+        this.purchaseId = purchaseId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setGameName(String gameName) {
+        this.gameName = gameName;
+    }
+
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
+    }
+
+    public void setPurchasedAt(Instant purchasedAt) {
+        this.purchasedAt = purchasedAt;
+    }
+}
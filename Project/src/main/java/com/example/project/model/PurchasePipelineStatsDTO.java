@@ -0,0 +1,137 @@
+package com.example.project.model;
+
+public class PurchasePipelineStatsDTO {
+
+    private int workers;
+
+    private int capacity;
+
+    private int queueDepth;
+
+    private BackpressurePolicy backpressure;
+
+    private long accepted;
+
+    private long rejected;
+
+    private long succeeded;
+
+    private long failed;
+
+    private long batches;
+
+    private double meanBatchSize;
+
+    private int maxBatchSize;
+
+    private double meanLatencyMillis;
+
+    private double maxLatencyMillis;
+
+    public PurchasePipelineStatsDTO() {
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public BackpressurePolicy getBackpressure() {
+        return backpressure;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public double getMeanBatchSize() {
+        return meanBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public double getMeanLatencyMillis() {
+        return meanLatencyMillis;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public void setBackpressure(BackpressurePolicy backpressure) {
+        this.backpressure = backpressure;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public void setSucceeded(long succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public void setBatches(long batches) {
+        this.batches = batches;
+    }
+
+    public void setMeanBatchSize(double meanBatchSize) {
+        this.meanBatchSize = meanBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void setMeanLatencyMillis(double meanLatencyMillis) {
+        this.meanLatencyMillis = meanLatencyMillis;
+    }
+
+    public void setMaxLatencyMillis(double maxLatencyMillis) {
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.project.model;
+
+import java.time.Instant;
+
+public class PurchaseReceiptDTO {
+
+    private Long purchaseId;
+
+    private Long userId;
+
+    private Long gameId;
+
+    private String gameName;
+
+    private Long priceCents;
+
+    private Instant purchasedAt;
+
+    private long balanceCents;
+
+    public PurchaseReceiptDTO() {
+    }
+
+    public PurchaseReceiptDTO(Long purchaseId, Long userId, Long gameId, String gameName, Long priceCents,
+            Instant purchasedAt, long balanceCents) {
+        this.purchaseId = purchaseId;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.gameName = gameName;
+        this.priceCents = priceCents;
+        this.purchasedAt = purchasedAt;
+        this.balanceCents = balanceCents;
+    }
+
+    public Long getPurchaseId() {
+        return purchaseId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public String getGameName() {
+        return gameName;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public Instant getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public void setPurchaseId(Long purchaseId) {
+        this.purchaseId = purchaseId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setGameName(String gameName) {
+        this.gameName = gameName;
+    }
+
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
+    }
+
+    public void setPurchasedAt(Instant purchasedAt) {
+        this.purchasedAt = purchasedAt;
+    }
+
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+}
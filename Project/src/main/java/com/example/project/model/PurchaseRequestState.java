@@ -0,0 +1,8 @@
+package com.example.project.model;
+
+public enum PurchaseRequestState {
+    /** Accepted and waiting for a worker. */
+    QUEUED,
+    SUCCEEDED,
+    FAILED
+}
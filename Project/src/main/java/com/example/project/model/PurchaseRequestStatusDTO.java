@@ -0,0 +1,122 @@
+package com.example.project.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurchaseRequestStatusDTO {
+
+    private String requestId;
+
+    private Long userId;
+
+    private Long gameId;
+
+    private Long priceCents;
+
+    private PurchaseRequestState state;
+
+    private Instant acceptedAt;
+
+    private Instant completedAt;
+
+    private PurchaseReceiptDTO receipt;
+
+    private Integer errorStatus;
+
+    private String error;
+
+    public PurchaseRequestStatusDTO() {
+    }
+
+    public PurchaseRequestStatusDTO(String requestId, Long userId, Long gameId, Long priceCents,
+            PurchaseRequestState state, Instant acceptedAt) {
+        this.requestId = requestId;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.priceCents = priceCents;
+        this.state = state;
+        this.acceptedAt = acceptedAt;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public PurchaseRequestState getState() {
+        return state;
+    }
+
+    public Instant getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public PurchaseReceiptDTO getReceipt() {
+        return receipt;
+    }
+
+    public Integer getErrorStatus() {
+        return errorStatus;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setRequestId(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
+    }
+
+    public void setState(PurchaseRequestState state) {
+        this.state = state;
+    }
+
+    public void setAcceptedAt(Instant acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public void setReceipt(PurchaseReceiptDTO receipt) {
+        this.receipt = receipt;
+    }
+
+    public void setErrorStatus(Integer errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
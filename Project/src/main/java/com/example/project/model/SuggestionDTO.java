@@ -0,0 +1,32 @@
+package com.example.project.model;
+
+public class SuggestionDTO {
+
+    private Long id;
+
+    private String name;
+
+    public SuggestionDTO() {
+    }
+
+    public SuggestionDTO(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
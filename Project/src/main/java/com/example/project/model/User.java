@@ -2,13 +2,13 @@ package com.example.project.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 
 import java.util.HashSet;
 import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 @Entity
 @Table(name = "users")
@@ -22,10 +22,16 @@ public class User {
     @Column(nullable = false, unique = true)
     private String username;
 
-    @NotNull
+    /**
+     * Not stored on the row: the balance lives in the balance ledger and is
+     * filled in by {@code BalanceService} for responses that show it. Null
+     * when not filled in. On creation, a positive value becomes the user's
+     * opening ledger entry.
+     */
+    @Transient
     @PositiveOrZero
-    @Column(nullable = false)
-    private Long balanceCents = 0L;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long balanceCents;
 
     @ManyToMany
     @JoinTable(name = "user_games", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "game_id"))
@@ -40,7 +46,6 @@ public class User {
 
     public User(String username) {
         this.username = username;
-        this.balanceCents = 0L;
     }
 
     public Long getId() {
@@ -95,30 +100,4 @@ public class User {
         this.ownedGames.remove(game);
         game.getOwners().remove(this);
     }
-
-    public void increaseBalance(Long amountCents) {
-        if (amountCents == null || amountCents <= 0) {
-            throw new IllegalArgumentException("Amount must be positive.");
-        }
-        if (this.balanceCents == null) {
-            this.balanceCents = 0L;
-        }
-        this.balanceCents += amountCents;
-    }
-
-    public void decreaseBalance(Long amountCents) {
-        if (amountCents == null || amountCents < 0) {
-            throw new IllegalArgumentException("Amount must be non-negative.");
-        }
-        if (this.balanceCents == null) {
-            this.balanceCents = 0L;
-        }
-        if (amountCents == 0) {
-            return;
-        }
-        if (this.balanceCents < amountCents) {
-            throw new IllegalStateException("Insufficient balance.");
-        }
-        this.balanceCents -= amountCents;
-    }
 }
@@ -0,0 +1,84 @@
+package com.example.project.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Set;
+
+public class UserSummaryDTO {
+
+    private Long id;
+
+    private String username;
+
+    private long balanceCents;
+
+    private long ownedGameCount;
+
+    /** Only present when requested with {@code expand=ownedGames}. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties("owners")
+    private Set<Game> ownedGames;
+
+    /** Only present when requested with {@code expand=wishlist}. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Wishlist wishlist;
+
+    public UserSummaryDTO() {
+    }
+
+    public UserSummaryDTO(Long id, String username, long balanceCents, long ownedGameCount) {
+        this.id = id;
+        this.username = username;
+        this.balanceCents = balanceCents;
+        this.ownedGameCount = ownedGameCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public long getOwnedGameCount() {
+        return ownedGameCount;
+    }
+
+    public Set<Game> getOwnedGames() {
+        return ownedGames;
+    }
+
+    public Wishlist getWishlist() {
+        return wishlist;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+
+    public void setOwnedGameCount(long ownedGameCount) {
+        this.ownedGameCount = ownedGameCount;
+    }
+
+    public void setOwnedGames(Set<Game> ownedGames) {
+        this.ownedGames = ownedGames;
+    }
+
+    public void setWishlist(Wishlist wishlist) {
+        this.wishlist = wishlist;
+    }
+}
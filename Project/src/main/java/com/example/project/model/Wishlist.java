@@ -64,6 +64,8 @@ public class Wishlist {
     }
 
     public void removeGame(Game game) {
-        this.games.remove(game);
+        if (!this.games.remove(game) && game.getId() != null) {
+            this.games.removeIf(g -> game.getId().equals(g.getId()));
+        }
     }
 }
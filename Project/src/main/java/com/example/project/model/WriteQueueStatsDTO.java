@@ -0,0 +1,43 @@
+package com.example.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WriteQueueStatsDTO {
+
+    private int capacityPerStripe;
+
+    private List<WriteStripeStatsDTO> stripes = new ArrayList<>();
+
+    public WriteQueueStatsDTO() {
+    }
+
+    public WriteQueueStatsDTO(int capacityPerStripe, List<WriteStripeStatsDTO> stripes) {
+        this.capacityPerStripe = capacityPerStripe;
+        this.stripes = stripes;
+    }
+
+    public int getCapacityPerStripe() {
+        return capacityPerStripe;
+    }
+
+    public List<WriteStripeStatsDTO> getStripes() {
+        return stripes;
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (WriteStripeStatsDTO stripe : stripes) {
+            depth += stripe.getQueueDepth();
+        }
+        return depth;
+    }
+
+    public void setCapacityPerStripe(int capacityPerStripe) {
+        this.capacityPerStripe = capacityPerStripe;
+    }
+
+    public void setStripes(List<WriteStripeStatsDTO> stripes) {
+        this.stripes = stripes;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.project.model;
+
+public class WriteStripeStatsDTO {
+
+    private int stripe;
+
+    private int queueDepth;
+
+    private long executed;
+
+    private long rejected;
+
+    private long timedOut;
+
+    private double meanWaitMillis;
+
+    private double maxWaitMillis;
+
+    public WriteStripeStatsDTO() {
+    }
+
+    public WriteStripeStatsDTO(int stripe, int queueDepth, long executed, long rejected, long timedOut,
+            double meanWaitMillis, double maxWaitMillis) {
+        this.stripe = stripe;
+        this.queueDepth = queueDepth;
+        this.executed = executed;
+        this.rejected = rejected;
+        this.timedOut = timedOut;
+        this.meanWaitMillis = meanWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getExecuted() {
+        return executed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public double getMeanWaitMillis() {
+        return meanWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setStripe(int stripe) {
+        this.stripe = stripe;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public void setExecuted(long executed) {
+        this.executed = executed;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public void setTimedOut(long timedOut) {
+        this.timedOut = timedOut;
+    }
+
+    public void setMeanWaitMillis(double meanWaitMillis) {
+        this.meanWaitMillis = meanWaitMillis;
+    }
+
+    public void setMaxWaitMillis(double maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+}
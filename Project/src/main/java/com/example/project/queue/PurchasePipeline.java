@@ -0,0 +1,337 @@
+package com.example.project.queue;
+
+import com.example.project.exception.ServiceUnavailableException;
+import com.example.project.model.BackpressurePolicy;
+import com.example.project.model.PurchasePipelineStatsDTO;
+import com.example.project.model.PurchaseRequestState;
+import com.example.project.model.PurchaseRequestStatusDTO;
+import com.example.project.service.PurchaseOrder;
+import com.example.project.service.PurchaseService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accepts purchases to run later, so that a peak of purchase requests waits
+ * in memory instead of on request threads and pooled connections.
+ * <p>
+ * Purchases are hashed by user onto {@code purchase-pipeline.workers} lanes,
+ * each a queue of at most {@code purchase-pipeline.capacity} purchases drained
+ * by one virtual thread, so one user's purchases run in the order they were
+ * accepted. A worker takes whatever is queued, up to
+ * {@code purchase-pipeline.batch-size} purchases, and runs them as one
+ * transaction with {@link PurchaseService#createBatch}: one lock statement
+ * for all the buyers and one commit for the batch. If that transaction fails
+ * as a whole, each purchase of the batch is retried in its own.
+ * <p>
+ * When a lane is full, {@code purchase-pipeline.backpressure} decides:
+ * {@code REJECT} answers 503 at once, {@code BLOCK} waits up to
+ * {@code purchase-pipeline.block-timeout-ms} for room first. The outcome of
+ * each purchase can be polled by request id for
+ * {@code purchase-pipeline.status-ttl-ms}, and at most
+ * {@code purchase-pipeline.status-capacity} outcomes are kept.
+ */
+@Component
+public class PurchasePipeline {
+
+    /** Queued by {@link #shutdown()} to wake a worker waiting for work; never run. */
+    private static final Pending STOP = new Pending(null, null);
+
+    private final PurchaseService purchaseService;
+    private final Lane[] lanes;
+    private final int capacity;
+    private final int batchSize;
+    private final BackpressurePolicy backpressure;
+    private final long blockTimeoutMillis;
+    private final int statusCapacity;
+    private final long statusTtlNanos;
+
+    private final LinkedHashMap<String, Tracked> statuses = new LinkedHashMap<>();
+    private volatile boolean running = true;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedPurchases = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    public PurchasePipeline(PurchaseService purchaseService,
+            @Value("${purchase-pipeline.workers:4}") int workers,
+            @Value("${purchase-pipeline.capacity:10000}") int capacity,
+            @Value("${purchase-pipeline.batch-size:50}") int batchSize,
+            @Value("${purchase-pipeline.backpressure:REJECT}") BackpressurePolicy backpressure,
+            @Value("${purchase-pipeline.block-timeout-ms:1000}") long blockTimeoutMillis,
+            @Value("${purchase-pipeline.status-capacity:100000}") int statusCapacity,
+            @Value("${purchase-pipeline.status-ttl-ms:600000}") long statusTtlMillis) {
+        if (workers < 1 || capacity < 1 || batchSize < 1 || blockTimeoutMillis < 1 || statusCapacity < 1
+                || statusTtlMillis < 1) {
+            throw new IllegalArgumentException("Purchase pipeline settings must be positive.");
+        }
+        this.purchaseService = purchaseService;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.backpressure = backpressure;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.statusCapacity = statusCapacity;
+        this.statusTtlNanos = TimeUnit.MILLISECONDS.toNanos(statusTtlMillis);
+        this.lanes = new Lane[workers];
+        for (int i = 0; i < workers; i++) {
+            Lane lane = new Lane(capacity);
+            lane.worker = Thread.ofVirtual().name("purchase-pipeline-" + i).start(() -> drain(lane));
+            lanes[i] = lane;
+        }
+    }
+
+    /**
+     * Queues a purchase and returns its status, {@code QUEUED}. Throws
+     * {@link ServiceUnavailableException} if the user's lane stayed full or the
+     * pipeline is shutting down; the purchase is then not queued and will not
+     * run. A purchase that a worker already took when shutdown began is
+     * accepted: it runs, or fails with 503, and its status says which.
+     */
+    public PurchaseRequestStatusDTO submit(Long userId, Long gameId, Long priceCents) {
+        Pending pending = new Pending(UUID.randomUUID().toString(), new PurchaseOrder(userId, gameId, priceCents));
+        PurchaseRequestStatusDTO queued = new PurchaseRequestStatusDTO(pending.requestId, userId, gameId, priceCents,
+                PurchaseRequestState.QUEUED, pending.acceptedAt);
+        // Recorded before it is queued, so a worker's outcome cannot be overwritten by it.
+        remember(queued);
+
+        Lane lane = lanes[UserPartitions.of(userId, lanes.length)];
+        boolean offered;
+        try {
+            offered = backpressure == BackpressurePolicy.BLOCK
+                    ? lane.queue.offer(pending, blockTimeoutMillis, TimeUnit.MILLISECONDS)
+                    : lane.queue.offer(pending);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+        // Once shutdown has begun a queued purchase is withdrawn, unless a worker
+        // or the shutdown drain has already taken it and will report its outcome.
+        if (!offered || (!running && lane.queue.remove(pending))) {
+            forget(pending.requestId);
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many queued purchases, retry later.");
+        }
+        accepted.increment();
+        return queued;
+    }
+
+    /** The latest status of an accepted purchase, unless it has been forgotten. */
+    public Optional<PurchaseRequestStatusDTO> status(String requestId) {
+        long now = System.nanoTime();
+        synchronized (statuses) {
+            Tracked tracked = statuses.get(requestId);
+            if (tracked == null || now - tracked.storedAt >= statusTtlNanos) {
+                return Optional.empty();
+            }
+            return Optional.of(tracked.status);
+        }
+    }
+
+    public PurchasePipelineStatsDTO stats() {
+        PurchasePipelineStatsDTO stats = new PurchasePipelineStatsDTO();
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        long batchCount = batches.sum();
+        long completed = succeeded.sum() + failed.sum();
+        stats.setWorkers(lanes.length);
+        stats.setCapacity(capacity);
+        stats.setQueueDepth(depth);
+        stats.setBackpressure(backpressure);
+        stats.setAccepted(accepted.sum());
+        stats.setRejected(rejected.sum());
+        stats.setSucceeded(succeeded.sum());
+        stats.setFailed(failed.sum());
+        stats.setBatches(batchCount);
+        stats.setMeanBatchSize(batchCount == 0 ? 0.0 : batchedPurchases.sum() / (double) batchCount);
+        stats.setMaxBatchSize((int) maxBatchSize.get());
+        stats.setMeanLatencyMillis(completed == 0 ? 0.0 : totalLatencyNanos.sum() / (double) completed / 1_000_000.0);
+        stats.setMaxLatencyMillis(maxLatencyNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * Stops the workers once their current batch is done. A running batch is
+     * not interrupted, so its transaction gets to commit; idle workers are
+     * woken with {@link #STOP}. Purchases still queued are marked failed with
+     * 503; none of them ran.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Lane lane : lanes) {
+            // A full lane has no worker waiting in take(); it stops after its batch.
+            lane.queue.offer(STOP);
+        }
+        for (Lane lane : lanes) {
+            try {
+                lane.worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<Pending> abandoned = new ArrayList<>();
+        for (Lane lane : lanes) {
+            lane.queue.drainTo(abandoned);
+        }
+        abandoned.removeIf(pending -> pending == STOP);
+        for (Pending pending : abandoned) {
+            pending.order.failed(new ServiceUnavailableException("The server shut down before the purchase ran."));
+            complete(pending);
+        }
+    }
+
+    private void drain(Lane lane) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(lane.queue.take());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            lane.queue.drainTo(batch, batchSize - 1);
+            // Shutdown began after the check above; the purchases taken with STOP still run.
+            batch.removeIf(pending -> pending == STOP);
+            if (!batch.isEmpty()) {
+                run(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void run(List<Pending> batch) {
+        List<PurchaseOrder> orders = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            orders.add(pending.order);
+        }
+        try {
+            purchaseService.createBatch(orders);
+        } catch (RuntimeException ex) {
+            // Nothing of the batch was kept; one purchase may have broken the
+            // shared transaction, so each gets a transaction of its own.
+            for (PurchaseOrder order : orders) {
+                try {
+                    order.succeeded(purchaseService.create(order.getUserId(), order.getGameId(), order.getPriceCents()));
+                } catch (RuntimeException orderEx) {
+                    order.failed(orderEx);
+                }
+            }
+        }
+        batches.increment();
+        batchedPurchases.add(batch.size());
+        maxBatchSize.accumulate(batch.size());
+        for (Pending pending : batch) {
+            complete(pending);
+        }
+    }
+
+    private void complete(Pending pending) {
+        PurchaseOrder order = pending.order;
+        PurchaseRequestStatusDTO status = new PurchaseRequestStatusDTO(pending.requestId, order.getUserId(),
+                order.getGameId(), order.getPriceCents(), null, pending.acceptedAt);
+        status.setCompletedAt(Instant.now());
+        if (order.getReceipt() != null) {
+            status.setState(PurchaseRequestState.SUCCEEDED);
+            status.setReceipt(order.getReceipt());
+            succeeded.increment();
+        } else {
+            ResponseStatus declared = AnnotatedElementUtils.findMergedAnnotation(order.getFailure().getClass(),
+                    ResponseStatus.class);
+            status.setState(PurchaseRequestState.FAILED);
+            if (declared != null) {
+                status.setErrorStatus(declared.code().value());
+                status.setError(order.getFailure().getMessage());
+            } else {
+                status.setErrorStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                status.setError("The purchase could not be completed.");
+            }
+            failed.increment();
+        }
+        long latency = System.nanoTime() - pending.enqueuedAt;
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulate(latency);
+        remember(status);
+    }
+
+    private void remember(PurchaseRequestStatusDTO status) {
+        long now = System.nanoTime();
+        synchronized (statuses) {
+            // Removed first so that the newest status is always last in line for eviction.
+            statuses.remove(status.getRequestId());
+            statuses.put(status.getRequestId(), new Tracked(status, now));
+            Iterator<Map.Entry<String, Tracked>> oldest = statuses.entrySet().iterator();
+            while (oldest.hasNext()) {
+                Tracked tracked = oldest.next().getValue();
+                if (statuses.size() <= statusCapacity && now - tracked.storedAt < statusTtlNanos) {
+                    break;
+                }
+                oldest.remove();
+            }
+        }
+    }
+
+    private void forget(String requestId) {
+        synchronized (statuses) {
+            statuses.remove(requestId);
+        }
+    }
+
+    private static final class Lane {
+
+        final BlockingQueue<Pending> queue;
+        volatile Thread worker;
+
+        Lane(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private static final class Pending {
+
+        final String requestId;
+        final PurchaseOrder order;
+        final long enqueuedAt = System.nanoTime();
+        final Instant acceptedAt = Instant.now();
+
+        Pending(String requestId, PurchaseOrder order) {
+            this.requestId = requestId;
+            this.order = order;
+        }
+    }
+
+    private static final class Tracked {
+
+        final PurchaseRequestStatusDTO status;
+        final long storedAt;
+
+        Tracked(PurchaseRequestStatusDTO status, long storedAt) {
+            this.status = status;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.project.queue;
+
+/**
+ * Maps users onto a fixed number of workers, so that every operation of one
+ * user goes to the same worker and runs in order.
+ */
+final class UserPartitions {
+
+    private UserPartitions() {
+    }
+
+    /** The partition, out of {@code partitions}, that {@code userId} belongs to. */
+    static int of(Long userId, int partitions) {
+        // Spread sequential ids before taking the modulus.
+        int h = userId == null ? 0 : Long.hashCode(userId) * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), partitions);
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.project.queue;
+
+import com.example.project.exception.ServiceUnavailableException;
+import com.example.project.model.WriteQueueStatsDTO;
+import com.example.project.model.WriteStripeStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs balance-changing operations one at a time per user, in front of the
+ * database rather than inside it.
+ * <p>
+ * Users are hashed onto {@code user-write-queue.stripes} stripes, each with a
+ * single worker thread and a queue of at most
+ * {@code user-write-queue.capacity} operations. Operations for one user
+ * therefore never overlap, while users on other stripes proceed in parallel.
+ * A queued operation has not opened its transaction yet, so waiting behind a
+ * busy account costs a request thread but no pooled connection, and the
+ * per-user ledger lock it finally takes never waits on another writer from
+ * this JVM.
+ * <p>
+ * A full stripe, or an operation still queued after
+ * {@code user-write-queue.timeout-ms}, is answered with
+ * {@link ServiceUnavailableException}. An operation that has already started
+ * is always waited for, so a 503 means the operation did not and will not
+ * run.
+ */
+@Component
+public class UserWriteQueue {
+
+    private final Stripe[] stripes;
+    private final int capacity;
+    private final long timeoutMillis;
+
+    public UserWriteQueue(@Value("${user-write-queue.stripes:32}") int stripes,
+            @Value("${user-write-queue.capacity:500}") int capacity,
+            @Value("${user-write-queue.timeout-ms:10000}") long timeoutMillis) {
+        if (stripes < 1 || capacity < 1 || timeoutMillis < 1) {
+            throw new IllegalArgumentException("Stripes, capacity and timeout must be positive.");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(i, capacity);
+        }
+        this.capacity = capacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs {@code operation} on {@code userId}'s stripe and returns its result,
+     * rethrowing whatever it throws.
+     */
+    public <T> T submit(Long userId, Supplier<T> operation) {
+        Stripe stripe = stripes[stripeOf(userId)];
+        if (Thread.currentThread() == stripe.worker) {
+            // Already serialized; queueing behind ourselves would deadlock.
+            return operation.get();
+        }
+
+        Pending<T> task = new Pending<>(stripe, operation);
+        try {
+            stripe.executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            stripe.rejected.increment();
+            throw new ServiceUnavailableException("Too many pending operations for this user, retry later.");
+        }
+
+        try {
+            return task.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            if (task.abandon()) {
+                stripe.executor.remove(task);
+                stripe.timedOut.increment();
+                throw new ServiceUnavailableException("Timed out waiting for earlier operations on this user, retry later.");
+            }
+            return awaitStarted(task.result);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (task.abandon()) {
+                stripe.executor.remove(task);
+                throw new ServiceUnavailableException("Interrupted while waiting for earlier operations on this user.");
+            }
+            return awaitStarted(task.result);
+        } catch (ExecutionException ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public WriteQueueStatsDTO stats() {
+        List<WriteStripeStatsDTO> stripeStats = new ArrayList<>(stripes.length);
+        for (Stripe stripe : stripes) {
+            long executed = stripe.executed.sum();
+            double meanWait = executed == 0 ? 0.0 : stripe.totalWaitNanos.sum() / (double) executed / 1_000_000.0;
+            stripeStats.add(new WriteStripeStatsDTO(stripe.index,
+                    stripe.executor.getQueue().size() + stripe.executor.getActiveCount(),
+                    executed,
+                    stripe.rejected.sum(),
+                    stripe.timedOut.sum(),
+                    meanWait,
+                    stripe.maxWaitNanos.get() / 1_000_000.0));
+        }
+        return new WriteQueueStatsDTO(capacity, stripeStats);
+    }
+
+    /** The stripe whose worker runs {@code userId}'s operations. */
+    public int stripeOf(Long userId) {
+        return UserPartitions.of(userId, stripes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Stripe stripe : stripes) {
+            stripe.executor.shutdown();
+        }
+    }
+
+    /** Waits for a task that is already running, which cannot be abandoned. */
+    private static <T> T awaitStarted(CompletableFuture<T> result) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return result.get();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    throw rethrow(ex);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException rethrow(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * A queued operation. Whichever of the worker and a timed-out caller
+     * claims it first decides whether it runs, so an operation is never both
+     * reported as abandoned and executed.
+     */
+    private static final class Pending<T> implements Runnable {
+
+        final Stripe stripe;
+        final Supplier<T> operation;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Pending(Stripe stripe, Supplier<T> operation) {
+            this.stripe = stripe;
+            this.operation = operation;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            stripe.recordWait(System.nanoTime() - enqueuedAt);
+            try {
+                result.complete(operation.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        boolean abandon() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private static final class Stripe {
+
+        final int index;
+        final ThreadPoolExecutor executor;
+        volatile Thread worker;
+
+        final LongAdder executed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder timedOut = new LongAdder();
+        final LongAdder totalWaitNanos = new LongAdder();
+        final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+        Stripe(int index, int capacity) {
+            this.index = index;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(capacity), runnable -> {
+                        Thread thread = new Thread(runnable, "user-write-" + index);
+                        thread.setDaemon(true);
+                        worker = thread;
+                        return thread;
+                    });
+        }
+
+        void recordWait(long nanos) {
+            executed.increment();
+            totalWaitNanos.add(nanos);
+            maxWaitNanos.accumulate(nanos);
+        }
+    }
+}
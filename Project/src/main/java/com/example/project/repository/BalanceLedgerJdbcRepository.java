@@ -0,0 +1,151 @@
+package com.example.project.repository;
+
+import com.example.project.model.LedgerReason;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and appends to {@code balance_ledger} and maintains
+ * {@code balance_snapshots}.
+ * <p>
+ * A balance is the user's snapshot (zero when there is none) plus the sum of
+ * the ledger entries after the snapshot's {@code last_entry_id}. Every write
+ * for a user first takes a transaction-scoped advisory lock keyed by the user
+ * id, so entry ids for one user are assigned and committed in order and a
+ * snapshot never skips an entry that was still in flight. The lock lives in
+ * PostgreSQL's lock table only: nothing is updated, so there is no hot row.
+ * It uses the two-key form, {@link #LOCK_NAMESPACE} and the user id folded
+ * to 32 bits, so it never collides with an advisory lock other code takes on
+ * some other id; two users folding to the same key merely wait for each
+ * other. Callers own the transaction.
+ */
+@Repository
+public class BalanceLedgerJdbcRepository {
+
+    /** First key of every ledger advisory lock ("LEDG"), keeping them apart from other advisory locks. */
+    static final int LOCK_NAMESPACE = 0x4C454447;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BalanceLedgerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * SQL for the current balance of the user whose id is {@code userIdColumn},
+     * given their snapshot row joined as {@code s} (all-null when absent).
+     */
+    static String balanceExpression(String userIdColumn) {
+        return "COALESCE(s.balance_cents, 0) + COALESCE(("
+                + "SELECT SUM(l.amount_cents) FROM balance_ledger l "
+                + "WHERE l.user_id = " + userIdColumn + " AND l.id > COALESCE(s.last_entry_id, 0)), 0)";
+    }
+
+    public void lockUser(long userId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", (RowCallbackHandler) rs -> {
+        }, LOCK_NAMESPACE, Long.hashCode(userId));
+    }
+
+    /**
+     * Locks each of the given users in lock key order, in one statement, so
+     * that two callers locking overlapping sets cannot deadlock.
+     */
+    public void lockUsers(long[] userIds) {
+        int[] keys = new int[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            keys[i] = Long.hashCode(userIds[i]);
+        }
+        jdbcTemplate.query("""
+                SELECT pg_advisory_xact_lock(?, o.lock_key)
+                FROM (SELECT DISTINCT lock_key FROM unnest(?::int[]) AS u(lock_key) ORDER BY lock_key) o
+                """, (RowCallbackHandler) rs -> {
+        }, LOCK_NAMESPACE, keys);
+    }
+
+    /** Balances of the given users, keyed by id; users without entries map to 0. */
+    public Map<Long, Long> balancesOf(Collection<Long> userIds) {
+        Map<Long, Long> balances = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return balances;
+        }
+        jdbcTemplate.query("""
+                SELECT u.user_id, %s AS balance_cents
+                FROM unnest(?::bigint[]) AS u(user_id)
+                LEFT JOIN balance_snapshots s ON s.user_id = u.user_id
+                """.formatted(balanceExpression("u.user_id")),
+                (RowCallbackHandler) rs -> balances.put(rs.getLong("user_id"), rs.getLong("balance_cents")),
+                (Object) userIds.toArray(Long[]::new));
+        return balances;
+    }
+
+    /** Appends an entry. The caller holds the user's lock. */
+    public void append(long userId, long amountCents, LedgerReason reason) {
+        jdbcTemplate.update("""
+                INSERT INTO balance_ledger (user_id, amount_cents, reason, created_at)
+                VALUES (?, ?, ?, now())
+                """, userId, amountCents, reason.name());
+    }
+
+    /**
+     * Appends a debit of {@code amountCents} only if the balance covers it,
+     * and returns whether it did. The caller holds the user's lock; the
+     * balance is read by this statement, so it sees everything committed
+     * before the lock was granted.
+     */
+    public boolean appendDebit(long userId, long amountCents, LedgerReason reason) {
+        return jdbcTemplate.update("""
+                WITH snapshot AS (
+                    SELECT balance_cents, last_entry_id FROM balance_snapshots WHERE user_id = ?
+                )
+                INSERT INTO balance_ledger (user_id, amount_cents, reason, created_at)
+                SELECT ?, ?, ?, now()
+                WHERE COALESCE((SELECT balance_cents FROM snapshot), 0) + COALESCE((
+                    SELECT SUM(l.amount_cents) FROM balance_ledger l
+                    WHERE l.user_id = ? AND l.id > COALESCE((SELECT last_entry_id FROM snapshot), 0)), 0) >= ?
+                """, userId, userId, -amountCents, reason.name(), userId, amountCents) == 1;
+    }
+
+    /** Users with at least {@code minTail} entries after their snapshot. */
+    public List<Long> findUsersToCompact(int minTail, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT l.user_id
+                FROM balance_ledger l
+                LEFT JOIN balance_snapshots s ON s.user_id = l.user_id
+                WHERE l.id > COALESCE(s.last_entry_id, 0)
+                GROUP BY l.user_id
+                HAVING COUNT(*) >= ?
+                LIMIT ?
+                """, Long.class, minTail, limit);
+    }
+
+    /**
+     * Folds the ledger tail of each given user into their snapshot, in one
+     * statement. Locks the users first (see {@link #lockUsers}), so it waits
+     * for any of their writes in flight.
+     * Returns the number of snapshots written.
+     */
+    public int compact(long[] userIds) {
+        if (userIds.length == 0) {
+            return 0;
+        }
+        lockUsers(userIds);
+        return jdbcTemplate.update("""
+                INSERT INTO balance_snapshots (user_id, balance_cents, last_entry_id, taken_at)
+                SELECT l.user_id, COALESCE(MAX(s.balance_cents), 0) + SUM(l.amount_cents), MAX(l.id), now()
+                FROM balance_ledger l
+                LEFT JOIN balance_snapshots s ON s.user_id = l.user_id
+                WHERE l.user_id = ANY(?::bigint[]) AND l.id > COALESCE(s.last_entry_id, 0)
+                GROUP BY l.user_id
+                ON CONFLICT (user_id) DO UPDATE
+                SET balance_cents = EXCLUDED.balance_cents,
+                    last_entry_id = EXCLUDED.last_entry_id,
+                    taken_at = EXCLUDED.taken_at
+                """, (Object) userIds);
+    }
+}
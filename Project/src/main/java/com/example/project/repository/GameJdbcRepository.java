@@ -0,0 +1,139 @@
+package com.example.project.repository;
+
+import com.example.project.model.GameTagLinkDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based writes on {@code games}, {@code tags} and {@code game_tags} for
+ * bulk paths that would otherwise issue one statement per row through JPA.
+ * <p>
+ * Each method sends a whole collection as one array parameter and expands it
+ * with {@code unnest}, so the cost is one round trip per call regardless of
+ * its size. Inserts use {@code RETURNING}, which hands back the generated
+ * identity values without the per-row insert that {@code IDENTITY} forces on
+ * Hibernate. Callers own the transaction.
+ */
+@Repository
+public class GameJdbcRepository {
+
+    private static final RowMapper<GameTagLinkDTO> LINK_MAPPER =
+            (rs, rowNum) -> new GameTagLinkDTO(rs.getLong("game_id"), rs.getLong("tag_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GameJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the games whose name is not taken yet and returns the ids of
+     * the ones it created, keyed by name.
+     */
+    public Map<String, Long> insertGames(Collection<String> names) {
+        return queryNameIds("""
+                INSERT INTO games (name)
+                SELECT unnest(?::text[])
+                ON CONFLICT (name) DO NOTHING
+                RETURNING id, name
+                """, names);
+    }
+
+    public Map<String, Long> findGameIds(Collection<String> names) {
+        return queryNameIds("SELECT id, name FROM games WHERE name = ANY(?::text[])", names);
+    }
+
+    public Map<String, Long> insertTags(Collection<String> names) {
+        return queryNameIds("""
+                INSERT INTO tags (name)
+                SELECT unnest(?::text[])
+                ON CONFLICT (name) DO NOTHING
+                RETURNING id, name
+                """, names);
+    }
+
+    public Map<String, Long> findTagIds(Collection<String> names) {
+        return queryNameIds("SELECT id, name FROM tags WHERE name = ANY(?::text[])", names);
+    }
+
+    /**
+     * Links {@code gameIds[i]} to {@code tagIds[i]} for every i, skipping
+     * pairs that are already linked. Returns the number of links added.
+     */
+    public int insertTagLinks(long[] gameIds, long[] tagIds) {
+        if (gameIds.length == 0) {
+            return 0;
+        }
+        return jdbcTemplate.update("""
+                INSERT INTO game_tags (game_id, tag_id)
+                SELECT * FROM unnest(?::bigint[], ?::bigint[])
+                ON CONFLICT DO NOTHING
+                """, gameIds, tagIds);
+    }
+
+    /**
+     * Links {@code gameIds[i]} to {@code tagIds[i]} for every pair whose game
+     * and tag both exist, and returns the pairs that were not linked before.
+     */
+    public List<GameTagLinkDTO> linkExisting(long[] gameIds, long[] tagIds) {
+        if (gameIds.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                INSERT INTO game_tags (game_id, tag_id)
+                SELECT p.game_id, p.tag_id
+                FROM unnest(?::bigint[], ?::bigint[]) AS p(game_id, tag_id)
+                WHERE EXISTS (SELECT 1 FROM games g WHERE g.id = p.game_id)
+                  AND EXISTS (SELECT 1 FROM tags t WHERE t.id = p.tag_id)
+                ON CONFLICT DO NOTHING
+                RETURNING game_id, tag_id
+                """, LINK_MAPPER, gameIds, tagIds);
+    }
+
+    /**
+     * Removes the given links and returns the ones that existed.
+     */
+    public List<GameTagLinkDTO> unlink(long[] gameIds, long[] tagIds) {
+        if (gameIds.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                DELETE FROM game_tags gt
+                USING unnest(?::bigint[], ?::bigint[]) AS p(game_id, tag_id)
+                WHERE gt.game_id = p.game_id AND gt.tag_id = p.tag_id
+                RETURNING gt.game_id, gt.tag_id
+                """, LINK_MAPPER, gameIds, tagIds);
+    }
+
+    /**
+     * Links one game to one tag and returns whether the link is new. Neither
+     * side of the association is loaded.
+     */
+    public boolean insertTagLink(long gameId, long tagId) {
+        return jdbcTemplate.update(
+                "INSERT INTO game_tags (game_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                gameId, tagId) == 1;
+    }
+
+    /** Removes one link and returns whether it existed. */
+    public boolean deleteTagLink(long gameId, long tagId) {
+        return jdbcTemplate.update("DELETE FROM game_tags WHERE game_id = ? AND tag_id = ?", gameId, tagId) == 1;
+    }
+
+    private Map<String, Long> queryNameIds(String sql, Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(sql, rs -> {
+            ids.put(rs.getString("name"), rs.getLong("id"));
+        }, (Object) names.toArray(String[]::new));
+        return ids;
+    }
+}
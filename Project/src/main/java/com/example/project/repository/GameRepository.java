@@ -1,26 +1,69 @@
 package com.example.project.repository;
 
 import com.example.project.model.Game;
+import com.example.project.model.GameExportRowDTO;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.model.GameTagLinkDTO;
+import com.example.project.model.NamePopularityDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
 
     Optional<Game> findByName(String name);
 
-    List<Game> findByNameContainingIgnoreCase(String name);
-
+    @EntityGraph(attributePaths = "tags")
     @Query("""
              SELECT DISTINCT g
              FROM Game g
              JOIN g.tags t
-             WHERE LOWER(t.name) IN :tagNames
+             WHERE t.id IN :tagIds
             """)
-    List<Game> findByAnyTagNames(@Param("tagNames") List<String> tagNames);
+    List<Game> findByAnyTagIds(@Param("tagIds") Collection<Long> tagIds);
+
+    @Query("SELECT g.id FROM Game g WHERE g.id > :afterId ORDER BY g.id")
+    List<Long> findIdsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT g.id FROM Game g WHERE g.name > :afterName ORDER BY g.name")
+    List<Long> findIdsAfterName(@Param("afterName") String afterName, Pageable pageable);
+
+    @EntityGraph(attributePaths = "tags")
+    List<Game> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.example.project.model.GameSummaryDTO(g.id, g.name) FROM Game g")
+    List<GameSummaryDTO> findAllSummaries();
+
+    @Query("SELECT g.name FROM Game g")
+    List<String> findAllNames();
+
+    @Query("SELECT g.id FROM Game g ORDER BY g.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT new com.example.project.model.GameTagLinkDTO(g.id, t.id) FROM Game g JOIN g.tags t")
+    List<GameTagLinkDTO> findAllTagLinks();
+
+    @Query("SELECT new com.example.project.model.NamePopularityDTO(g.id, g.name, COUNT(o)) FROM Game g LEFT JOIN g.owners o GROUP BY g.id, g.name")
+    List<NamePopularityDTO> findAllNamePopularity();
+
+    /**
+     * Every game joined with its tag names, ordered by game id so rows of one
+     * game are adjacent. Must be consumed inside a transaction so the driver
+     * honours the fetch size instead of buffering the whole result.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.project.model.GameExportRowDTO(g.id, g.name, t.name) FROM Game g LEFT JOIN g.tags t ORDER BY g.id, t.name")
+    Stream<GameExportRowDTO> streamExportRows();
 }
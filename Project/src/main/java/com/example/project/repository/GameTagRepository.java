@@ -1,12 +1,18 @@
 package com.example.project.repository;
 
 import com.example.project.model.GameTag;
+import com.example.project.model.NamePopularityDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GameTagRepository extends JpaRepository<GameTag, Long> {
     Optional<GameTag> findByNameIgnoreCase(String name);
+
+    @Query("SELECT new com.example.project.model.NamePopularityDTO(t.id, t.name, COUNT(g)) FROM GameTag t LEFT JOIN t.games g GROUP BY t.id, t.name")
+    List<NamePopularityDTO> findAllNamePopularity();
 }
@@ -0,0 +1,78 @@
+package com.example.project.repository;
+
+import com.example.project.model.IdempotentResponseDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads and writes {@code idempotency_records}. Each method is a single
+ * auto-committed statement, outside the transaction of the request it
+ * records, so a claim is visible to other instances as soon as it is made.
+ */
+@Repository
+public class IdempotencyJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claims {@code recordKey} for a request about to run and returns null,
+     * or returns the record already there without changing it. Only an
+     * expired record is taken over: an unfinished claim may belong to a
+     * request that committed but could not record its response, so it is
+     * kept until it expires. When another request claimed the key after this
+     * statement's snapshot was taken, the result is an empty claim.
+     */
+    public IdempotentResponseDTO claim(String recordKey, String requestHash, long ttlMillis) {
+        return jdbcTemplate.queryForObject("""
+                WITH claimed AS (
+                    INSERT INTO idempotency_records (record_key, request_hash, created_at, expires_at)
+                    VALUES (?, ?, now(), now() + ? * interval '1 millisecond')
+                    ON CONFLICT (record_key) DO UPDATE
+                    SET request_hash = EXCLUDED.request_hash,
+                        response_status = NULL,
+                        content_type = NULL,
+                        response_body = NULL,
+                        created_at = EXCLUDED.created_at,
+                        expires_at = EXCLUDED.expires_at
+                    WHERE idempotency_records.expires_at < now()
+                    RETURNING record_key
+                )
+                SELECT EXISTS (SELECT 1 FROM claimed) AS claimed,
+                       r.request_hash, r.response_status, r.content_type, r.response_body
+                FROM (SELECT 1) one
+                LEFT JOIN idempotency_records r ON r.record_key = ?
+                """, (rs, rowNum) -> rs.getBoolean("claimed")
+                        ? null
+                        : new IdempotentResponseDTO(rs.getString("request_hash"),
+                                rs.getObject("response_status", Integer.class), rs.getString("content_type"),
+                                rs.getString("response_body")),
+                recordKey, requestHash, ttlMillis, recordKey);
+    }
+
+    /** Records the response of the request holding the claim on {@code recordKey}. */
+    public void complete(String recordKey, int status, String contentType, String body) {
+        jdbcTemplate.update("""
+                UPDATE idempotency_records
+                SET response_status = ?, content_type = ?, response_body = ?
+                WHERE record_key = ?
+                """, status, contentType, body, recordKey);
+    }
+
+    /** Drops an unfinished claim, so that a retry runs the request again. */
+    public void release(String recordKey) {
+        jdbcTemplate.update("DELETE FROM idempotency_records WHERE record_key = ? AND response_status IS NULL",
+                recordKey);
+    }
+
+    /** Deletes up to {@code limit} expired records and returns how many it deleted. */
+    public int deleteExpired(int limit) {
+        return jdbcTemplate.update("""
+                DELETE FROM idempotency_records
+                WHERE record_key IN (SELECT record_key FROM idempotency_records WHERE expires_at < now() LIMIT ?)
+                """, limit);
+    }
+}
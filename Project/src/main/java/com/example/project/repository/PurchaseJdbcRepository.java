@@ -0,0 +1,161 @@
+package com.example.project.repository;
+
+import com.example.project.model.CartGameStatusDTO;
+import com.example.project.model.CheckoutLineDTO;
+import com.example.project.model.LedgerReason;
+import com.example.project.model.PurchaseAttemptDTO;
+import com.example.project.model.PurchaseHistoryItemDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based reads and writes for purchases. Checkouts send the whole cart as
+ * array parameters, so they cost the same number of round trips for one game
+ * as for a hundred; a single purchase is one statement. Callers own the
+ * transaction.
+ */
+@Repository
+public class PurchaseJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PurchaseJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Looks every game of the cart up in one query, in cart order. */
+    public List<CartGameStatusDTO> findCartGames(long userId, long[] gameIds) {
+        return jdbcTemplate.query("""
+                SELECT c.game_id, g.name,
+                       EXISTS (SELECT 1 FROM purchases p WHERE p.user_id = ? AND p.game_id = c.game_id) AS purchased
+                FROM unnest(?::bigint[]) WITH ORDINALITY AS c(game_id, position)
+                LEFT JOIN games g ON g.id = c.game_id
+                ORDER BY c.position
+                """, (rs, rowNum) -> new CartGameStatusDTO(rs.getLong("game_id"), rs.getString("name"),
+                        rs.getBoolean("purchased")),
+                userId, gameIds);
+    }
+
+    /**
+     * In one statement: inserts a purchase for each {@code gameIds[i]} at
+     * {@code priceCents[i]}, grants ownership of the games the user does not
+     * own yet, and removes the games from the user's wishlist. Returns the
+     * inserted purchases in id order.
+     */
+    public List<CheckoutLineDTO> insertCheckout(long userId, long[] gameIds, long[] priceCents) {
+        return jdbcTemplate.query("""
+                WITH cart AS (
+                    SELECT * FROM unnest(?::bigint[], ?::bigint[]) AS c(game_id, price_cents)
+                ), inserted AS (
+                    INSERT INTO purchases (user_id, game_id, price_cents, purchased_at)
+                    SELECT ?, game_id, price_cents, now() FROM cart
+                    RETURNING id, game_id, price_cents, purchased_at
+                ), granted AS (
+                    INSERT INTO user_games (user_id, game_id)
+                    SELECT ?, game_id FROM cart
+                    ON CONFLICT DO NOTHING
+                ), pruned AS (
+                    DELETE FROM wishlist_games wg
+                    USING wishlists w
+                    WHERE w.id = wg.wishlist_id AND w.user_id = ? AND wg.game_id IN (SELECT game_id FROM cart)
+                )
+                SELECT i.id, i.game_id, g.name, i.price_cents, i.purchased_at
+                FROM inserted i
+                JOIN games g ON g.id = i.game_id
+                ORDER BY i.id
+                """, (rs, rowNum) -> new CheckoutLineDTO(rs.getLong("id"), rs.getLong("game_id"), rs.getString("name"),
+                        rs.getLong("price_cents"), rs.getTimestamp("purchased_at").toInstant()),
+                gameIds, priceCents, userId, userId, userId);
+    }
+
+    /**
+     * Buys one game in one statement: if the user exists and their balance
+     * covers {@code priceCents}, inserts the purchase and, only when the
+     * insert went through, appends the debit to the ledger, grants ownership
+     * and removes the game from the wishlist. A purchase that already exists
+     * is left alone by the unique constraint on {@code (user_id, game_id)}, so
+     * nothing is debited twice. The caller holds the user's ledger lock, so
+     * the balance read here sees every entry committed before it.
+     */
+    public PurchaseAttemptDTO purchase(long userId, long gameId, long priceCents) {
+        return jdbcTemplate.queryForObject("""
+                WITH buyer AS (
+                    SELECT EXISTS (SELECT 1 FROM users WHERE id = b.user_id) AS found,
+                           EXISTS (SELECT 1 FROM purchases p WHERE p.user_id = b.user_id AND p.game_id = ?) AS purchased,
+                           %s AS balance_cents
+                    FROM (SELECT ?::bigint AS user_id) b
+                    LEFT JOIN balance_snapshots s ON s.user_id = b.user_id
+                ), inserted AS (
+                    INSERT INTO purchases (user_id, game_id, price_cents, purchased_at)
+                    SELECT ?, ?, ?, now() FROM buyer WHERE found AND balance_cents >= ?
+                    ON CONFLICT (user_id, game_id) DO NOTHING
+                    RETURNING id, purchased_at
+                ), debited AS (
+                    INSERT INTO balance_ledger (user_id, amount_cents, reason, created_at)
+                    SELECT ?, ?, ?, now() FROM inserted WHERE ? > 0
+                ), granted AS (
+                    INSERT INTO user_games (user_id, game_id)
+                    SELECT ?, ? FROM inserted
+                    ON CONFLICT DO NOTHING
+                ), pruned AS (
+                    DELETE FROM wishlist_games wg
+                    USING wishlists w, inserted
+                    WHERE w.id = wg.wishlist_id AND w.user_id = ? AND wg.game_id = ?
+                )
+                SELECT b.found, b.purchased, b.balance_cents, i.id, i.purchased_at
+                FROM buyer b
+                LEFT JOIN inserted i ON true
+                """.formatted(BalanceLedgerJdbcRepository.balanceExpression("b.user_id")),
+                (rs, rowNum) -> new PurchaseAttemptDTO(rs.getBoolean("found"), rs.getBoolean("purchased"),
+                        rs.getLong("balance_cents"), rs.getObject("id", Long.class),
+                        rs.getTimestamp("purchased_at") == null ? null : rs.getTimestamp("purchased_at").toInstant()),
+                gameId, userId,
+                userId, gameId, priceCents, priceCents,
+                userId, -priceCents, LedgerReason.PURCHASE.name(), priceCents,
+                userId, gameId,
+                userId, gameId);
+    }
+
+    /**
+     * Up to {@code limit} of the user's purchases, newest first with the id as
+     * tie-breaker, bought in {@code [from, to)} and strictly after the
+     * position {@code (afterPurchasedAt, afterId)} in that order. Null bounds
+     * and a null position are left out of the query. Walks the
+     * {@code (user_id, purchased_at, id)} index backwards and joins only the
+     * game names of the page.
+     */
+    public List<PurchaseHistoryItemDTO> findHistory(long userId, Instant from, Instant to,
+            Instant afterPurchasedAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT p.id, p.game_id, g.name, p.price_cents, p.purchased_at
+                FROM purchases p
+                JOIN games g ON g.id = p.game_id
+                WHERE p.user_id = ?
+                """);
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        if (from != null) {
+            sql.append("AND p.purchased_at >= ?\n");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append("AND p.purchased_at < ?\n");
+            args.add(Timestamp.from(to));
+        }
+        if (afterPurchasedAt != null) {
+            sql.append("AND (p.purchased_at, p.id) < (?, ?)\n");
+            args.add(Timestamp.from(afterPurchasedAt));
+            args.add(afterId);
+        }
+        sql.append("ORDER BY p.purchased_at DESC, p.id DESC\nLIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new PurchaseHistoryItemDTO(rs.getLong("id"),
+                rs.getLong("game_id"), rs.getString("name"), rs.getLong("price_cents"),
+                rs.getTimestamp("purchased_at").toInstant()), args.toArray());
+    }
+}
@@ -1,17 +1,44 @@
 package com.example.project.repository;
 
 import com.example.project.model.Purchase;
+import com.example.project.model.PurchaseExportDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
 
     boolean existsByUserIdAndGameId(Long userId, Long gameId);
 
-    List<Purchase> findByUserId(Long userId);
-
     boolean existsByGameId(Long gameId);
+
+    /**
+     * Every purchase in id order. Must be consumed inside a transaction (see
+     * {@link GameRepository#streamExportRows()}).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.example.project.model.PurchaseExportDTO(
+                p.id, u.id, u.username, g.id, g.name, p.priceCents, p.purchasedAt)
+            FROM Purchase p JOIN p.user u JOIN p.game g
+            ORDER BY p.id
+            """)
+    Stream<PurchaseExportDTO> streamExport();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.example.project.model.PurchaseExportDTO(
+                p.id, u.id, u.username, g.id, g.name, p.priceCents, p.purchasedAt)
+            FROM Purchase p JOIN p.user u JOIN p.game g
+            WHERE u.id = :userId
+            ORDER BY p.id
+            """)
+    Stream<PurchaseExportDTO> streamExportByUserId(@Param("userId") Long userId);
 }
@@ -1,6 +1,7 @@
 package com.example.project.repository;
 
 import com.example.project.model.Review;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,9 +13,15 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     Optional<Review> findByUserIdAndGameId(Long userId, Long gameId);
 
+    @EntityGraph(attributePaths = { "user", "user.wishlist", "game", "game.tags" })
     List<Review> findByGameId(Long gameId);
 
+    @EntityGraph(attributePaths = { "user", "user.wishlist", "game", "game.tags" })
     List<Review> findByUserId(Long userId);
 
+    @Override
+    @EntityGraph(attributePaths = { "user", "user.wishlist", "game", "game.tags" })
+    List<Review> findAll();
+
     boolean existsByGameId(Long gameId);
 }
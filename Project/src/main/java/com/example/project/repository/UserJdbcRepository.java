@@ -0,0 +1,103 @@
+package com.example.project.repository;
+
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.model.UserSummaryDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Read-side queries over {@code users} that aggregate across tables and so
+ * are cheaper as one SQL statement than as entity graphs.
+ */
+@Repository
+public class UserJdbcRepository {
+
+    private static final RowMapper<UserSummaryDTO> SUMMARY_MAPPER = (rs, rowNum) -> new UserSummaryDTO(
+            rs.getLong("id"), rs.getString("username"), rs.getLong("balance_cents"), rs.getLong("owned_game_count"));
+
+    private static final RowMapper<GameSummaryDTO> GAME_SUMMARY_MAPPER = (rs, rowNum) -> new GameSummaryDTO(
+            rs.getLong("id"), rs.getString("name"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to {@code limit} users with an id above {@code afterId}, in id order,
+     * each with their balance and number of owned games.
+     */
+    public List<UserSummaryDTO> findSummariesAfter(long afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT u.id, u.username,
+                       (SELECT COUNT(*) FROM user_games ug WHERE ug.user_id = u.id) AS owned_game_count,
+                       %s AS balance_cents
+                FROM users u
+                LEFT JOIN balance_snapshots s ON s.user_id = u.id
+                WHERE u.id > ?
+                ORDER BY u.id
+                LIMIT ?
+                """.formatted(BalanceLedgerJdbcRepository.balanceExpression("u.id")), SUMMARY_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Up to {@code limit} of the user's games with an id above
+     * {@code afterGameId}, in id order. Walks the {@code user_games} primary
+     * key, so the cost depends on the page size, not on the collection size.
+     */
+    public List<GameSummaryDTO> findOwnedGamesAfterId(long userId, long afterGameId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT g.id, g.name
+                FROM user_games ug
+                JOIN games g ON g.id = ug.game_id
+                WHERE ug.user_id = ? AND ug.game_id > ?
+                ORDER BY ug.game_id
+                LIMIT ?
+                """, GAME_SUMMARY_MAPPER, userId, afterGameId, limit);
+    }
+
+    /**
+     * Up to {@code limit} of the user's games after {@code (afterName,
+     * afterGameId)}, in name order with the id as tie-breaker.
+     */
+    public List<GameSummaryDTO> findOwnedGamesAfterName(long userId, String afterName, long afterGameId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT g.id, g.name
+                FROM user_games ug
+                JOIN games g ON g.id = ug.game_id
+                WHERE ug.user_id = ? AND (g.name, g.id) > (?, ?)
+                ORDER BY g.name, g.id
+                LIMIT ?
+                """, GAME_SUMMARY_MAPPER, userId, afterName, afterGameId, limit);
+    }
+
+    /**
+     * Records that the user owns the game and returns whether they did not
+     * already. Writes the {@code user_games} row directly, so neither side of
+     * the association is loaded; managed {@code User.ownedGames} or
+     * {@code Game.owners} collections already initialized in the current
+     * persistence context do not see the change.
+     */
+    public boolean grantOwnership(long userId, long gameId) {
+        return jdbcTemplate.update(
+                "INSERT INTO user_games (user_id, game_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                userId, gameId) == 1;
+    }
+
+    /** Removes the user's ownership of the game and returns whether they had it. */
+    public boolean revokeOwnership(long userId, long gameId) {
+        return jdbcTemplate.update("DELETE FROM user_games WHERE user_id = ? AND game_id = ?", userId, gameId) == 1;
+    }
+
+    /** Whether the user owns the game: one primary-key probe on {@code user_games}. */
+    public boolean ownsGame(long userId, long gameId) {
+        Boolean owned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM user_games WHERE user_id = ? AND game_id = ?)",
+                Boolean.class, userId, gameId);
+        return Boolean.TRUE.equals(owned);
+    }
+}
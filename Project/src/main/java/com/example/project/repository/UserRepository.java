@@ -1,12 +1,22 @@
 package com.example.project.repository;
 
 import com.example.project.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @EntityGraph(attributePaths = { "ownedGames", "wishlist" })
+    List<User> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
 }
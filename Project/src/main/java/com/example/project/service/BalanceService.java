@@ -0,0 +1,137 @@
+package com.example.project.service;
+
+import com.example.project.model.LedgerReason;
+import com.example.project.model.User;
+import com.example.project.repository.BalanceLedgerJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User balances kept as an append-only ledger (see
+ * {@link BalanceLedgerJdbcRepository}) instead of a column on {@code users}.
+ * Top-ups and purchases insert one row each; nothing on the request path
+ * updates a row.
+ * <p>
+ * So that reads stay short, users whose ledger tail has grown to
+ * {@code balance-ledger.compaction-threshold} entries get their snapshot
+ * rewritten every {@code balance-ledger.compaction-interval-ms}, up to
+ * {@code balance-ledger.compaction-batch} users per statement. Ledger rows are
+ * never deleted; they are the audit trail.
+ */
+@Service
+public class BalanceService {
+
+    private final BalanceLedgerJdbcRepository ledgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int compactionThreshold;
+    private final int compactionBatch;
+
+    public BalanceService(BalanceLedgerJdbcRepository ledgerRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${balance-ledger.compaction-threshold:50}") int compactionThreshold,
+            @Value("${balance-ledger.compaction-batch:500}") int compactionBatch) {
+        this.ledgerRepository = ledgerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compactionThreshold = compactionThreshold;
+        this.compactionBatch = compactionBatch;
+    }
+
+    /** Adds {@code amountCents} to the balance, as part of the caller's transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(Long userId, long amountCents, LedgerReason reason) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Amount must be positive.");
+        }
+        ledgerRepository.lockUser(userId);
+        ledgerRepository.append(userId, amountCents, reason);
+    }
+
+    /**
+     * Takes {@code amountCents} off the balance if it covers it, as part of
+     * the caller's transaction. Returns false, changing nothing, otherwise.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean debit(Long userId, long amountCents, LedgerReason reason) {
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Amount must be non-negative.");
+        }
+        if (amountCents == 0) {
+            return true;
+        }
+        ledgerRepository.lockUser(userId);
+        return ledgerRepository.appendDebit(userId, amountCents, reason);
+    }
+
+    /**
+     * Takes the user's ledger lock until the caller's transaction ends, for
+     * callers that append their ledger entry inside a larger statement of
+     * their own.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(Long userId) {
+        ledgerRepository.lockUser(userId);
+    }
+
+    /** {@link #lock} for several users at once, in one statement and without deadlocking other callers. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockAll(long[] userIds) {
+        ledgerRepository.lockUsers(userIds);
+    }
+
+    public long balanceOf(Long userId) {
+        return ledgerRepository.balancesOf(List.of(userId)).getOrDefault(userId, 0L);
+    }
+
+    /** Sets the balance shown on {@code user}. */
+    public void fill(User user) {
+        user.setBalanceCents(balanceOf(user.getId()));
+    }
+
+    /** Sets the balance shown on each of {@code users}, in one query. */
+    public void fill(Collection<User> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        for (User user : users) {
+            ids.add(user.getId());
+        }
+        Map<Long, Long> balances = ledgerRepository.balancesOf(ids);
+        for (User user : users) {
+            user.setBalanceCents(balances.getOrDefault(user.getId(), 0L));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${balance-ledger.compaction-interval-ms:60000}", fixedDelayString = "${balance-ledger.compaction-interval-ms:60000}")
+    public void scheduledCompaction() {
+        compact();
+    }
+
+    /**
+     * Rewrites the snapshots of every user whose tail has reached the
+     * threshold, one batch per transaction. Returns the number of snapshots
+     * written.
+     */
+    public int compact() {
+        int written = 0;
+        while (true) {
+            List<Long> batch = ledgerRepository.findUsersToCompact(compactionThreshold, compactionBatch);
+            if (batch.isEmpty()) {
+                return written;
+            }
+            long[] userIds = batch.stream().mapToLong(Long::longValue).toArray();
+            Integer count = transactionTemplate.execute(status -> ledgerRepository.compact(userIds));
+            written += count == null ? 0 : count;
+            if (batch.size() < compactionBatch) {
+                return written;
+            }
+        }
+    }
+}
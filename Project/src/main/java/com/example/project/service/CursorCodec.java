@@ -0,0 +1,65 @@
+package com.example.project.service;
+
+import com.example.project.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions into opaque, URL-safe continuation tokens.
+ * A token carries the sort key it was issued for, so a cursor from one
+ * listing cannot be replayed against another ordering.
+ */
+final class CursorCodec {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '\u001F';
+
+    private CursorCodec() {
+    }
+
+    static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requested < 1) {
+            throw new BadRequestException("Page size must be positive.");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    static String encode(String kind, String... values) {
+        StringBuilder raw = new StringBuilder(kind);
+        for (String value : values) {
+            raw.append(SEPARATOR).append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decode(String cursor, String kind, int valueCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != valueCount + 1 || !parts[0].equals(kind)) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+        String[] values = new String[valueCount];
+        System.arraycopy(parts, 1, values, 0, valueCount);
+        return values;
+    }
+
+    static long decodeLong(String cursor, String kind) {
+        try {
+            return Long.parseLong(decode(cursor, kind, 1)[0]);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.project.service;
+
+import com.example.project.exception.NotFoundException;
+import com.example.project.model.ExportFormat;
+import com.example.project.model.GameExportDTO;
+import com.example.project.model.GameExportRowDTO;
+import com.example.project.model.PurchaseExportDTO;
+import com.example.project.repository.GameRepository;
+import com.example.project.repository.PurchaseRepository;
+import com.example.project.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the catalog and the purchase history as NDJSON or CSV while reading
+ * them, so heap use does not grow with the number of rows.
+ * <p>
+ * Rows come from {@link Stream} queries with a JDBC fetch size, consumed
+ * inside a read-only transaction (outside one, the PostgreSQL driver ignores
+ * the fetch size and buffers the whole result). The queries select DTO
+ * projections rather than entities, so nothing accumulates in the
+ * persistence context and there is nothing to detach.
+ */
+@Service
+public class ExportService {
+
+    private static final ObjectMapper ROW_WRITER = JsonMapper.builder().build();
+
+    private final GameRepository gameRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(GameRepository gameRepository,
+            PurchaseRepository purchaseRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager) {
+        this.gameRepository = gameRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Checks the export's arguments before any byte is written, so problems
+     * still surface as a proper error status.
+     */
+    public void checkPurchaseExport(Long userId) {
+        if (userId != null && !userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+    }
+
+    public void exportGames(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        inTransaction(() -> {
+            if (format == ExportFormat.CSV) {
+                writer.write("id,name,tags\n");
+            }
+            try (Stream<GameExportRowDTO> rows = gameRepository.streamExportRows()) {
+                Iterator<GameExportRowDTO> iterator = rows.iterator();
+                GameExportDTO current = null;
+                while (iterator.hasNext()) {
+                    GameExportRowDTO row = iterator.next();
+                    if (current == null || !current.getId().equals(row.getGameId())) {
+                        if (current != null) {
+                            writeGame(writer, format, current);
+                        }
+                        current = new GameExportDTO(row.getGameId(), row.getGameName(), new ArrayList<>());
+                    }
+                    if (row.getTagName() != null) {
+                        current.getTags().add(row.getTagName());
+                    }
+                }
+                if (current != null) {
+                    writeGame(writer, format, current);
+                }
+            }
+        });
+        writer.flush();
+    }
+
+    public void exportPurchases(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        inTransaction(() -> {
+            if (format == ExportFormat.CSV) {
+                writer.write("id,userId,username,gameId,gameName,priceCents,purchasedAt\n");
+            }
+            try (Stream<PurchaseExportDTO> rows = userId == null
+                    ? purchaseRepository.streamExport()
+                    : purchaseRepository.streamExportByUserId(userId)) {
+                Iterator<PurchaseExportDTO> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writePurchase(writer, format, iterator.next());
+                }
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeGame(Writer writer, ExportFormat format, GameExportDTO game) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writeJsonLine(writer, game);
+            return;
+        }
+        writer.write(String.valueOf(game.getId()));
+        writer.write(',');
+        writer.write(csv(game.getName()));
+        writer.write(',');
+        writer.write(csv(String.join("|", game.getTags())));
+        writer.write('\n');
+    }
+
+    private void writePurchase(Writer writer, ExportFormat format, PurchaseExportDTO purchase) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writeJsonLine(writer, purchase);
+            return;
+        }
+        writer.write(String.valueOf(purchase.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getUserId()));
+        writer.write(',');
+        writer.write(csv(purchase.getUsername()));
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getGameId()));
+        writer.write(',');
+        writer.write(csv(purchase.getGameName()));
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getPriceCents()));
+        writer.write(',');
+        writer.write(purchase.getPurchasedAt() == null ? "" : purchase.getPurchasedAt().toString());
+        writer.write('\n');
+    }
+
+    private static void writeJsonLine(Writer writer, Object value) throws IOException {
+        writer.write(ROW_WRITER.writeValueAsString(value));
+        writer.write('\n');
+    }
+
+    /** RFC 4180 quoting: only when needed, with embedded quotes doubled. */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private void inTransaction(IoAction action) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    action.run();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.project.service;
+
+import com.example.project.model.Game;
+import com.example.project.model.Review;
+import com.example.project.model.User;
+import com.example.project.model.Wishlist;
+import org.hibernate.Hibernate;
+
+import java.util.Collection;
+
+/**
+ * Initializes everything the JSON view of an entity touches while its
+ * persistence context is still open. Open-in-view is disabled, so anything
+ * left lazy here would fail during serialization. Root associations come from
+ * entity graphs on the repositories; the nested collections touched here are
+ * loaded in batches ({@code hibernate.default_batch_fetch_size}), so the
+ * number of statements per request does not grow with the number of rows.
+ */
+final class FetchPlans {
+
+    private FetchPlans() {
+    }
+
+    static <C extends Collection<Game>> C games(C games) {
+        for (Game game : games) {
+            Hibernate.initialize(game.getTags());
+        }
+        return games;
+    }
+
+    static Game game(Game game) {
+        Hibernate.initialize(game.getTags());
+        return game;
+    }
+
+    static User user(User user) {
+        games(user.getOwnedGames());
+        if (user.getWishlist() != null) {
+            wishlist(user.getWishlist());
+        }
+        return user;
+    }
+
+    static <C extends Collection<User>> C users(C users) {
+        for (User user : users) {
+            user(user);
+        }
+        return users;
+    }
+
+    static Wishlist wishlist(Wishlist wishlist) {
+        games(wishlist.getGames());
+        return wishlist;
+    }
+
+    static Review review(Review review) {
+        if (review.getGame() != null) {
+            game(review.getGame());
+        }
+        return review;
+    }
+
+    static <C extends Collection<Review>> C reviews(C reviews) {
+        for (Review review : reviews) {
+            review(review);
+        }
+        return reviews;
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.project.service;
+
+import com.example.project.cache.GameRecordCache;
+import com.example.project.index.AutocompleteIndex;
+import com.example.project.index.GameNameIndex;
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.TagDictionary;
+import com.example.project.index.UniqueNameFilters;
+import com.example.project.model.GameImportLineDTO;
+import com.example.project.model.GameTag;
+import com.example.project.model.ImportErrorDTO;
+import com.example.project.model.ImportReportDTO;
+import com.example.project.repository.GameJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports games from newline-delimited JSON, one
+ * {@code {"name": "...", "tags": ["..."]}} object per line.
+ * <p>
+ * The body is read as a stream and applied in chunks of
+ * {@code game-import.chunk-size} lines, each in its own transaction and with a
+ * fixed number of set-based statements (see {@link GameJdbcRepository}), so
+ * memory stays bounded and nothing passes through the persistence context.
+ * Games are matched by exact name: new ones are created, existing ones keep
+ * their tags and gain the listed ones. Tags are matched case-insensitively and
+ * created when unknown. Invalid lines are reported and skipped; a failing
+ * chunk does not undo the chunks committed before it.
+ */
+@Service
+public class GameImportService {
+
+    static final int MAX_NAME_LENGTH = 255;
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final ObjectMapper LINE_READER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final GameJdbcRepository gameJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TagDictionary tagDictionary;
+    private final GameNameIndex gameNameIndex;
+    private final TagBitmapIndex tagBitmapIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final GameRecordCache gameRecordCache;
+    private final UniqueNameFilters uniqueNameFilters;
+    private final int chunkSize;
+
+    public GameImportService(GameJdbcRepository gameJdbcRepository,
+            PlatformTransactionManager transactionManager,
+            TagDictionary tagDictionary,
+            GameNameIndex gameNameIndex,
+            TagBitmapIndex tagBitmapIndex,
+            AutocompleteIndex autocompleteIndex,
+            GameRecordCache gameRecordCache,
+            UniqueNameFilters uniqueNameFilters,
+            @Value("${game-import.chunk-size:1000}") int chunkSize) {
+        this.gameJdbcRepository = gameJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tagDictionary = tagDictionary;
+        this.gameNameIndex = gameNameIndex;
+        this.tagBitmapIndex = tagBitmapIndex;
+        this.autocompleteIndex = autocompleteIndex;
+        this.gameRecordCache = gameRecordCache;
+        this.uniqueNameFilters = uniqueNameFilters;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportReportDTO importGames(InputStream body) {
+        ImportReportDTO report = new ImportReportDTO();
+        Chunk chunk = new Chunk();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.setLinesRead(report.getLinesRead() + 1);
+
+                GameImportLineDTO parsed = parse(line, lineNumber, report);
+                if (parsed != null) {
+                    chunk.add(lineNumber, parsed);
+                }
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, report);
+                    chunk = new Chunk();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        flush(chunk, report);
+        return report;
+    }
+
+    private GameImportLineDTO parse(String line, long lineNumber, ImportReportDTO report) {
+        GameImportLineDTO parsed;
+        try {
+            parsed = LINE_READER.readValue(line, GameImportLineDTO.class);
+        } catch (JacksonException ex) {
+            addError(report, lineNumber, "Malformed JSON.");
+            return null;
+        }
+        if (parsed == null || parsed.getName() == null || parsed.getName().isBlank()) {
+            addError(report, lineNumber, "Name is required.");
+            return null;
+        }
+        parsed.setName(parsed.getName().trim());
+        if (parsed.getName().length() > MAX_NAME_LENGTH) {
+            addError(report, lineNumber, "Name is longer than " + MAX_NAME_LENGTH + " characters.");
+            return null;
+        }
+
+        List<String> tags = new ArrayList<>();
+        if (parsed.getTags() != null) {
+            for (String tag : parsed.getTags()) {
+                if (tag == null || tag.isBlank()) {
+                    continue;
+                }
+                if (tag.trim().length() > MAX_NAME_LENGTH) {
+                    addError(report, lineNumber, "Tag name is longer than " + MAX_NAME_LENGTH + " characters.");
+                    return null;
+                }
+                tags.add(tag.trim());
+            }
+        }
+        parsed.setTags(tags);
+        return parsed;
+    }
+
+    private void flush(Chunk chunk, ImportReportDTO report) {
+        if (chunk.size() == 0) {
+            return;
+        }
+        Applied applied;
+        try {
+            applied = transactionTemplate.execute(status -> apply(chunk));
+        } catch (RuntimeException ex) {
+            for (long lineNumber : chunk.lineNumbers) {
+                addError(report, lineNumber, "Not imported: the batch containing this line failed.");
+            }
+            return;
+        }
+        if (applied == null) {
+            return;
+        }
+
+        report.setGamesCreated(report.getGamesCreated() + applied.createdGames.size());
+        report.setGamesMatched(report.getGamesMatched() + chunk.tagsByGame.size() - applied.createdGames.size());
+        report.setTagsCreated(report.getTagsCreated() + applied.createdTags.size());
+        report.setTagLinksAdded(report.getTagLinksAdded() + applied.linksAdded);
+
+        // Indexes and caches are only told once the chunk has committed.
+        for (Map.Entry<String, Long> tag : applied.createdTags.entrySet()) {
+            GameTag created = new GameTag(tag.getKey());
+            created.setId(tag.getValue());
+            tagDictionary.put(created);
+            tagBitmapIndex.putTag(tag.getValue(), tag.getKey());
+            autocompleteIndex.putTag(tag.getValue(), tag.getKey());
+        }
+        for (Map.Entry<String, Long> game : applied.createdGames.entrySet()) {
+            gameNameIndex.put(game.getValue(), game.getKey());
+            uniqueNameFilters.gameNames().put(game.getKey());
+            tagBitmapIndex.addGame(game.getValue());
+            autocompleteIndex.putGame(game.getValue(), game.getKey());
+        }
+        for (int i = 0; i < applied.linkGameIds.length; i++) {
+            tagBitmapIndex.tag(applied.linkGameIds[i], applied.linkTagIds[i]);
+        }
+        for (Map.Entry<String, Long> game : applied.gameIds.entrySet()) {
+            if (!applied.createdGames.containsKey(game.getKey())) {
+                gameRecordCache.invalidate(game.getValue());
+            }
+        }
+    }
+
+    private Applied apply(Chunk chunk) {
+        // Resolve tags: known ones come from the dictionary, the rest are
+        // created (or picked up if another writer created them meanwhile).
+        Map<String, Long> tagIds = new HashMap<>();
+        Map<String, String> unknownTags = new LinkedHashMap<>();
+        for (Map.Entry<String, String> tag : chunk.tagSpellings.entrySet()) {
+            tagDictionary.idForName(tag.getKey()).ifPresentOrElse(
+                    id -> tagIds.put(tag.getKey(), id),
+                    () -> unknownTags.put(tag.getKey(), tag.getValue()));
+        }
+        Map<String, Long> createdTags = gameJdbcRepository.insertTags(unknownTags.values());
+        Map<String, Long> resolvedTags = new HashMap<>(createdTags);
+        if (createdTags.size() < unknownTags.size()) {
+            resolvedTags.putAll(gameJdbcRepository.findTagIds(unknownTags.values()));
+        }
+        for (Map.Entry<String, String> tag : unknownTags.entrySet()) {
+            Long id = resolvedTags.get(tag.getValue());
+            if (id != null) {
+                tagIds.put(tag.getKey(), id);
+            }
+        }
+
+        Map<String, Long> createdGames = gameJdbcRepository.insertGames(chunk.tagsByGame.keySet());
+        Map<String, Long> gameIds = new HashMap<>(createdGames);
+        if (createdGames.size() < chunk.tagsByGame.size()) {
+            gameIds.putAll(gameJdbcRepository.findGameIds(chunk.tagsByGame.keySet()));
+        }
+
+        int links = 0;
+        for (Set<String> tags : chunk.tagsByGame.values()) {
+            links += tags.size();
+        }
+        long[] linkGameIds = new long[links];
+        long[] linkTagIds = new long[links];
+        int n = 0;
+        for (Map.Entry<String, Set<String>> game : chunk.tagsByGame.entrySet()) {
+            Long gameId = gameIds.get(game.getKey());
+            for (String tag : game.getValue()) {
+                Long tagId = tagIds.get(tag);
+                if (gameId != null && tagId != null) {
+                    linkGameIds[n] = gameId;
+                    linkTagIds[n] = tagId;
+                    n++;
+                }
+            }
+        }
+        linkGameIds = Arrays.copyOf(linkGameIds, n);
+        linkTagIds = Arrays.copyOf(linkTagIds, n);
+        int linksAdded = gameJdbcRepository.insertTagLinks(linkGameIds, linkTagIds);
+
+        return new Applied(createdGames, gameIds, createdTags, linkGameIds, linkTagIds, linksAdded);
+    }
+
+    private static void addError(ImportReportDTO report, long lineNumber, String message) {
+        report.setErrorCount(report.getErrorCount() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportErrorDTO(lineNumber, message));
+        }
+    }
+
+    /**
+     * Valid lines awaiting a flush. Repeated game names merge their tags; tags
+     * are keyed by lower-case name, and the first spelling seen is the one a
+     * new tag is created with.
+     */
+    private static final class Chunk {
+
+        final Map<String, Set<String>> tagsByGame = new LinkedHashMap<>();
+        final Map<String, String> tagSpellings = new LinkedHashMap<>();
+        final List<Long> lineNumbers = new ArrayList<>();
+
+        void add(long lineNumber, GameImportLineDTO line) {
+            lineNumbers.add(lineNumber);
+            Set<String> tags = tagsByGame.computeIfAbsent(line.getName(), name -> new LinkedHashSet<>());
+            for (String tag : line.getTags()) {
+                String key = tag.toLowerCase(Locale.ROOT);
+                tagSpellings.putIfAbsent(key, tag);
+                tags.add(key);
+            }
+        }
+
+        int size() {
+            return lineNumbers.size();
+        }
+    }
+
+    private static final class Applied {
+
+        final Map<String, Long> createdGames;
+        final Map<String, Long> gameIds;
+        final Map<String, Long> createdTags;
+        final long[] linkGameIds;
+        final long[] linkTagIds;
+        final int linksAdded;
+
+        Applied(Map<String, Long> createdGames, Map<String, Long> gameIds, Map<String, Long> createdTags,
+                long[] linkGameIds, long[] linkTagIds, int linksAdded) {
+            this.createdGames = createdGames;
+            this.gameIds = gameIds;
+            this.createdTags = createdTags;
+            this.linkGameIds = linkGameIds;
+            this.linkTagIds = linkTagIds;
+            this.linksAdded = linksAdded;
+        }
+    }
+}
@@ -1,53 +1,208 @@
 package com.example.project.service;
 
+import com.example.project.cache.GameRecordCache;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
+import com.example.project.exception.BadRequestException;
+import com.example.project.model.BulkTagRequestDTO;
+import com.example.project.model.BulkTagResultDTO;
+import com.example.project.model.CursorPageDTO;
 import com.example.project.model.Game;
-import com.example.project.model.GameTag;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.model.GameTagLinkDTO;
+import com.example.project.model.SuggestionDTO;
+import com.example.project.index.AutocompleteIndex;
+import com.example.project.index.GameNameIndex;
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.TagDictionary;
+import com.example.project.index.UniqueNameFilters;
+import com.example.project.index.TagQuery;
+import com.example.project.index.TagQueryResult;
+import com.example.project.repository.GameJdbcRepository;
 import com.example.project.repository.GameRepository;
 import com.example.project.repository.GameTagRepository;
 import com.example.project.repository.PurchaseRepository;
 import com.example.project.repository.ReviewRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class GameService {
 
+    static final int MAX_BULK_TAG_PAIRS = 100_000;
+
     private final GameRepository gameRepository;
     private final GameTagRepository gameTagRepository;
     private final PurchaseRepository purchaseRepository;
     private final ReviewRepository reviewRepository;
+    private final GameNameIndex gameNameIndex;
+    private final TagBitmapIndex tagBitmapIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final GameRecordCache gameRecordCache;
+    private final TagDictionary tagDictionary;
+    private final GameJdbcRepository gameJdbcRepository;
+    private final UniqueNameFilters uniqueNameFilters;
 
     public GameService(GameRepository gameRepository,
             GameTagRepository gameTagRepository,
             PurchaseRepository purchaseRepository,
-            ReviewRepository reviewRepository) {
+            ReviewRepository reviewRepository,
+            GameNameIndex gameNameIndex,
+            TagBitmapIndex tagBitmapIndex,
+            AutocompleteIndex autocompleteIndex,
+            GameRecordCache gameRecordCache,
+            TagDictionary tagDictionary,
+            GameJdbcRepository gameJdbcRepository,
+            UniqueNameFilters uniqueNameFilters) {
         this.gameRepository = gameRepository;
         this.gameTagRepository = gameTagRepository;
         this.purchaseRepository = purchaseRepository;
         this.reviewRepository = reviewRepository;
+        this.gameNameIndex = gameNameIndex;
+        this.tagBitmapIndex = tagBitmapIndex;
+        this.autocompleteIndex = autocompleteIndex;
+        this.gameRecordCache = gameRecordCache;
+        this.tagDictionary = tagDictionary;
+        this.gameJdbcRepository = gameJdbcRepository;
+        this.uniqueNameFilters = uniqueNameFilters;
     }
 
     public Game create(Game game) {
-        if (game.getName() != null && gameRepository.findByName(game.getName()).isPresent()) {
+        // Most names are new; the filter skips the lookup for those and the
+        // unique constraint catches whatever it lets through.
+        if (game.getName() != null && uniqueNameFilters.gameNames()
+                .isTaken(game.getName(), name -> gameRepository.findByName(name).isPresent())) {
+            throw new ConflictException("Game with this name already exists.");
+        }
+        Game saved;
+        try {
+            saved = gameRepository.save(game);
+        } catch (DataIntegrityViolationException ex) {
             throw new ConflictException("Game with this name already exists.");
         }
-        return gameRepository.save(game);
+        uniqueNameFilters.gameNames().put(saved.getName());
+        gameNameIndex.put(saved.getId(), saved.getName());
+        tagBitmapIndex.addGame(saved.getId());
+        autocompleteIndex.putGame(saved.getId(), saved.getName());
+        return saved;
     }
 
-    public List<Game> getAll() {
-        return gameRepository.findAll();
+    /**
+     * Returns one page of the catalog using keyset pagination, so the cost of a
+     * page does not depend on how deep into the catalog the cursor points.
+     */
+    public CursorPageDTO<Game> getPage(String cursor, Integer size, String sort, boolean facets) {
+        int pageSize = CursorCodec.pageSize(size);
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<Long> ids;
+        if (sort == null || sort.equalsIgnoreCase("id")) {
+            long afterId = cursor == null ? Long.MIN_VALUE : CursorCodec.decodeLong(cursor, "id");
+            ids = gameRepository.findIdsAfterId(afterId, window);
+        } else if (sort.equalsIgnoreCase("name")) {
+            String afterName = cursor == null ? "" : CursorCodec.decode(cursor, "name", 1)[0];
+            ids = gameRepository.findIdsAfterName(afterName, window);
+        } else {
+            throw new BadRequestException("Unsupported sort: " + sort);
+        }
+
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        List<Game> items = findInOrder(ids);
+
+        String nextCursor = null;
+        if (hasMore && !items.isEmpty()) {
+            Game last = items.get(items.size() - 1);
+            nextCursor = sort != null && sort.equalsIgnoreCase("name")
+                    ? CursorCodec.encode("name", last.getName())
+                    : CursorCodec.encode("id", String.valueOf(last.getId()));
+        }
+        CursorPageDTO<Game> page = new CursorPageDTO<>(items, nextCursor);
+        if (facets) {
+            page.setFacets(tagBitmapIndex.facets(null));
+        }
+        return page;
     }
 
+    /**
+     * Evaluates a boolean tag expression such as {@code rpg AND NOT survival}
+     * against the in-memory tag bitmaps and returns one page of matching games
+     * in index order: ascending id, except that games created since the last
+     * index rebuild may follow in creation order. When {@code facets} is set
+     * the page also carries per-tag counts over the full result set.
+     */
+    public CursorPageDTO<Game> searchByTagQuery(String query, String cursor, Integer size, boolean facets) {
+        int pageSize = CursorCodec.pageSize(size);
+        TagQuery parsed;
+        try {
+            parsed = TagQuery.parse(query);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+        Long afterId = cursor == null ? null : CursorCodec.decodeLong(cursor, "tags");
+
+        List<Long> ids;
+        Map<String, Integer> facetCounts = null;
+        if (facets) {
+            // One evaluation of the query serves both the page and the counts.
+            TagQueryResult result = tagBitmapIndex.queryWithFacets(parsed, afterId, pageSize + 1);
+            ids = result.getGameIds();
+            facetCounts = result.getFacets();
+        } else {
+            ids = tagBitmapIndex.query(parsed, afterId, pageSize + 1);
+        }
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        List<Game> items = findInOrder(ids);
+        String nextCursor = hasMore ? CursorCodec.encode("tags", String.valueOf(ids.get(ids.size() - 1))) : null;
+        CursorPageDTO<Game> page = new CursorPageDTO<>(items, nextCursor);
+        if (facets) {
+            page.setFacets(facetCounts);
+        }
+        return page;
+    }
+
+    @Transactional(readOnly = true)
     public Game getById(Long id) {
-        return gameRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Game not found."));
+        return FetchPlans.game(findGame(id));
+    }
+
+    /**
+     * Ranked name search served from the in-memory trigram index; the
+     * database is not queried.
+     */
+    public List<GameSummaryDTO> searchByName(String name, Integer limit) {
+        return gameNameIndex.search(name, CursorCodec.pageSize(limit));
+    }
+
+    public List<GameSummaryDTO> fuzzySearchByName(String name, Integer maxDistance, Integer limit) {
+        int pageSize = CursorCodec.pageSize(limit);
+        try {
+            return gameNameIndex.fuzzySearch(name, maxDistance, pageSize);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
     }
 
-    public List<Game> searchByName(String name) {
-        return gameRepository.findByNameContainingIgnoreCase(name);
+    public List<SuggestionDTO> autocomplete(String prefix, Integer limit) {
+        return autocompleteIndex.suggestGames(prefix, CursorCodec.pageSize(limit));
     }
 
     public List<Game> searchByTags(List<String> tags) {
@@ -55,17 +210,32 @@ public class GameService {
             return List.of();
         }
 
-        List<String> normalized = tags.stream()
-                .filter(t -> t != null && !t.isBlank())
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .toList();
-
-        if (normalized.isEmpty()) {
+        // Names are resolved to ids in memory, so the query filters on the
+        // join table's key instead of LOWER(name).
+        Set<Long> tagIds = tagDictionary.idsForNames(tags);
+        if (tagIds.isEmpty()) {
             return List.of();
         }
 
-        return gameRepository.findByAnyTagNames(normalized);
+        return gameRepository.findByAnyTagIds(tagIds);
+    }
+
+    /**
+     * {@link #searchByTags} with per-tag counts: the any-of query is evaluated
+     * once against the in-memory tag bitmaps, and both the games, in index
+     * order, and the counts over them come from that result. Every match is
+     * returned on one page, as in the plain search.
+     */
+    public CursorPageDTO<Game> searchByTagsWithFacets(List<String> tags) {
+        if (tags == null || tags.stream().allMatch(tag -> tag == null || tag.isBlank())) {
+            CursorPageDTO<Game> empty = new CursorPageDTO<>(List.of(), null);
+            empty.setFacets(Map.of());
+            return empty;
+        }
+        TagQueryResult result = tagBitmapIndex.queryWithFacets(TagQuery.anyOf(tags), null, Integer.MAX_VALUE);
+        CursorPageDTO<Game> page = new CursorPageDTO<>(findInOrder(result.getGameIds()), null);
+        page.setFacets(result.getFacets());
+        return page;
     }
 
     public void delete(Long id) {
@@ -79,24 +249,158 @@ public class GameService {
             throw new ConflictException("Cannot delete game: it has reviews.");
         }
         gameRepository.deleteById(id);
+        gameRecordCache.invalidate(id);
+        gameNameIndex.remove(id);
+        tagBitmapIndex.removeGame(id);
+        autocompleteIndex.removeGame(id);
     }
 
+    /**
+     * Links the game to the tag by writing the {@code game_tags} row directly.
+     * {@link Game#addTag} would initialize {@code GameTag.games}, i.e. load
+     * every game carrying the tag. The game's own tags are still lazy when
+     * the row is written, so the returned game includes it. The tag index and
+     * the record cache are updated once the transaction has committed.
+     */
+    @Transactional
     public Game addTag(Long gameId, Long tagId) {
-        Game game = getById(gameId);
-        GameTag tag = gameTagRepository.findById(tagId).orElseThrow(() -> new NotFoundException("Tag not found."));
+        Game game = findGame(gameId);
+        if (!gameTagRepository.existsById(tagId)) {
+            throw new NotFoundException("Tag not found.");
+        }
 
-        game.addTag(tag);
-        gameRepository.save(game);
-        return game;
+        if (gameJdbcRepository.insertTagLink(gameId, tagId)) {
+            AfterCommit.run(() -> {
+                tagBitmapIndex.tag(gameId, tagId);
+                gameRecordCache.invalidate(gameId);
+            });
+        }
+        return FetchPlans.game(game);
     }
 
+    /** Unlinks the game from the tag; see {@link #addTag}. */
+    @Transactional
     public Game removeTag(Long gameId, Long tagId) {
-        Game game = getById(gameId);
-        GameTag tag = gameTagRepository.findById(tagId)
-                .orElseThrow(() -> new NotFoundException("Tag not found."));
+        Game game = findGame(gameId);
+        if (!gameTagRepository.existsById(tagId)) {
+            throw new NotFoundException("Tag not found.");
+        }
+
+        if (gameJdbcRepository.deleteTagLink(gameId, tagId)) {
+            AfterCommit.run(() -> {
+                tagBitmapIndex.untag(gameId, tagId);
+                gameRecordCache.invalidate(gameId);
+            });
+        }
+        return FetchPlans.game(game);
+    }
+
+    /**
+     * Adds or removes many tag links in one transaction with a single
+     * set-based statement on {@code game_tags}; no game or tag is loaded.
+     * Pairs naming a game or tag that does not exist are skipped, as are links
+     * already in the requested state. The changed links reach the tag index
+     * and the record cache once the transaction has committed.
+     */
+    @Transactional
+    public BulkTagResultDTO bulkUpdateTags(BulkTagRequestDTO request) {
+        boolean add;
+        if ("add".equalsIgnoreCase(request.getAction())) {
+            add = true;
+        } else if ("remove".equalsIgnoreCase(request.getAction())) {
+            add = false;
+        } else {
+            throw new BadRequestException("Action must be 'add' or 'remove'.");
+        }
+
+        Set<Map.Entry<Long, Long>> pairs = bulkTagPairs(request);
+        long[] gameIds = new long[pairs.size()];
+        long[] tagIds = new long[pairs.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> pair : pairs) {
+            gameIds[i] = pair.getKey();
+            tagIds[i] = pair.getValue();
+            i++;
+        }
+
+        List<GameTagLinkDTO> changed = add
+                ? gameJdbcRepository.linkExisting(gameIds, tagIds)
+                : gameJdbcRepository.unlink(gameIds, tagIds);
+
+        AfterCommit.run(() -> {
+            Set<Long> touchedGames = new HashSet<>();
+            for (GameTagLinkDTO link : changed) {
+                if (add) {
+                    tagBitmapIndex.tag(link.getGameId(), link.getTagId());
+                } else {
+                    tagBitmapIndex.untag(link.getGameId(), link.getTagId());
+                }
+                touchedGames.add(link.getGameId());
+            }
+            for (Long gameId : touchedGames) {
+                gameRecordCache.invalidate(gameId);
+            }
+        });
+        return new BulkTagResultDTO(pairs.size(), changed.size());
+    }
+
+    private Set<Map.Entry<Long, Long>> bulkTagPairs(BulkTagRequestDTO request) {
+        boolean hasPairs = request.getPairs() != null && !request.getPairs().isEmpty();
+        boolean hasQuery = request.getQuery() != null && !request.getQuery().isBlank();
+        if (hasPairs == hasQuery) {
+            throw new BadRequestException("Provide either pairs or a tagId with a query.");
+        }
+
+        Set<Map.Entry<Long, Long>> pairs = new LinkedHashSet<>();
+        if (hasPairs) {
+            if (request.getPairs().size() > MAX_BULK_TAG_PAIRS) {
+                throw new BadRequestException("At most " + MAX_BULK_TAG_PAIRS + " pairs per request.");
+            }
+            for (GameTagLinkDTO pair : request.getPairs()) {
+                pairs.add(Map.entry(pair.getGameId(), pair.getTagId()));
+            }
+            return pairs;
+        }
+
+        if (request.getTagId() == null) {
+            throw new BadRequestException("tagId is required with a query.");
+        }
+        if (tagDictionary.getById(request.getTagId()).isEmpty()) {
+            throw new NotFoundException("Tag not found.");
+        }
+        TagQuery parsed;
+        try {
+            parsed = TagQuery.parse(request.getQuery());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+        List<Long> gameIds = tagBitmapIndex.query(parsed, null, MAX_BULK_TAG_PAIRS + 1);
+        if (gameIds.size() > MAX_BULK_TAG_PAIRS) {
+            throw new BadRequestException("Query matches more than " + MAX_BULK_TAG_PAIRS + " games.");
+        }
+        for (Long gameId : gameIds) {
+            pairs.add(Map.entry(gameId, request.getTagId()));
+        }
+        return pairs;
+    }
+
+    private List<Game> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Game> byId = gameRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+        List<Game> games = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Game game = byId.get(id);
+            if (game != null) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
 
-        game.removeTag(tag);
-        gameRepository.save(game);
-        return game;
+    private Game findGame(Long id) {
+        return gameRepository.findById(id).orElseThrow(() -> new NotFoundException("Game not found."));
     }
 }
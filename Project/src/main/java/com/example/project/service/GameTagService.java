@@ -1,9 +1,15 @@
 package com.example.project.service;
 
+import com.example.project.cache.GameRecordCache;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
+import com.example.project.index.AutocompleteIndex;
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.TagDictionary;
 import com.example.project.model.GameTag;
+import com.example.project.model.SuggestionDTO;
 import com.example.project.repository.GameTagRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,24 +18,50 @@ import java.util.List;
 public class GameTagService {
 
     private final GameTagRepository gameTagRepository;
+    private final TagBitmapIndex tagBitmapIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final GameRecordCache gameRecordCache;
+    private final TagDictionary tagDictionary;
 
-    public GameTagService(GameTagRepository gameTagRepository) {
+    public GameTagService(GameTagRepository gameTagRepository, TagBitmapIndex tagBitmapIndex,
+            AutocompleteIndex autocompleteIndex, GameRecordCache gameRecordCache,
+            TagDictionary tagDictionary) {
         this.gameTagRepository = gameTagRepository;
+        this.tagBitmapIndex = tagBitmapIndex;
+        this.autocompleteIndex = autocompleteIndex;
+        this.gameRecordCache = gameRecordCache;
+        this.tagDictionary = tagDictionary;
     }
 
+    /**
+     * Tag names are unique regardless of case. The dictionary answers most
+     * duplicates from memory; a miss is confirmed in the table, since the
+     * dictionary may not have seen a tag created elsewhere yet, and the unique
+     * index on {@code lower(btrim(name))} catches creates that race.
+     */
     public GameTag create(GameTag tag) {
-        if (tag.getName() != null && gameTagRepository.findByNameIgnoreCase(tag.getName()).isPresent()) {
+        if (tag.getName() != null && (tagDictionary.containsName(tag.getName())
+                || gameTagRepository.findByNameIgnoreCase(tag.getName().trim()).isPresent())) {
             throw new ConflictException("Tag with this name already exists.");
         }
-        return gameTagRepository.save(tag);
+        GameTag saved;
+        try {
+            saved = gameTagRepository.save(tag);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConflictException("Tag with this name already exists.");
+        }
+        tagDictionary.put(saved);
+        tagBitmapIndex.putTag(saved.getId(), saved.getName());
+        autocompleteIndex.putTag(saved.getId(), saved.getName());
+        return saved;
     }
 
     public List<GameTag> getAll() {
-        return gameTagRepository.findAll();
+        return tagDictionary.getAll();
     }
 
     public GameTag getById(Long id) {
-        return gameTagRepository.findById(id)
+        return tagDictionary.getById(id)
                 .orElseThrow(() -> new NotFoundException("Tag not found."));
     }
 
@@ -38,5 +70,14 @@ public class GameTagService {
             throw new NotFoundException("Tag not found.");
         }
         gameTagRepository.deleteById(id);
+        tagDictionary.remove(id);
+        tagBitmapIndex.removeTag(id);
+        autocompleteIndex.removeTag(id);
+        // Cached records of every game that carried the tag are now stale.
+        gameRecordCache.invalidateAll();
+    }
+
+    public List<SuggestionDTO> autocomplete(String prefix, Integer limit) {
+        return autocompleteIndex.suggestTags(prefix, CursorCodec.pageSize(limit));
     }
 }
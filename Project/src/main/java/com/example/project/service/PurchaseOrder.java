@@ -0,0 +1,53 @@
+package com.example.project.service;
+
+import com.example.project.model.PurchaseReceiptDTO;
+
+/**
+ * One purchase of a {@link PurchaseService#createBatch} call: what to buy,
+ * and afterwards either the receipt or the exception that refused it.
+ */
+public class PurchaseOrder {
+
+    private final Long userId;
+    private final Long gameId;
+    private final Long priceCents;
+
+    private PurchaseReceiptDTO receipt;
+    private RuntimeException failure;
+
+    public PurchaseOrder(Long userId, Long gameId, Long priceCents) {
+        this.userId = userId;
+        this.gameId = gameId;
+        this.priceCents = priceCents;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public PurchaseReceiptDTO getReceipt() {
+        return receipt;
+    }
+
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    public void succeeded(PurchaseReceiptDTO receipt) {
+        this.receipt = receipt;
+        this.failure = null;
+    }
+
+    public void failed(RuntimeException failure) {
+        this.receipt = null;
+        this.failure = failure;
+    }
+}
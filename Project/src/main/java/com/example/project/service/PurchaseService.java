@@ -1,83 +1,234 @@
 package com.example.project.service;
 
+import com.example.project.cache.GameRecord;
+import com.example.project.cache.GameRecordCache;
+import com.example.project.exception.BadRequestException;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
-import com.example.project.model.Game;
-import com.example.project.model.Purchase;
-import com.example.project.model.User;
-import com.example.project.model.Wishlist;
-import com.example.project.repository.GameRepository;
+import com.example.project.model.CartGameStatusDTO;
+import com.example.project.model.CheckoutItemDTO;
+import com.example.project.model.CheckoutLineDTO;
+import com.example.project.model.CheckoutResultDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.LedgerReason;
+import com.example.project.model.PurchaseAttemptDTO;
+import com.example.project.model.PurchaseHistoryItemDTO;
+import com.example.project.model.PurchaseReceiptDTO;
+import com.example.project.repository.PurchaseJdbcRepository;
 import com.example.project.repository.PurchaseRepository;
 import com.example.project.repository.UserRepository;
-import com.example.project.repository.WishlistRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class PurchaseService {
 
+    static final int MAX_CHECKOUT_ITEMS = 100;
+
     private final PurchaseRepository purchaseRepository;
     private final UserRepository userRepository;
-    private final GameRepository gameRepository;
-    private final WishlistRepository wishlistRepository;
+    private final GameRecordCache gameRecordCache;
+    private final BalanceService balanceService;
+    private final PurchaseJdbcRepository purchaseJdbcRepository;
 
     public PurchaseService(PurchaseRepository purchaseRepository,
             UserRepository userRepository,
-            GameRepository gameRepository,
-            WishlistRepository wishlistRepository) {
+            GameRecordCache gameRecordCache,
+            BalanceService balanceService,
+            PurchaseJdbcRepository purchaseJdbcRepository) {
         this.purchaseRepository = purchaseRepository;
         this.userRepository = userRepository;
-        this.gameRepository = gameRepository;
-        this.wishlistRepository = wishlistRepository;
+        this.gameRecordCache = gameRecordCache;
+        this.balanceService = balanceService;
+        this.purchaseJdbcRepository = purchaseJdbcRepository;
     }
 
-    public Purchase create(Long userId, Long gameId, Long priceCents) {
-        if (priceCents == null || priceCents < 0) {
-            throw new ConflictException("Invalid priceCents");
+    /**
+     * Buys one game in two statements: the user's ledger lock, then one
+     * statement that checks the user and their balance, inserts the purchase,
+     * debits the ledger, grants ownership and prunes the wishlist. A repeat
+     * purchase is caught by the unique constraint on the purchase itself
+     * rather than by a query beforehand, and the game's name comes from the
+     * record cache.
+     */
+    @Transactional
+    public PurchaseReceiptDTO create(Long userId, Long gameId, Long priceCents) {
+        checkPrice(priceCents);
+        GameRecord game = findGame(gameId);
+
+        balanceService.lock(userId);
+        try {
+            return purchase(userId, game, priceCents);
+        } catch (DataIntegrityViolationException ex) {
+            // The game was deleted after it was cached.
+            throw new NotFoundException("Game not found");
         }
+    }
 
-        if (purchaseRepository.existsByUserIdAndGameId(userId, gameId)) {
-            throw new ConflictException("User already purchased this game");
+    /**
+     * Runs several purchases, for any number of users, in one transaction:
+     * one statement locks every buyer, then each purchase is the statement of
+     * {@link #create}, and all of them commit together. Each order ends up
+     * with its receipt, or with the exception {@code create} would have
+     * thrown; a refused order changes nothing and does not affect the others.
+     * If the transaction itself fails, for instance because a game was
+     * deleted after it was cached, nothing is kept and the exception is
+     * thrown.
+     */
+    @Transactional
+    public void createBatch(List<PurchaseOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
         }
+        balanceService.lockAll(orders.stream().mapToLong(PurchaseOrder::getUserId).toArray());
+        for (PurchaseOrder order : orders) {
+            try {
+                checkPrice(order.getPriceCents());
+                order.succeeded(purchase(order.getUserId(), findGame(order.getGameId()), order.getPriceCents()));
+            } catch (NotFoundException | ConflictException ex) {
+                order.failed(ex);
+            }
+        }
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    /**
+     * Buys every game of the cart in one transaction: one query checks that
+     * the games exist and none was bought before, one ledger entry debits the
+     * total, and one statement inserts the purchases, grants ownership and
+     * prunes the wishlist. Either all of the games are bought or none.
+     */
+    @Transactional
+    public CheckoutResultDTO checkout(Long userId, List<CheckoutItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("The cart is empty.");
+        }
+        if (items.size() > MAX_CHECKOUT_ITEMS) {
+            throw new BadRequestException("At most " + MAX_CHECKOUT_ITEMS + " games per checkout.");
+        }
 
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new NotFoundException("Game not found"));
+        long[] gameIds = new long[items.size()];
+        long[] prices = new long[items.size()];
+        Set<Long> seen = new HashSet<>();
+        long totalCents = 0;
+        for (int i = 0; i < items.size(); i++) {
+            CheckoutItemDTO item = items.get(i);
+            if (item.getGameId() == null || item.getPriceCents() == null || item.getPriceCents() < 0) {
+                throw new BadRequestException("Every item needs a gameId and a non-negative priceCents.");
+            }
+            if (!seen.add(item.getGameId())) {
+                throw new BadRequestException("Game " + item.getGameId() + " is in the cart twice.");
+            }
+            gameIds[i] = item.getGameId();
+            prices[i] = item.getPriceCents();
+            try {
+                totalCents = Math.addExact(totalCents, item.getPriceCents());
+            } catch (ArithmeticException ex) {
+                throw new BadRequestException("Cart total is too large");
+            }
+        }
 
-        try {
-            user.decreaseBalance(priceCents);
-        } catch (IllegalStateException ex) {
-            throw new ConflictException("Insufficient balance");
-        } catch (IllegalArgumentException ex) {
-            throw new ConflictException("Invalid priceCents");
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        for (CartGameStatusDTO game : purchaseJdbcRepository.findCartGames(userId, gameIds)) {
+            if (game.getName() == null) {
+                throw new NotFoundException("Game not found: " + game.getGameId());
+            }
+            if (game.isPurchased()) {
+                throw new ConflictException("User already purchased game " + game.getGameId());
+            }
         }
 
-        user.addOwnedGame(game);
+        if (!balanceService.debit(userId, totalCents, LedgerReason.PURCHASE)) {
+            throw new ConflictException("Insufficient balance");
+        }
+        List<CheckoutLineDTO> lines;
+        try {
+            lines = purchaseJdbcRepository.insertCheckout(userId, gameIds, prices);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent purchase of one of the games committed after the check.
+            throw new ConflictException("User already purchased one of these games");
+        }
+        return new CheckoutResultDTO(userId, totalCents, balanceService.balanceOf(userId), lines);
+    }
 
-        Wishlist wishlist = user.getWishlist();
-        if (wishlist != null) {
-            wishlist.removeGame(game);
-        } else if (wishlistRepository != null) {
-            wishlistRepository.findByUserId(userId).ifPresent(w -> w.removeGame(game));
+    /**
+     * One page of the user's purchases, newest first, optionally limited to
+     * those bought in {@code [from, to)}. Each page is one query on the
+     * {@code (user_id, purchased_at, id)} index; whether the user exists is
+     * only checked when the page comes back empty.
+     */
+    public CursorPageDTO<PurchaseHistoryItemDTO> getHistory(Long userId, Instant from, Instant to, String cursor,
+            Integer size) {
+        int pageSize = CursorCodec.pageSize(size);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("from must be before to.");
+        }
+        Instant afterPurchasedAt = null;
+        Long afterId = null;
+        if (cursor != null) {
+            String[] after = CursorCodec.decode(cursor, "purchase-history", 2);
+            try {
+                afterPurchasedAt = Instant.parse(after[0]);
+                afterId = Long.parseLong(after[1]);
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw new BadRequestException("Invalid cursor.");
+            }
         }
 
-        userRepository.save(user);
+        List<PurchaseHistoryItemDTO> items = purchaseJdbcRepository.findHistory(userId, from, to, afterPurchasedAt,
+                afterId, pageSize + 1);
+        if (items.isEmpty() && !userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            PurchaseHistoryItemDTO last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode("purchase-history", last.getPurchasedAt().toString(),
+                    String.valueOf(last.getPurchaseId()));
+        }
+        return new CursorPageDTO<>(items, nextCursor);
+    }
 
-        Purchase purchase = new Purchase();
-        purchase.setUser(user);
-        purchase.setGame(game);
-        purchase.setPriceCents(priceCents);
+    private static void checkPrice(Long priceCents) {
+        if (priceCents == null || priceCents < 0) {
+            throw new ConflictException("Invalid priceCents");
+        }
+    }
 
-        return purchaseRepository.save(purchase);
+    private GameRecord findGame(Long gameId) {
+        return gameRecordCache.get(gameId)
+                .orElseThrow(() -> new NotFoundException("Game not found"));
     }
 
-    public List<Purchase> getByUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
+    /** The purchase statement and what its result means. The caller holds the user's ledger lock. */
+    private PurchaseReceiptDTO purchase(Long userId, GameRecord game, Long priceCents) {
+        Long gameId = game.getId();
+        PurchaseAttemptDTO attempt = purchaseJdbcRepository.purchase(userId, gameId, priceCents);
+
+        if (!attempt.isUserFound()) {
             throw new NotFoundException("User not found");
         }
-        return purchaseRepository.findByUserId(userId);
+        if (attempt.getPurchaseId() == null) {
+            // Nothing was inserted: either a purchase already existed, or the
+            // balance did not cover the price.
+            if (attempt.isAlreadyPurchased() || attempt.getBalanceCents() >= priceCents) {
+                throw new ConflictException("User already purchased this game");
+            }
+            throw new ConflictException("Insufficient balance");
+        }
+        return new PurchaseReceiptDTO(attempt.getPurchaseId(), userId, gameId, game.getName(), priceCents,
+                attempt.getPurchasedAt(), attempt.getBalanceCents() - priceCents);
     }
 }
@@ -1,5 +1,6 @@
 package com.example.project.service;
 
+import com.example.project.cache.GameRecordCache;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
 import com.example.project.model.Game;
@@ -9,6 +10,7 @@ import com.example.project.repository.GameRepository;
 import com.example.project.repository.ReviewRepository;
 import com.example.project.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,21 +20,26 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final GameRecordCache gameRecordCache;
 
     public ReviewService(ReviewRepository reviewRepository, UserRepository userRepository,
-            GameRepository gameRepository) {
+            GameRepository gameRepository, GameRecordCache gameRecordCache) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.gameRepository = gameRepository;
+        this.gameRecordCache = gameRecordCache;
     }
 
+    @Transactional
     public Review create(Long userId, Long gameId, Integer rating, String comment) {
         if (reviewRepository.findByUserIdAndGameId(userId, gameId).isPresent()) {
             throw new ConflictException("Review already exists for this user/game.");
         }
 
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
-        Game game = gameRepository.findById(gameId).orElseThrow(() -> new NotFoundException("Game not found."));
+        Game game = gameRecordCache.get(gameId)
+                .map(record -> gameRepository.getReferenceById(record.getId()))
+                .orElseThrow(() -> new NotFoundException("Game not found."));
 
         Review review = new Review();
         review.setUser(user);
@@ -40,15 +47,16 @@ public class ReviewService {
         review.setRating(rating);
         review.setComment(comment);
 
-        return reviewRepository.save(review);
+        return FetchPlans.review(reviewRepository.save(review));
     }
 
     public List<Review> getAll() {
         return reviewRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Review getById(Long id) {
-        return reviewRepository.findById(id).orElseThrow(() -> new NotFoundException("Review not found."));
+        return FetchPlans.review(findReview(id));
     }
 
     public List<Review> getByGame(Long gameId) {
@@ -59,11 +67,12 @@ public class ReviewService {
         return reviewRepository.findByUserId(userId);
     }
 
+    @Transactional
     public Review update(Long id, Integer rating, String comment) {
-        Review review = getById(id);
+        Review review = findReview(id);
         review.setRating(rating);
         review.setComment(comment);
-        return reviewRepository.save(review);
+        return FetchPlans.review(reviewRepository.save(review));
     }
 
     public void delete(Long id) {
@@ -72,4 +81,8 @@ public class ReviewService {
         }
         reviewRepository.deleteById(id);
     }
+
+    private Review findReview(Long id) {
+        return reviewRepository.findById(id).orElseThrow(() -> new NotFoundException("Review not found."));
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.project.service;
+
+import com.example.project.cache.GameRecordCache;
+import com.example.project.idempotency.IdempotencyStore;
+import com.example.project.index.UniqueNameFilters;
+import com.example.project.model.CacheStatsDTO;
+import com.example.project.model.NameFilterStatsDTO;
+import com.example.project.model.PurchasePipelineStatsDTO;
+import com.example.project.model.WriteQueueStatsDTO;
+import com.example.project.queue.PurchasePipeline;
+import com.example.project.queue.UserWriteQueue;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class StatsService {
+
+    private final GameRecordCache gameRecordCache;
+    private final UserWriteQueue userWriteQueue;
+    private final UniqueNameFilters uniqueNameFilters;
+    private final IdempotencyStore idempotencyStore;
+    private final PurchasePipeline purchasePipeline;
+
+    public StatsService(GameRecordCache gameRecordCache, UserWriteQueue userWriteQueue,
+            UniqueNameFilters uniqueNameFilters, IdempotencyStore idempotencyStore,
+            PurchasePipeline purchasePipeline) {
+        this.gameRecordCache = gameRecordCache;
+        this.userWriteQueue = userWriteQueue;
+        this.uniqueNameFilters = uniqueNameFilters;
+        this.idempotencyStore = idempotencyStore;
+        this.purchasePipeline = purchasePipeline;
+    }
+
+    public CacheStatsDTO getGameCacheStats() {
+        return gameRecordCache.stats();
+    }
+
+    public WriteQueueStatsDTO getUserWriteQueueStats() {
+        return userWriteQueue.stats();
+    }
+
+    public List<NameFilterStatsDTO> getNameFilterStats() {
+        return uniqueNameFilters.stats();
+    }
+
+    public CacheStatsDTO getIdempotencyCacheStats() {
+        return idempotencyStore.stats();
+    }
+
+    public PurchasePipelineStatsDTO getPurchasePipelineStats() {
+        return purchasePipeline.stats();
+    }
+}
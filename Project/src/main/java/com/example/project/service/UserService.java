@@ -1,71 +1,229 @@
 package com.example.project.service;
 
+import com.example.project.cache.GameRecordCache;
+import com.example.project.exception.BadRequestException;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
+import com.example.project.index.UniqueNameFilters;
+import com.example.project.model.CursorPageDTO;
 import com.example.project.model.Game;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.model.LedgerReason;
 import com.example.project.model.User;
+import com.example.project.model.UserSummaryDTO;
 import com.example.project.repository.GameRepository;
+import com.example.project.repository.UserJdbcRepository;
 import com.example.project.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @Service
 public class UserService {
 
+    static final String EXPAND_OWNED_GAMES = "ownedGames";
+    static final String EXPAND_WISHLIST = "wishlist";
+
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final GameRecordCache gameRecordCache;
+    private final BalanceService balanceService;
+    private final UserJdbcRepository userJdbcRepository;
+    private final UniqueNameFilters uniqueNameFilters;
 
-    public UserService(UserRepository userRepository, GameRepository gameRepository) {
+    public UserService(UserRepository userRepository, GameRepository gameRepository,
+            GameRecordCache gameRecordCache, BalanceService balanceService,
+            UserJdbcRepository userJdbcRepository, UniqueNameFilters uniqueNameFilters) {
         this.userRepository = userRepository;
+        this.uniqueNameFilters = uniqueNameFilters;
+        this.userJdbcRepository = userJdbcRepository;
         this.gameRepository = gameRepository;
+        this.gameRecordCache = gameRecordCache;
+        this.balanceService = balanceService;
     }
 
+    @Transactional
     public User create(User user) {
-        if (user.getUsername() != null && userRepository.findByUsername(user.getUsername()).isPresent()) {
+        // During signup storms nearly every name is new; the filter skips the
+        // lookup for those and the unique constraint catches the rest.
+        if (user.getUsername() != null && uniqueNameFilters.usernames()
+                .isTaken(user.getUsername(), name -> userRepository.findByUsername(name).isPresent())) {
+            throw new ConflictException("Username already exists.");
+        }
+        long openingBalance = user.getBalanceCents() == null ? 0L : user.getBalanceCents();
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException ex) {
             throw new ConflictException("Username already exists.");
         }
-        return userRepository.save(user);
+        uniqueNameFilters.usernames().put(saved.getUsername());
+        if (openingBalance > 0) {
+            balanceService.credit(saved.getId(), openingBalance, LedgerReason.OPENING);
+        }
+        saved.setBalanceCents(openingBalance);
+        return saved;
     }
 
-    public List<User> getAll() {
-        return userRepository.findAll();
+    /**
+     * One page of users in id order as summaries: id, username, balance and
+     * owned-game count, read by a single aggregate query. {@code expand} may
+     * name {@code ownedGames} and/or {@code wishlist} to also attach those
+     * collections, loaded for the whole page at once.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserSummaryDTO> getPage(String cursor, Integer size, List<String> expand) {
+        int pageSize = CursorCodec.pageSize(size);
+        boolean expandOwnedGames = false;
+        boolean expandWishlist = false;
+        for (String field : expand == null ? List.<String>of() : expand) {
+            if (field.equalsIgnoreCase(EXPAND_OWNED_GAMES)) {
+                expandOwnedGames = true;
+            } else if (field.equalsIgnoreCase(EXPAND_WISHLIST)) {
+                expandWishlist = true;
+            } else if (!field.isBlank()) {
+                throw new BadRequestException("Unsupported expand: " + field);
+            }
+        }
+
+        long afterId = cursor == null ? Long.MIN_VALUE : CursorCodec.decodeLong(cursor, "user");
+        List<UserSummaryDTO> items = userJdbcRepository.findSummariesAfter(afterId, pageSize + 1);
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        if ((expandOwnedGames || expandWishlist) && !items.isEmpty()) {
+            List<Long> ids = items.stream().map(UserSummaryDTO::getId).toList();
+            Map<Long, User> users = new HashMap<>();
+            for (User user : FetchPlans.users(userRepository.findByIdIn(ids))) {
+                users.put(user.getId(), user);
+            }
+            for (UserSummaryDTO item : items) {
+                User user = users.get(item.getId());
+                if (user == null) {
+                    continue;
+                }
+                if (expandOwnedGames) {
+                    item.setOwnedGames(user.getOwnedGames());
+                }
+                if (expandWishlist) {
+                    item.setWishlist(user.getWishlist());
+                }
+            }
+        }
+
+        String nextCursor = hasMore
+                ? CursorCodec.encode("user", String.valueOf(items.get(items.size() - 1).getId()))
+                : null;
+        return new CursorPageDTO<>(items, nextCursor);
     }
 
+    @Transactional(readOnly = true)
     public User getById(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found."));
+        return withBalance(FetchPlans.user(findUser(id)));
     }
 
+    @Transactional(readOnly = true)
     public User getByUsername(String username) {
-        return userRepository.findByUsername(username).orElseThrow(() -> new NotFoundException("User not found."));
+        return withBalance(FetchPlans.user(userRepository.findByUsername(username)
+                .orElseThrow(() -> new NotFoundException("User not found."))));
     }
 
-    public Set<Game> getOwnedGames(Long userId) {
-        return getById(userId).getOwnedGames();
+    /**
+     * One page of the user's games as summaries, sorted by {@code id}
+     * (default) or {@code name}. Reads {@code user_games} directly; no
+     * {@link Game} entities are loaded.
+     */
+    public CursorPageDTO<GameSummaryDTO> getOwnedGames(Long userId, String cursor, Integer size, String sort) {
+        int pageSize = CursorCodec.pageSize(size);
+        boolean byName = sort != null && sort.equalsIgnoreCase("name");
+        if (!byName && sort != null && !sort.equalsIgnoreCase("id")) {
+            throw new BadRequestException("Unsupported sort: " + sort);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found.");
+        }
+
+        List<GameSummaryDTO> items;
+        if (byName) {
+            String[] after = cursor == null ? new String[] { "", String.valueOf(Long.MIN_VALUE) }
+                    : CursorCodec.decode(cursor, "owned-name", 2);
+            long afterId;
+            try {
+                afterId = Long.parseLong(after[1]);
+            } catch (NumberFormatException ex) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            items = userJdbcRepository.findOwnedGamesAfterName(userId, after[0], afterId, pageSize + 1);
+        } else {
+            long afterId = cursor == null ? Long.MIN_VALUE : CursorCodec.decodeLong(cursor, "owned-id");
+            items = userJdbcRepository.findOwnedGamesAfterId(userId, afterId, pageSize + 1);
+        }
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            GameSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = byName
+                    ? CursorCodec.encode("owned-name", last.getName(), String.valueOf(last.getId()))
+                    : CursorCodec.encode("owned-id", String.valueOf(last.getId()));
+        }
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    public boolean ownsGame(Long userId, Long gameId) {
+        return userJdbcRepository.ownsGame(userId, gameId);
     }
 
+    @Transactional
     public User addOwnedGame(Long userId, Long gameId) {
-        User user = getById(userId);
-        Game game = gameRepository.findById(gameId).orElseThrow(() -> new NotFoundException("Game not found."));
+        User user = findUser(userId);
+        if (gameRecordCache.get(gameId).isEmpty()) {
+            throw new NotFoundException("Game not found.");
+        }
 
-        user.addOwnedGame(game);
-        userRepository.save(user);
-        return user;
+        // Written straight to user_games: User.addOwnedGame would initialize
+        // Game.owners, i.e. load every owner of the game. ownedGames is still
+        // lazy here, so the fetch plan below reads the new row.
+        userJdbcRepository.grantOwnership(userId, gameId);
+        return withBalance(FetchPlans.user(user));
     }
 
+    @Transactional
     public User removeOwnedGame(Long userId, Long gameId) {
-        User user = getById(userId);
-        Game game = gameRepository.findById(gameId).orElseThrow(() -> new NotFoundException("Game not found."));
+        User user = findUser(userId);
+        if (gameRecordCache.get(gameId).isEmpty()) {
+            throw new NotFoundException("Game not found.");
+        }
 
-        user.removeOwnedGame(game);
-        userRepository.save(user);
-        return user;
+        userJdbcRepository.revokeOwnership(userId, gameId);
+        return withBalance(FetchPlans.user(user));
     }
 
+    @Transactional
     public User topUpBalance(Long userId, Long amountCents) {
-        User user = getById(userId);
-        user.increaseBalance(amountCents);
-        return userRepository.save(user);
+        if (amountCents == null || amountCents <= 0) {
+            throw new IllegalArgumentException("Amount must be positive.");
+        }
+        User user = findUser(userId);
+        balanceService.credit(userId, amountCents, LedgerReason.TOP_UP);
+        return withBalance(FetchPlans.user(user));
+    }
+
+    private User withBalance(User user) {
+        balanceService.fill(user);
+        return user;
+    }
+
+    private User findUser(Long id) {
+        return userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found."));
     }
 }
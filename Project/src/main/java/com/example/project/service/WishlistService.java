@@ -1,5 +1,6 @@
 package com.example.project.service;
 
+import com.example.project.cache.GameRecordCache;
 import com.example.project.exception.NotFoundException;
 import com.example.project.model.Game;
 import com.example.project.model.User;
@@ -18,17 +19,24 @@ public class WishlistService {
     private final WishlistRepository wishlistRepository;
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final GameRecordCache gameRecordCache;
 
     public WishlistService(WishlistRepository wishlistRepository,
             UserRepository userRepository,
-            GameRepository gameRepository) {
+            GameRepository gameRepository,
+            GameRecordCache gameRecordCache) {
         this.wishlistRepository = wishlistRepository;
         this.userRepository = userRepository;
         this.gameRepository = gameRepository;
+        this.gameRecordCache = gameRecordCache;
     }
 
     @Transactional
     public Wishlist getOrCreateByUserId(Long userId) {
+        return FetchPlans.wishlist(findOrCreate(userId));
+    }
+
+    private Wishlist findOrCreate(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
@@ -41,34 +49,36 @@ public class WishlistService {
                 });
     }
 
+    @Transactional
     public Set<Game> getGames(Long userId) {
-        return getOrCreateByUserId(userId).getGames();
+        return FetchPlans.games(findOrCreate(userId).getGames());
     }
 
     @Transactional
     public Wishlist addGame(Long userId, Long gameId) {
-        Wishlist wishlist = getOrCreateByUserId(userId);
-        Game game = gameRepository.findById(gameId)
+        Wishlist wishlist = findOrCreate(userId);
+        Game game = gameRecordCache.get(gameId)
+                .map(record -> gameRepository.getReferenceById(record.getId()))
                 .orElseThrow(() -> new NotFoundException("Game not found"));
 
         wishlist.addGame(game);
-        return wishlist;
+        return FetchPlans.wishlist(wishlist);
     }
 
     @Transactional
     public Wishlist removeGame(Long userId, Long gameId) {
-        Wishlist wishlist = getOrCreateByUserId(userId);
+        Wishlist wishlist = findOrCreate(userId);
         Game game = gameRepository.findById(gameId)
                 .orElseThrow(() -> new NotFoundException("Game not found"));
 
         wishlist.removeGame(game);
-        return wishlist;
+        return FetchPlans.wishlist(wishlist);
     }
 
     @Transactional(readOnly = true)
     public Wishlist getById(long id) {
-        return wishlistRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Wishlist not found with id: " + id));
+        return FetchPlans.wishlist(wishlistRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Wishlist not found with id: " + id)));
     }
 
     @Transactional
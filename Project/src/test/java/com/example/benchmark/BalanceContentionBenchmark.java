@@ -0,0 +1,171 @@
+package com.example.benchmark;
+
+import com.example.project.GameLibraryApplication;
+import com.example.project.exception.ConflictException;
+import com.example.project.model.LedgerReason;
+import com.example.project.service.BalanceService;
+import com.example.project.service.PurchaseService;
+import com.example.project.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers a single user's balance from many threads at once: buyers purchase
+ * disjoint games while other threads top the balance up. The starting balance
+ * only covers half of the purchases, so some of them must be refused.
+ * Afterwards the balance has to equal exactly what was credited minus what
+ * the recorded purchases cost, and never have gone negative, both before and
+ * after the ledger is compacted into snapshots. Threads and purchases per
+ * thread can be set with -Dbenchmark.threads and -Dbenchmark.purchases
+ * (defaults 16 and 250).
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = GameLibraryApplication.class)
+class BalanceContentionBenchmark {
+
+    private static final String PREFIX = "bench-balance-";
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int PURCHASES_PER_THREAD = Integer.getInteger("benchmark.purchases", 250);
+    private static final long PRICE_CENTS = 100;
+    private static final long TOP_UP_CENTS = 30;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+    private long initialBalance;
+    private List<Long> gameIds;
+
+    @BeforeAll
+    void seed() {
+        int games = THREADS * PURCHASES_PER_THREAD;
+        initialBalance = PRICE_CENTS * games / 2;
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username) VALUES (?) RETURNING id", Long.class, PREFIX + "user");
+        jdbcTemplate.update("INSERT INTO balance_ledger (user_id, amount_cents, reason, created_at) VALUES (?, ?, ?, now())",
+                userId, initialBalance, LedgerReason.OPENING.name());
+        gameIds = jdbcTemplate.queryForList("""
+                INSERT INTO games (name)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                RETURNING id
+                """, Long.class, PREFIX + "game-", games);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM purchases WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM wishlists WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM user_games WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM balance_snapshots WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM balance_ledger WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        jdbcTemplate.update("DELETE FROM games WHERE name LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void concurrentDebitsAndCreditsLoseNoMoney() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Result>> buyers = new ArrayList<>();
+        List<Future<Result>> toppers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            List<Long> slice = gameIds.subList(t * PURCHASES_PER_THREAD, (t + 1) * PURCHASES_PER_THREAD);
+            buyers.add(executor.submit(() -> {
+                start.await();
+                Result result = new Result();
+                for (Long gameId : slice) {
+                    long begin = System.nanoTime();
+                    try {
+                        purchaseService.create(userId, gameId, PRICE_CENTS);
+                        result.succeeded++;
+                    } catch (ConflictException ex) {
+                        result.refused++;
+                    }
+                    result.latency.record(System.nanoTime() - begin);
+                }
+                return result;
+            }));
+            toppers.add(executor.submit(() -> {
+                start.await();
+                Result result = new Result();
+                for (int i = 0; i < PURCHASES_PER_THREAD / 2; i++) {
+                    long begin = System.nanoTime();
+                    userService.topUpBalance(userId, TOP_UP_CENTS);
+                    result.succeeded++;
+                    result.latency.record(System.nanoTime() - begin);
+                }
+                return result;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Result purchases = collect(buyers);
+        Result topUps = collect(toppers);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+
+        long expected = initialBalance + topUps.succeeded * TOP_UP_CENTS - purchases.succeeded * PRICE_CENTS;
+        long balance = balanceService.balanceOf(userId);
+        long recorded = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(price_cents), 0) FROM purchases WHERE user_id = ?", Long.class, userId);
+
+        System.out.printf("threads=%d purchases=%d refused=%d topUps=%d in %.2fs (%.0f ops/s)%n",
+                THREADS, purchases.succeeded, purchases.refused, topUps.succeeded, seconds,
+                (purchases.latency.count() + topUps.latency.count()) / seconds);
+        System.out.println(purchases.latency.summary("  purchase"));
+        System.out.println(topUps.latency.summary("  top-up"));
+
+        assertEquals(purchases.succeeded * PRICE_CENTS, recorded);
+        assertEquals(expected, balance);
+        assertTrue(balance >= 0);
+        assertTrue(purchases.refused > 0, "the starting balance should not cover every purchase");
+
+        balanceService.compact();
+        assertEquals(expected, balanceService.balanceOf(userId));
+    }
+
+    private static Result collect(List<Future<Result>> futures) throws Exception {
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            Result result = future.get();
+            total.succeeded += result.succeeded;
+            total.refused += result.refused;
+            total.latency.merge(result.latency);
+        }
+        return total;
+    }
+
+    private static final class Result {
+
+        long succeeded;
+        long refused;
+        final LatencyRecorder latency = new LatencyRecorder();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.benchmark;
+
+import com.example.project.index.GameNameIndex;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.repository.GameRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Fills the name index with -Dbenchmark.games made-up titles (default 100000)
+ * of one to four pronounceable words, then runs misspelled queries at every
+ * default distance. The p99 of a fuzzy search must stay within
+ * -Dbenchmark.p99-budget-ms (default 10). Works on the index alone; no
+ * database is needed.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FuzzyNameSearchBenchmark {
+
+    private static final int GAMES = Integer.getInteger("benchmark.games", 100_000);
+    private static final int WORDS = 5_000;
+    private static final int ROUNDS = 200;
+    private static final long P99_BUDGET_MS = Long.getLong("benchmark.p99-budget-ms", 10);
+    private static final String CONSONANTS = "bcdfghklmnprstvwz";
+    private static final String VOWELS = "aeiou";
+
+    private final GameRepository gameRepository = mock(GameRepository.class);
+    private final GameNameIndex gameNameIndex = new GameNameIndex(gameRepository);
+
+    @BeforeAll
+    void seed() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] words = new String[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int syllables = 1 + random.nextInt(3); syllables > 0; syllables--) {
+                word.append(CONSONANTS.charAt(random.nextInt(CONSONANTS.length())))
+                        .append(VOWELS.charAt(random.nextInt(VOWELS.length())));
+            }
+            words[i] = word.toString();
+        }
+        List<GameSummaryDTO> games = new ArrayList<>(GAMES + 3);
+        for (long id = 1; id <= GAMES; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int count = 1 + random.nextInt(4); count > 0; count--) {
+                // Squaring skews the picks towards low word numbers, so some words are very common.
+                double pick = random.nextDouble();
+                name.append(words[(int) (pick * pick * WORDS)]).append(' ');
+            }
+            games.add(new GameSummaryDTO(id, name.append(id).toString()));
+        }
+        games.add(new GameSummaryDTO(GAMES + 1L, "Hades"));
+        games.add(new GameSummaryDTO(GAMES + 2L, "Doom"));
+        games.add(new GameSummaryDTO(GAMES + 3L, "Stardew Valley"));
+        when(gameRepository.findAllSummaries()).thenReturn(games);
+        gameNameIndex.rebuild();
+    }
+
+    @Test
+    void fuzzySearchStaysWithinBudget() {
+        // One query per default distance: 1 for four letters, 2 for five to eight, 3 beyond.
+        String[] queries = {"Deom", "Hdaes", "Stardw Valey"};
+        long[] expected = {GAMES + 2L, GAMES + 1L, GAMES + 3L};
+        LatencyRecorder[] recorders = new LatencyRecorder[queries.length];
+
+        // Warm up the JIT before measuring.
+        for (int i = 0; i < ROUNDS; i++) {
+            for (String query : queries) {
+                gameNameIndex.fuzzySearch(query, null, 10);
+            }
+        }
+        for (int q = 0; q < queries.length; q++) {
+            recorders[q] = new LatencyRecorder();
+            List<GameSummaryDTO> result = null;
+            for (int i = 0; i < ROUNDS; i++) {
+                long begin = System.nanoTime();
+                result = gameNameIndex.fuzzySearch(queries[q], null, 10);
+                recorders[q].record(System.nanoTime() - begin);
+            }
+            long wanted = expected[q];
+            assertTrue(result.stream().anyMatch(game -> game.getId() == wanted),
+                    queries[q] + " did not find game " + wanted);
+        }
+
+        System.out.println("games=" + GAMES + " words=" + WORDS);
+        for (int q = 0; q < queries.length; q++) {
+            System.out.println(recorders[q].summary("  fuzzy \"" + queries[q] + "\""));
+        }
+        for (int q = 0; q < queries.length; q++) {
+            assertTrue(recorders[q].percentileMillis(99) <= P99_BUDGET_MS,
+                    "\"" + queries[q] + "\" p99 " + recorders[q].percentileMillis(99) + "ms exceeds "
+                            + P99_BUDGET_MS + "ms");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.benchmark;
+
+import com.example.project.GameLibraryApplication;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.Game;
+import com.example.project.service.GameService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks the whole catalog page by page and compares the latency of early and
+ * late pages. With keyset pagination both should be in the same range no
+ * matter how many games are seeded (-Dbenchmark.games, default 200k).
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = GameLibraryApplication.class)
+class GameCatalogPagingBenchmark {
+
+    private static final int GAMES = Integer.getInteger("benchmark.games", 200_000);
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO games (name)
+                SELECT 'bench-game-' || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                ON CONFLICT (name) DO NOTHING
+                """, GAMES);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM games WHERE name LIKE 'bench-game-%'");
+    }
+
+    @Test
+    void pageLatencyIsFlatAcrossTheCatalog() {
+        for (String sort : new String[] { "id", "name" }) {
+            LatencyRecorder first = new LatencyRecorder();
+            LatencyRecorder last = new LatencyRecorder();
+            LatencyRecorder all = new LatencyRecorder();
+            long[] tail = new long[10];
+            int pages = 0;
+            long maxUsedHeap = 0;
+
+            String cursor = null;
+            do {
+                long start = System.nanoTime();
+                CursorPageDTO<Game> page = gameService.getPage(cursor, PAGE_SIZE, sort, false);
+                long elapsed = System.nanoTime() - start;
+
+                assertTrue(page.getItems().size() <= PAGE_SIZE);
+                all.record(elapsed);
+                if (pages < tail.length) {
+                    first.record(elapsed);
+                }
+                tail[pages % tail.length] = elapsed;
+                pages++;
+
+                Runtime runtime = Runtime.getRuntime();
+                maxUsedHeap = Math.max(maxUsedHeap, runtime.totalMemory() - runtime.freeMemory());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            for (int i = 0; i < Math.min(pages, tail.length); i++) {
+                last.record(tail[i]);
+            }
+
+            System.out.println("sort=" + sort + " pages=" + pages + " maxUsedHeap=" + (maxUsedHeap >> 20) + "MB");
+            System.out.println(first.summary("  first 10 pages"));
+            System.out.println(last.summary("  last 10 pages"));
+            System.out.println(all.summary("  all pages"));
+
+            assertTrue(pages >= GAMES / PAGE_SIZE);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Collects per-operation latencies for the benchmark tests and prints a short
+ * percentile summary. Not thread-safe; give each thread its own recorder and
+ * {@link #merge} them afterwards.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+
+    double meanMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total / (double) count / 1_000_000.0;
+    }
+
+    String summary(String label) {
+        return String.format("%s: n=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                label, count, meanMillis(), percentileMillis(50), percentileMillis(99), percentileMillis(100));
+    }
+}
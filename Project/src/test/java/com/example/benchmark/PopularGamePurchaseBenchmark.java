@@ -0,0 +1,139 @@
+package com.example.benchmark;
+
+import com.example.project.GameLibraryApplication;
+import com.example.project.model.LedgerReason;
+import com.example.project.service.PurchaseService;
+import com.example.project.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Buys and grants a game that already has a million owners
+ * (-Dbenchmark.owners) and a game that has none, alternating between them,
+ * and compares the latencies. Ownership is written straight to
+ * {@code user_games}, so the owner count of the game must not show up in
+ * either.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = GameLibraryApplication.class)
+class PopularGamePurchaseBenchmark {
+
+    private static final String PREFIX = "bench-popular-";
+    private static final int OWNERS = Integer.getInteger("benchmark.owners", 1_000_000);
+    private static final int BUYERS = Integer.getInteger("benchmark.buyers", 200);
+    private static final long PRICE_CENTS = 100;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long hotGameId;
+    private long hotExtraGameId;
+    private long coldGameId;
+    private long coldExtraGameId;
+    private List<Long> buyerIds;
+
+    @BeforeAll
+    void seed() {
+        hotGameId = insertGame("hot");
+        hotExtraGameId = insertGame("hot-extra");
+        coldGameId = insertGame("cold");
+        coldExtraGameId = insertGame("cold-extra");
+        jdbcTemplate.update("""
+                INSERT INTO users (username)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                """, PREFIX + "owner-", OWNERS);
+        jdbcTemplate.update("""
+                INSERT INTO user_games (user_id, game_id)
+                SELECT u.id, g.id FROM users u, games g
+                WHERE u.username LIKE ? AND g.id IN (?, ?)
+                """, PREFIX + "owner-%", hotGameId, hotExtraGameId);
+        buyerIds = jdbcTemplate.queryForList("""
+                INSERT INTO users (username)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                RETURNING id
+                """, Long.class, PREFIX + "buyer-", BUYERS);
+        jdbcTemplate.update("""
+                INSERT INTO balance_ledger (user_id, amount_cents, reason, created_at)
+                SELECT id, ?, ?, now() FROM users WHERE username LIKE ?
+                """, PRICE_CENTS * 2, LedgerReason.OPENING.name(), PREFIX + "buyer-%");
+        jdbcTemplate.execute("ANALYZE user_games");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM purchases WHERE game_id IN (?, ?)", hotGameId, coldGameId);
+        jdbcTemplate.update("DELETE FROM user_games WHERE game_id IN (?, ?, ?, ?)",
+                hotGameId, hotExtraGameId, coldGameId, coldExtraGameId);
+        jdbcTemplate.update("""
+                DELETE FROM balance_snapshots WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)
+                """, PREFIX + "%");
+        jdbcTemplate.update("""
+                DELETE FROM balance_ledger WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)
+                """, PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM wishlists WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)",
+                PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM games WHERE name LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void ownershipWritesDoNotDependOnOwnerCount() {
+        LatencyRecorder hotPurchases = new LatencyRecorder();
+        LatencyRecorder coldPurchases = new LatencyRecorder();
+        LatencyRecorder hotGrants = new LatencyRecorder();
+        LatencyRecorder coldGrants = new LatencyRecorder();
+
+        for (Long buyerId : buyerIds) {
+            hotPurchases.record(time(() -> purchaseService.create(buyerId, hotGameId, PRICE_CENTS)));
+            coldPurchases.record(time(() -> purchaseService.create(buyerId, coldGameId, PRICE_CENTS)));
+            hotGrants.record(time(() -> userService.addOwnedGame(buyerId, hotExtraGameId)));
+            coldGrants.record(time(() -> userService.addOwnedGame(buyerId, coldExtraGameId)));
+        }
+
+        System.out.println("owners=" + OWNERS + " buyers=" + BUYERS);
+        System.out.println(hotPurchases.summary("  purchase, popular game"));
+        System.out.println(coldPurchases.summary("  purchase, new game"));
+        System.out.println(hotGrants.summary("  grant, popular game"));
+        System.out.println(coldGrants.summary("  grant, new game"));
+
+        assertEquals(OWNERS + BUYERS, countOwners(hotGameId));
+        assertEquals(BUYERS, countOwners(coldGameId));
+        // Loading a million owners takes seconds; an index insert does not.
+        assertTrue(hotPurchases.percentileMillis(50) < coldPurchases.percentileMillis(50) * 3 + 5,
+                "purchase latency should not grow with the game's owner count");
+        assertTrue(hotGrants.percentileMillis(50) < coldGrants.percentileMillis(50) * 3 + 5,
+                "grant latency should not grow with the game's owner count");
+    }
+
+    private long insertGame(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO games (name) VALUES (?) RETURNING id", Long.class,
+                PREFIX + name);
+    }
+
+    private long countOwners(long gameId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_games WHERE game_id = ?", Long.class, gameId);
+    }
+
+    private static long time(Runnable operation) {
+        long begin = System.nanoTime();
+        operation.run();
+        return System.nanoTime() - begin;
+    }
+}
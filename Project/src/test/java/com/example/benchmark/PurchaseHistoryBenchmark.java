@@ -0,0 +1,116 @@
+package com.example.benchmark;
+
+import com.example.project.GameLibraryApplication;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.PurchaseHistoryItemDTO;
+import com.example.project.service.PurchaseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds one buyer with -Dbenchmark.purchases purchases (default 20000), one a
+ * minute, then walks their whole history page by page and reads one-day
+ * windows of it. Every page must be a single statement, and the p99 of a
+ * page within -Dbenchmark.p99-budget-ms (default 10).
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = GameLibraryApplication.class)
+@Import(StatementCounter.class)
+class PurchaseHistoryBenchmark {
+
+    private static final String PREFIX = "bench-history-";
+    private static final int PURCHASES = Integer.getInteger("benchmark.purchases", 20_000);
+    private static final int PAGE_SIZE = 100;
+    private static final long P99_BUDGET_MS = Long.getLong("benchmark.p99-budget-ms", 10);
+    private static final Instant FIRST_PURCHASE = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long buyerId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO games (name)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                """, PREFIX + "game-", PURCHASES);
+        buyerId = jdbcTemplate.queryForObject("INSERT INTO users (username) VALUES (?) RETURNING id", Long.class,
+                PREFIX + "buyer");
+        jdbcTemplate.update("""
+                INSERT INTO purchases (user_id, game_id, price_cents, purchased_at)
+                SELECT ?, g.id, 100, ?::timestamptz + (row_number() OVER (ORDER BY g.id)) * interval '1 minute'
+                FROM games g WHERE g.name LIKE ?
+                """, buyerId, FIRST_PURCHASE.toString(), PREFIX + "game-%");
+        jdbcTemplate.execute("ANALYZE purchases");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM purchases WHERE user_id = ?", buyerId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", buyerId);
+        jdbcTemplate.update("DELETE FROM games WHERE name LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void historyPagesStayFastForHeavyBuyers() {
+        LatencyRecorder pages = new LatencyRecorder();
+        long worstStatements = 0;
+        int seen = 0;
+        Instant previous = Instant.MAX;
+        String cursor = null;
+        do {
+            long before = StatementCounter.count();
+            long begin = System.nanoTime();
+            CursorPageDTO<PurchaseHistoryItemDTO> page = purchaseService.getHistory(buyerId, null, null, cursor,
+                    PAGE_SIZE);
+            pages.record(System.nanoTime() - begin);
+            worstStatements = Math.max(worstStatements, StatementCounter.count() - before);
+            for (PurchaseHistoryItemDTO item : page.getItems()) {
+                assertTrue(item.getPurchasedAt().isBefore(previous), "history is not newest first");
+                previous = item.getPurchasedAt();
+            }
+            seen += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        LatencyRecorder windows = new LatencyRecorder();
+        int days = Math.max(1, PURCHASES / (24 * 60));
+        for (int day = 0; day < days; day++) {
+            Instant from = FIRST_PURCHASE.plus(day, ChronoUnit.DAYS);
+            long begin = System.nanoTime();
+            CursorPageDTO<PurchaseHistoryItemDTO> page = purchaseService.getHistory(buyerId, from,
+                    from.plus(1, ChronoUnit.DAYS), null, PAGE_SIZE);
+            windows.record(System.nanoTime() - begin);
+            assertFalse(page.getItems().isEmpty());
+        }
+
+        System.out.println("purchases=" + PURCHASES + " page size=" + PAGE_SIZE);
+        System.out.println("  statements per page: max=" + worstStatements);
+        System.out.println(pages.summary("  history page"));
+        System.out.println(windows.summary("  one-day window"));
+
+        assertEquals(PURCHASES, seen);
+        assertEquals(1, worstStatements, "a history page took " + worstStatements + " statements");
+        assertTrue(pages.percentileMillis(99) <= P99_BUDGET_MS,
+                "history page p99 " + pages.percentileMillis(99) + "ms exceeds " + P99_BUDGET_MS + "ms");
+        assertTrue(windows.percentileMillis(99) <= P99_BUDGET_MS,
+                "window p99 " + windows.percentileMillis(99) + "ms exceeds " + P99_BUDGET_MS + "ms");
+    }
+}
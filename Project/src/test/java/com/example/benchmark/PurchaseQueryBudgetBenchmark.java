@@ -0,0 +1,176 @@
+package com.example.benchmark;
+
+import com.example.project.GameLibraryApplication;
+import com.example.project.cache.GameRecordCache;
+import com.example.project.exception.ConflictException;
+import com.example.project.model.LedgerReason;
+import com.example.project.service.PurchaseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Buys every seeded game for every seeded buyer (-Dbenchmark.buyers and
+ * -Dbenchmark.games) and then tries each purchase again, counting the JDBC
+ * statements each call prepares. A purchase, successful or refused, must stay
+ * within {@link #STATEMENT_BUDGET} statements, and the p99 of successful
+ * purchases within -Dbenchmark.p99-budget-ms (default 50).
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = GameLibraryApplication.class)
+@Import(StatementCounter.class)
+class PurchaseQueryBudgetBenchmark {
+
+    /** The user's ledger lock and the purchase statement. */
+    private static final long STATEMENT_BUDGET = 2;
+
+    private static final String PREFIX = "bench-budget-";
+    private static final int BUYERS = Integer.getInteger("benchmark.buyers", 200);
+    private static final int GAMES = Integer.getInteger("benchmark.games", 10);
+    private static final long P99_BUDGET_MS = Long.getLong("benchmark.p99-budget-ms", 50);
+    private static final long PRICE_CENTS = 100;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private GameRecordCache gameRecordCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> buyerIds;
+    private List<Long> gameIds;
+
+    @BeforeAll
+    void seed() {
+        gameIds = jdbcTemplate.queryForList("""
+                INSERT INTO games (name)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                RETURNING id
+                """, Long.class, PREFIX + "game-", GAMES);
+        buyerIds = jdbcTemplate.queryForList("""
+                INSERT INTO users (username)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                RETURNING id
+                """, Long.class, PREFIX + "buyer-", BUYERS);
+        jdbcTemplate.update("""
+                INSERT INTO balance_ledger (user_id, amount_cents, reason, created_at)
+                SELECT id, ?, ?, now() FROM users WHERE username LIKE ?
+                """, PRICE_CENTS * GAMES, LedgerReason.OPENING.name(), PREFIX + "buyer-%");
+        // Every buyer has half of the games on their wishlist, so the prune has work to do.
+        jdbcTemplate.update("""
+                INSERT INTO wishlists (user_id) SELECT id FROM users WHERE username LIKE ?
+                """, PREFIX + "buyer-%");
+        jdbcTemplate.update("""
+                INSERT INTO wishlist_games (wishlist_id, game_id)
+                SELECT w.id, g.id FROM wishlists w JOIN users u ON u.id = w.user_id, games g
+                WHERE u.username LIKE ? AND g.name LIKE ? AND g.id % 2 = 0
+                """, PREFIX + "buyer-%", PREFIX + "game-%");
+        // The first lookup of a game misses the record cache; that read is not part of a purchase.
+        gameIds.forEach(gameRecordCache::get);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM purchases WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)",
+                PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM user_games WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)",
+                PREFIX + "%");
+        jdbcTemplate.update("""
+                DELETE FROM wishlist_games WHERE wishlist_id IN (
+                    SELECT w.id FROM wishlists w JOIN users u ON u.id = w.user_id WHERE u.username LIKE ?)
+                """, PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM wishlists WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)",
+                PREFIX + "%");
+        jdbcTemplate.update("""
+                DELETE FROM balance_snapshots WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)
+                """, PREFIX + "%");
+        jdbcTemplate.update("""
+                DELETE FROM balance_ledger WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)
+                """, PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM games WHERE name LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void purchasesStayWithinTheirStatementBudget() {
+        LatencyRecorder purchases = new LatencyRecorder();
+        LatencyRecorder repeats = new LatencyRecorder();
+        long purchaseStatements = 0;
+        long repeatStatements = 0;
+        long worstPurchase = 0;
+        long worstRepeat = 0;
+
+        for (Long buyerId : buyerIds) {
+            for (Long gameId : gameIds) {
+                long before = StatementCounter.count();
+                long begin = System.nanoTime();
+                purchaseService.create(buyerId, gameId, PRICE_CENTS);
+                purchases.record(System.nanoTime() - begin);
+                long statements = StatementCounter.count() - before;
+                purchaseStatements += statements;
+                worstPurchase = Math.max(worstPurchase, statements);
+            }
+        }
+        for (Long buyerId : buyerIds) {
+            for (Long gameId : gameIds) {
+                long before = StatementCounter.count();
+                long begin = System.nanoTime();
+                assertThrows(ConflictException.class, () -> purchaseService.create(buyerId, gameId, PRICE_CENTS));
+                repeats.record(System.nanoTime() - begin);
+                long statements = StatementCounter.count() - before;
+                repeatStatements += statements;
+                worstRepeat = Math.max(worstRepeat, statements);
+            }
+        }
+
+        System.out.println("buyers=" + BUYERS + " games=" + GAMES);
+        System.out.printf("  statements per purchase: mean=%.2f max=%d (budget %d)%n",
+                purchaseStatements / (double) purchases.count(), worstPurchase, STATEMENT_BUDGET);
+        System.out.printf("  statements per repeat: mean=%.2f max=%d (budget %d)%n",
+                repeatStatements / (double) repeats.count(), worstRepeat, STATEMENT_BUDGET);
+        System.out.println(purchases.summary("  purchase"));
+        System.out.println(repeats.summary("  repeat purchase"));
+
+        assertEquals((long) BUYERS * GAMES, countRows("purchases"));
+        assertEquals((long) BUYERS * GAMES, countRows("user_games"));
+        assertEquals(0, countWishlisted());
+        assertEquals(0L, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM users u
+                WHERE u.username LIKE ?
+                  AND (SELECT SUM(amount_cents) FROM balance_ledger l WHERE l.user_id = u.id) <> 0
+                """, Long.class, PREFIX + "buyer-%"), "every buyer spent exactly their opening balance");
+
+        assertTrue(worstPurchase <= STATEMENT_BUDGET, "a purchase took " + worstPurchase + " statements");
+        assertTrue(worstRepeat <= STATEMENT_BUDGET, "a repeat purchase took " + worstRepeat + " statements");
+        assertTrue(purchases.percentileMillis(99) <= P99_BUDGET_MS,
+                "purchase p99 " + purchases.percentileMillis(99) + "ms exceeds " + P99_BUDGET_MS + "ms");
+    }
+
+    private long countRows(String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " t JOIN users u ON u.id = t.user_id WHERE u.username LIKE ?",
+                Long.class, PREFIX + "buyer-%");
+    }
+
+    private long countWishlisted() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM wishlist_games wg
+                JOIN wishlists w ON w.id = wg.wishlist_id
+                JOIN users u ON u.id = w.user_id
+                WHERE u.username LIKE ?
+                """, Long.class, PREFIX + "buyer-%");
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+
+/**
+ * Counts the JDBC statements the current thread prepares, whether they come
+ * from Hibernate or from a JdbcTemplate. Import it into a benchmark and read
+ * {@link #count()} around the operation being measured; statements from other
+ * threads, such as scheduled jobs, are ignored.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class StatementCounter {
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    static long count() {
+        return COUNT.get()[0];
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                        Object result = method.invoke(target, args);
+                        return result instanceof Connection connection ? counting(connection) : result;
+                    });
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            if (STATEMENT_METHODS.contains(method.getName())) {
+                COUNT.get()[0]++;
+            }
+            return method.invoke(target, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Forwarder<T> forwarder) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return forwarder.forward(target, method, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private interface Forwarder<T> {
+
+        Object forward(T target, Method method, Object[] args) throws Exception;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.benchmark;
+
+import com.example.project.GameLibraryApplication;
+import com.example.project.service.GameService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tags and untags a set of games with a tag that already carries half a
+ * million games (-Dbenchmark.tagged) and with a tag that carries none,
+ * alternating between them. Links are written straight to {@code game_tags},
+ * so the size of the tag must not show up in the latencies.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = GameLibraryApplication.class)
+class TagCardinalityBenchmark {
+
+    private static final String PREFIX = "bench-tagcard-";
+    private static final int TAGGED = Integer.getInteger("benchmark.tagged", 500_000);
+    private static final int TARGETS = Integer.getInteger("benchmark.targets", 200);
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long bigTagId;
+    private long smallTagId;
+    private List<Long> targetIds;
+
+    @BeforeAll
+    void seed() {
+        bigTagId = insertTag("big");
+        smallTagId = insertTag("small");
+        jdbcTemplate.update("""
+                INSERT INTO games (name)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                """, PREFIX + "tagged-", TAGGED);
+        jdbcTemplate.update("""
+                INSERT INTO game_tags (game_id, tag_id)
+                SELECT id, ? FROM games WHERE name LIKE ?
+                """, bigTagId, PREFIX + "tagged-%");
+        targetIds = jdbcTemplate.queryForList("""
+                INSERT INTO games (name)
+                SELECT ? || lpad(n::text, 8, '0') FROM generate_series(1, ?) n
+                RETURNING id
+                """, Long.class, PREFIX + "target-", TARGETS);
+        jdbcTemplate.execute("ANALYZE game_tags");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM game_tags WHERE tag_id IN (?, ?)", bigTagId, smallTagId);
+        jdbcTemplate.update("DELETE FROM games WHERE name LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM tags WHERE id IN (?, ?)", bigTagId, smallTagId);
+    }
+
+    @Test
+    void tagWritesDoNotDependOnTagCardinality() {
+        LatencyRecorder bigAdds = new LatencyRecorder();
+        LatencyRecorder smallAdds = new LatencyRecorder();
+        LatencyRecorder bigRemoves = new LatencyRecorder();
+        LatencyRecorder smallRemoves = new LatencyRecorder();
+
+        for (Long gameId : targetIds) {
+            bigAdds.record(time(() -> gameService.addTag(gameId, bigTagId)));
+            smallAdds.record(time(() -> gameService.addTag(gameId, smallTagId)));
+        }
+        assertEquals(TAGGED + TARGETS, countLinks(bigTagId));
+        assertEquals(TARGETS, countLinks(smallTagId));
+
+        for (Long gameId : targetIds) {
+            bigRemoves.record(time(() -> gameService.removeTag(gameId, bigTagId)));
+            smallRemoves.record(time(() -> gameService.removeTag(gameId, smallTagId)));
+        }
+        assertEquals(TAGGED, countLinks(bigTagId));
+        assertEquals(0, countLinks(smallTagId));
+
+        System.out.println("tagged=" + TAGGED + " targets=" + TARGETS);
+        System.out.println(bigAdds.summary("  add, large tag"));
+        System.out.println(smallAdds.summary("  add, empty tag"));
+        System.out.println(bigRemoves.summary("  remove, large tag"));
+        System.out.println(smallRemoves.summary("  remove, empty tag"));
+
+        // Loading half a million games takes seconds; an index write does not.
+        assertTrue(bigAdds.percentileMillis(50) < smallAdds.percentileMillis(50) * 3 + 5,
+                "add latency should not grow with the tag's game count");
+        assertTrue(bigRemoves.percentileMillis(50) < smallRemoves.percentileMillis(50) * 3 + 5,
+                "remove latency should not grow with the tag's game count");
+    }
+
+    private long insertTag(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO tags (name) VALUES (?) RETURNING id", Long.class,
+                PREFIX + name);
+    }
+
+    private long countLinks(long tagId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_tags WHERE tag_id = ?", Long.class, tagId);
+    }
+
+    private static long time(Runnable operation) {
+        long begin = System.nanoTime();
+        operation.run();
+        return System.nanoTime() - begin;
+    }
+}
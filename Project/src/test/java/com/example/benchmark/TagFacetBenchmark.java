@@ -0,0 +1,94 @@
+package com.example.benchmark;
+
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.TagQuery;
+import com.example.project.index.TagQueryResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fills a tag index with -Dbenchmark.games games (default 100000) spread over
+ * -Dbenchmark.tags tags (default 300) with skewed popularity, then computes
+ * facets for the whole catalog and for tag queries of growing size. The p99
+ * of a facet pass must stay within -Dbenchmark.p99-budget-ms (default 5).
+ * Works on the index alone; no database is needed.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TagFacetBenchmark {
+
+    private static final int GAMES = Integer.getInteger("benchmark.games", 100_000);
+    private static final int TAGS = Integer.getInteger("benchmark.tags", 300);
+    private static final int TAGS_PER_GAME = 5;
+    private static final int ROUNDS = 1_000;
+    private static final long P99_BUDGET_MS = Long.getLong("benchmark.p99-budget-ms", 5);
+
+    private final TagBitmapIndex tagBitmapIndex = new TagBitmapIndex(null, null);
+
+    @BeforeAll
+    void seed() {
+        for (int tag = 0; tag < TAGS; tag++) {
+            tagBitmapIndex.putTag(tag, "tag-" + tag);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (long gameId = 1; gameId <= GAMES; gameId++) {
+            tagBitmapIndex.addGame(gameId);
+            for (int i = 0; i < TAGS_PER_GAME; i++) {
+                // Squaring skews the picks towards low tag numbers, so a few tags are very large.
+                double pick = random.nextDouble();
+                tagBitmapIndex.tag(gameId, (long) (pick * pick * TAGS));
+            }
+        }
+    }
+
+    @Test
+    void facetPassStaysWithinBudget() {
+        TagQuery broad = TagQuery.parse("tag-0 OR tag-1 OR tag-2");
+        TagQuery narrow = TagQuery.parse("tag-0 AND NOT tag-1");
+        LatencyRecorder catalog = new LatencyRecorder();
+        LatencyRecorder broadQueries = new LatencyRecorder();
+        LatencyRecorder narrowQueries = new LatencyRecorder();
+
+        // Warm up the JIT before measuring.
+        for (int i = 0; i < ROUNDS; i++) {
+            tagBitmapIndex.facets(null);
+            tagBitmapIndex.queryWithFacets(broad, null, 21);
+        }
+        Map<String, Integer> all = null;
+        TagQueryResult broadResult = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            long begin = System.nanoTime();
+            all = tagBitmapIndex.facets(null);
+            catalog.record(System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            broadResult = tagBitmapIndex.queryWithFacets(broad, null, 21);
+            broadQueries.record(System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            tagBitmapIndex.queryWithFacets(narrow, null, 21);
+            narrowQueries.record(System.nanoTime() - begin);
+        }
+
+        System.out.println("games=" + GAMES + " tags=" + TAGS + " tags per game=" + TAGS_PER_GAME);
+        System.out.println(catalog.summary("  facets, whole catalog"));
+        System.out.println(broadQueries.summary("  page + facets, 3-tag OR"));
+        System.out.println(narrowQueries.summary("  page + facets, AND NOT"));
+
+        assertTrue(all.size() > TAGS / 2, "most tags should carry games");
+        assertEquals(21, broadResult.getGameIds().size());
+        assertTrue(catalog.percentileMillis(99) <= P99_BUDGET_MS,
+                "catalog facets p99 " + catalog.percentileMillis(99) + "ms exceeds " + P99_BUDGET_MS + "ms");
+        assertTrue(broadQueries.percentileMillis(99) <= P99_BUDGET_MS,
+                "query facets p99 " + broadQueries.percentileMillis(99) + "ms exceeds " + P99_BUDGET_MS + "ms");
+        assertTrue(narrowQueries.percentileMillis(99) <= P99_BUDGET_MS,
+                "query facets p99 " + narrowQueries.percentileMillis(99) + "ms exceeds " + P99_BUDGET_MS + "ms");
+    }
+}
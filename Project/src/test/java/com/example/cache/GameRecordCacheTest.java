@@ -0,0 +1,159 @@
+package com.example.cache;
+
+import com.example.project.cache.GameRecord;
+import com.example.project.cache.GameRecordCache;
+import com.example.project.model.CacheStatsDTO;
+import com.example.project.model.Game;
+import com.example.project.model.GameTag;
+import com.example.project.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameRecordCacheTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private GameRecordCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GameRecordCache(gameRepository, 2, 1000, now::get);
+    }
+
+    @Test
+    void get_LoadsOnceThenHits() {
+        when(gameRepository.findByIdIn(List.of(1L))).thenReturn(List.of(game(1L, "Hades", 7L)));
+
+        Optional<GameRecord> first = cache.get(1L);
+        Optional<GameRecord> second = cache.get(1L);
+
+        assertTrue(first.isPresent());
+        assertEquals("Hades", first.get().getName());
+        assertEquals(Set.of(7L), first.get().getTagIds());
+        assertSame(first.get(), second.get());
+        verify(gameRepository, times(1)).findByIdIn(List.of(1L));
+
+        CacheStatsDTO stats = cache.stats();
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    void get_MissingGame_IsNotCached() {
+        when(gameRepository.findByIdIn(List.of(9L))).thenReturn(List.of());
+
+        assertTrue(cache.get(9L).isEmpty());
+        assertTrue(cache.get(9L).isEmpty());
+
+        verify(gameRepository, times(2)).findByIdIn(List.of(9L));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void get_ExpiredEntry_IsReloaded() {
+        when(gameRepository.findByIdIn(List.of(1L)))
+                .thenReturn(List.of(game(1L, "Hades", 7L)))
+                .thenReturn(List.of(game(1L, "Hades II", 7L)));
+
+        cache.get(1L);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("Hades", cache.get(1L).get().getName());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals("Hades II", cache.get(1L).get().getName());
+
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void get_OverCapacity_EvictsLeastRecentlyUsed() {
+        when(gameRepository.findByIdIn(anyList())).thenAnswer(inv -> {
+            Long id = inv.<List<Long>>getArgument(0).get(0);
+            return List.of(game(id, "game-" + id, null));
+        });
+
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        cache.get(3L);
+
+        cache.get(1L);
+        cache.get(2L);
+
+        verify(gameRepository, times(1)).findByIdIn(List.of(1L));
+        verify(gameRepository, times(2)).findByIdIn(List.of(2L));
+        assertEquals(2, cache.stats().getSize());
+        assertEquals(2, cache.stats().getEvictions());
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        when(gameRepository.findByIdIn(List.of(1L))).thenReturn(List.of(game(1L, "Hades", 7L)));
+
+        cache.get(1L);
+        cache.invalidate(1L);
+        cache.get(1L);
+
+        verify(gameRepository, times(2)).findByIdIn(List.of(1L));
+    }
+
+    @Test
+    void invalidateDuringLoad_DoesNotStoreStaleRecord() {
+        when(gameRepository.findByIdIn(List.of(1L))).thenAnswer(inv -> {
+            cache.invalidate(1L);
+            return List.of(game(1L, "Hades", 7L));
+        });
+
+        assertTrue(cache.get(1L).isPresent());
+
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void invalidateAll_EmptiesCache() {
+        when(gameRepository.findByIdIn(List.of(1L))).thenReturn(List.of(game(1L, "Hades", 7L)));
+
+        cache.get(1L);
+        cache.invalidateAll();
+
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void toReference_CarriesIdAndName() {
+        Game reference = new GameRecord(4L, "Celeste", Set.of()).toReference();
+
+        assertEquals(4L, reference.getId());
+        assertEquals("Celeste", reference.getName());
+        assertTrue(reference.getTags().isEmpty());
+    }
+
+    private static Game game(Long id, String name, Long tagId) {
+        Game game = new Game(name);
+        game.setId(id);
+        if (tagId != null) {
+            GameTag tag = new GameTag();
+            tag.setId(tagId);
+            tag.setName("tag-" + tagId);
+            game.addTag(tag);
+        }
+        return game;
+    }
+}
@@ -1,9 +1,20 @@
 package com.example.controller;
 
 import com.example.project.controller.GameController;
+import com.example.project.exception.BadRequestException;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
+import com.example.project.model.BulkTagRequestDTO;
+import com.example.project.model.BulkTagResultDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.ExportFormat;
 import com.example.project.model.Game;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.model.ImportErrorDTO;
+import com.example.project.model.ImportReportDTO;
+import com.example.project.model.SuggestionDTO;
+import com.example.project.service.ExportService;
+import com.example.project.service.GameImportService;
 import com.example.project.service.GameService;
 import com.example.project.service.GameTagService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,11 +26,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +51,12 @@ class GameControllerTest {
     @Mock
     private GameTagService gameTagService;
 
+    @Mock
+    private GameImportService gameImportService;
+
+    @Mock
+    private ExportService exportService;
+
     @InjectMocks
     private GameController gameController;
 
@@ -95,18 +116,29 @@ class GameControllerTest {
         game2.setId(2L);
         game2.setName("Hades");
 
-        List<Game> games = Arrays.asList(game, game2);
-        when(gameService.getAll()).thenReturn(games);
+        CursorPageDTO<Game> page = new CursorPageDTO<>(Arrays.asList(game, game2), "next");
+        when(gameService.getPage(null, 2, "id", false)).thenReturn(page);
 
-        mockMvc.perform(get("/rest/games"))
+        mockMvc.perform(get("/rest/games").param("size", "2"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("Elden Ring"))
-                .andExpect(jsonPath("$[1].id").value(2L))
-                .andExpect(jsonPath("$[1].name").value("Hades"));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].name").value("Elden Ring"))
+                .andExpect(jsonPath("$.items[1].id").value(2L))
+                .andExpect(jsonPath("$.items[1].name").value("Hades"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(gameService).getPage(null, 2, "id", false);
+    }
+
+    @Test
+    void getAllGames_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(gameService.getPage("bogus", null, "id", false)).thenThrow(new BadRequestException("Invalid cursor."));
 
-        verify(gameService).getAll();
+        mockMvc.perform(get("/rest/games").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof BadRequestException));
     }
 
     @Test
@@ -132,14 +164,88 @@ class GameControllerTest {
 
     @Test
     void searchByName_Success() throws Exception {
-        when(gameService.searchByName("eld")).thenReturn(Arrays.asList(game));
+        when(gameService.searchByName("eld", null)).thenReturn(List.of(new GameSummaryDTO(1L, "Elden Ring")));
 
         mockMvc.perform(get("/rest/games/search/name").param("name", "eld"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("Elden Ring"));
 
-        verify(gameService).searchByName("eld");
+        verify(gameService).searchByName("eld", null);
+    }
+
+    @Test
+    void fuzzySearchByName_Success() throws Exception {
+        when(gameService.fuzzySearchByName("Eldn Ring", null, null)).thenReturn(List.of(new GameSummaryDTO(1L, "Elden Ring")));
+
+        mockMvc.perform(get("/rest/games/search/fuzzy").param("name", "Eldn Ring"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Elden Ring"));
+
+        verify(gameService).fuzzySearchByName("Eldn Ring", null, null);
+    }
+
+    @Test
+    void autocomplete_Success() throws Exception {
+        when(gameService.autocomplete("eld", 5)).thenReturn(List.of(new SuggestionDTO(1L, "Elden Ring")));
+
+        mockMvc.perform(get("/rest/games/autocomplete").param("prefix", "eld").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].name").value("Elden Ring"));
+
+        verify(gameService).autocomplete("eld", 5);
+    }
+
+    @Test
+    void searchByTagQuery_Success() throws Exception {
+        CursorPageDTO<Game> page = new CursorPageDTO<>(List.of(game), null);
+        when(gameService.searchByTagQuery("rpg AND NOT survival", null, null, false)).thenReturn(page);
+
+        mockMvc.perform(get("/rest/games/search/tags").param("query", "rpg AND NOT survival"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Elden Ring"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        verify(gameService).searchByTagQuery("rpg AND NOT survival", null, null, false);
+    }
+
+    @Test
+    void searchByTagQuery_WithFacets_ReturnsCounts() throws Exception {
+        CursorPageDTO<Game> page = new CursorPageDTO<>(List.of(game), null);
+        page.setFacets(Map.of("RPG", 1204));
+        when(gameService.searchByTagQuery("rpg", null, null, true)).thenReturn(page);
+
+        mockMvc.perform(get("/rest/games/search/tags").param("query", "rpg").param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.RPG").value(1204));
+    }
+
+    @Test
+    void searchByTags_WithFacets_ReturnsPageWithCounts() throws Exception {
+        CursorPageDTO<Game> page = new CursorPageDTO<>(List.of(game), null);
+        page.setFacets(Map.of("RPG", 1));
+        when(gameService.searchByTagsWithFacets(List.of("rpg", "indie"))).thenReturn(page);
+
+        mockMvc.perform(get("/rest/games/search/tags").param("tags", "rpg", "indie").param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Elden Ring"))
+                .andExpect(jsonPath("$.facets.RPG").value(1));
+
+        verify(gameService, never()).searchByTags(any());
+    }
+
+    @Test
+    void searchByTagQuery_MalformedQuery_ReturnsBadRequest() throws Exception {
+        when(gameService.searchByTagQuery("rpg AND", null, null, false))
+                .thenThrow(new BadRequestException("Tag query ended unexpectedly."));
+
+        mockMvc.perform(get("/rest/games/search/tags").param("query", "rpg AND"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -163,4 +269,74 @@ class GameControllerTest {
 
         verify(gameService).removeTag(1L, 2L);
     }
+
+    @Test
+    void importGames_ReturnsReport() throws Exception {
+        ImportReportDTO report = new ImportReportDTO();
+        report.setLinesRead(2);
+        report.setGamesCreated(1);
+        report.setErrorCount(1);
+        report.getErrors().add(new ImportErrorDTO(2, "Malformed JSON."));
+        when(gameImportService.importGames(any())).thenReturn(report);
+
+        mockMvc.perform(post("/rest/games/import")
+                .contentType("application/x-ndjson")
+                .content("{\"name\":\"Hades\",\"tags\":[\"RPG\"]}\n{bad\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linesRead").value(2))
+                .andExpect(jsonPath("$.gamesCreated").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Malformed JSON."));
+
+        verify(gameImportService).importGames(any());
+    }
+
+    @Test
+    void bulkUpdateTags_Success() throws Exception {
+        when(gameService.bulkUpdateTags(any(BulkTagRequestDTO.class))).thenReturn(new BulkTagResultDTO(2, 1));
+
+        mockMvc.perform(post("/rest/games/tags/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"action\":\"add\",\"pairs\":[{\"gameId\":1,\"tagId\":2},{\"gameId\":3,\"tagId\":2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.changed").value(1));
+
+        verify(gameService).bulkUpdateTags(any(BulkTagRequestDTO.class));
+    }
+
+    @Test
+    void bulkUpdateTags_MissingAction_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/rest/games/tags/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"pairs\":[{\"gameId\":1,\"tagId\":2}]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void exportGames_StreamsNdjsonByDefault() throws Exception {
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(1).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportGames(eq(ExportFormat.NDJSON), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/rest/games/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void exportGames_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/rest/games/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exportService);
+    }
 }
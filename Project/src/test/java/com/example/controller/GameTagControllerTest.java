@@ -4,6 +4,7 @@ import com.example.project.controller.GameTagController;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
 import com.example.project.model.GameTag;
+import com.example.project.model.SuggestionDTO;
 import com.example.project.service.GameTagService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -121,4 +122,16 @@ class GameTagControllerTest {
 
         verify(tagService).delete(1L);
     }
+
+    @Test
+    void autocomplete_Success() throws Exception {
+        when(tagService.autocomplete("rp", null)).thenReturn(List.of(new SuggestionDTO(1L, "RPG")));
+
+        mockMvc.perform(get("/rest/tags/autocomplete").param("prefix", "rp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("RPG"));
+
+        verify(tagService).autocomplete("rp", null);
+    }
 }
@@ -3,27 +3,46 @@ package com.example.controller;
 import com.example.project.controller.PurchaseController;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
-import com.example.project.model.Game;
-import com.example.project.model.Purchase;
+import com.example.project.exception.ServiceUnavailableException;
+import com.example.project.model.CheckoutItemDTO;
+import com.example.project.model.CheckoutLineDTO;
+import com.example.project.model.CheckoutResultDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.ExportFormat;
 import com.example.project.model.PurchaseCreateRequestDTO;
-import com.example.project.model.User;
+import com.example.project.model.PurchaseHistoryItemDTO;
+import com.example.project.model.PurchaseReceiptDTO;
+import com.example.project.model.PurchaseRequestState;
+import com.example.project.model.PurchaseRequestStatusDTO;
+import com.example.project.queue.PurchasePipeline;
+import com.example.project.queue.UserWriteQueue;
+import com.example.project.service.ExportService;
 import com.example.project.service.PurchaseService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
-import java.util.Arrays;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,14 +53,21 @@ class PurchaseControllerTest {
     @Mock
     private PurchaseService purchaseService;
 
+    @Mock
+    private ExportService exportService;
+
+    @Mock
+    private UserWriteQueue userWriteQueue;
+
+    @Mock
+    private PurchasePipeline purchasePipeline;
+
     @InjectMocks
     private PurchaseController purchaseController;
 
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
-    private Purchase purchase;
-
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
@@ -54,24 +80,16 @@ class PurchaseControllerTest {
                 .setValidator(validator)
                 .build();
 
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("mihai");
-
-        Game game = new Game();
-        game.setId(2L);
-        game.setName("Hades");
-
-        purchase = new Purchase();
-        purchase.setId(1L);
-        purchase.setUser(user);
-        purchase.setGame(game);
-        purchase.setPriceCents(1999L);
+        // The queue runs operations inline here; its ordering is covered by
+        // UserWriteQueueTest.
+        lenient().when(userWriteQueue.submit(any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
     void purchaseGame_Success() throws Exception {
-        when(purchaseService.create(1L, 2L, 1999L)).thenReturn(purchase);
+        when(purchaseService.create(1L, 2L, 1999L))
+                .thenReturn(new PurchaseReceiptDTO(10L, 1L, 2L, "Hades", 1999L, Instant.now(), 3001L));
 
         PurchaseCreateRequestDTO req = new PurchaseCreateRequestDTO();
         req.setPriceCents(1999L);
@@ -80,11 +98,55 @@ class PurchaseControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(req)))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.priceCents").value(1999));
+                .andExpect(jsonPath("$.purchaseId").value(10))
+                .andExpect(jsonPath("$.gameName").value("Hades"))
+                .andExpect(jsonPath("$.priceCents").value(1999))
+                .andExpect(jsonPath("$.balanceCents").value(3001));
 
         verify(purchaseService).create(1L, 2L, 1999L);
     }
 
+    @Test
+    void checkout_Success() throws Exception {
+        when(purchaseService.checkout(eq(1L), anyList())).thenReturn(new CheckoutResultDTO(1L, 2998L, 2L, List.of(
+                new CheckoutLineDTO(10L, 2L, "Hades", 1999L, Instant.now()),
+                new CheckoutLineDTO(11L, 3L, "Celeste", 999L, Instant.now()))));
+
+        mockMvc.perform(post("/rest/purchases/user/{userId}/checkout", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\": [{\"gameId\": 2, \"priceCents\": 1999}, {\"gameId\": 3, \"priceCents\": 999}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.totalCents").value(2998))
+                .andExpect(jsonPath("$.purchases.length()").value(2))
+                .andExpect(jsonPath("$.purchases[1].gameName").value("Celeste"));
+
+        ArgumentCaptor<List<CheckoutItemDTO>> items = ArgumentCaptor.captor();
+        verify(purchaseService).checkout(eq(1L), items.capture());
+        assertEquals(2, items.getValue().size());
+        assertEquals(999L, items.getValue().get(1).getPriceCents());
+        verify(userWriteQueue).submit(eq(1L), any());
+    }
+
+    @Test
+    void checkout_EmptyCart_Returns400() throws Exception {
+        mockMvc.perform(post("/rest/purchases/user/{userId}/checkout", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(purchaseService);
+    }
+
+    @Test
+    void checkout_NegativePrice_Returns400() throws Exception {
+        mockMvc.perform(post("/rest/purchases/user/{userId}/checkout", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\": [{\"gameId\": 2, \"priceCents\": -1}]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(purchaseService);
+    }
+
     @Test
     void purchaseGame_UserNotFound_Returns404() throws Exception {
         when(purchaseService.create(1L, 2L, 1999L)).thenThrow(new NotFoundException("User not found"));
@@ -112,15 +174,136 @@ class PurchaseControllerTest {
         verify(purchaseService).create(1L, 2L, 1999L);
     }
 
+    @Test
+    void purchaseGame_QueueFull_Returns503() throws Exception {
+        when(userWriteQueue.submit(eq(1L), any()))
+                .thenThrow(new ServiceUnavailableException("Too many pending operations for this user, retry later."));
+
+        PurchaseCreateRequestDTO req = new PurchaseCreateRequestDTO();
+        req.setPriceCents(1999L);
+
+        mockMvc.perform(post("/rest/purchases/user/{userId}/game/{gameId}", 1L, 2L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isServiceUnavailable());
+
+        verify(purchaseService, never()).create(any(), any(), any());
+    }
+
+    @Test
+    void purchaseGameAsync_Returns202WithStatusLocation() throws Exception {
+        when(purchasePipeline.submit(1L, 2L, 1999L)).thenReturn(new PurchaseRequestStatusDTO("abc", 1L, 2L, 1999L,
+                PurchaseRequestState.QUEUED, Instant.now()));
+
+        mockMvc.perform(post("/rest/purchases/user/{userId}/game/{gameId}/async", 1L, 2L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"priceCents\":1999}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/rest/purchases/requests/abc"))
+                .andExpect(jsonPath("$.requestId").value("abc"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+
+        verifyNoInteractions(purchaseService, userWriteQueue);
+    }
+
+    @Test
+    void purchaseGameAsync_PipelineFull_Returns503() throws Exception {
+        when(purchasePipeline.submit(1L, 2L, 1999L))
+                .thenThrow(new ServiceUnavailableException("Too many queued purchases, retry later."));
+
+        mockMvc.perform(post("/rest/purchases/user/{userId}/game/{gameId}/async", 1L, 2L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"priceCents\":1999}"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getPurchaseRequest_Succeeded_ReturnsReceipt() throws Exception {
+        PurchaseRequestStatusDTO done = new PurchaseRequestStatusDTO("abc", 1L, 2L, 1999L,
+                PurchaseRequestState.SUCCEEDED, Instant.now());
+        done.setReceipt(new PurchaseReceiptDTO(10L, 1L, 2L, "Hades", 1999L, Instant.now(), 3001L));
+        when(purchasePipeline.status("abc")).thenReturn(Optional.of(done));
+
+        mockMvc.perform(get("/rest/purchases/requests/{requestId}", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.receipt.purchaseId").value(10))
+                .andExpect(jsonPath("$.error").doesNotExist());
+    }
+
+    @Test
+    void getPurchaseRequest_Unknown_Returns404() throws Exception {
+        when(purchasePipeline.status("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/rest/purchases/requests/{requestId}", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getPurchasesByUser_Success() throws Exception {
-        List<Purchase> purchases = Arrays.asList(purchase);
-        when(purchaseService.getByUser(1L)).thenReturn(purchases);
+        when(purchaseService.getHistory(1L, Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-02-01T00:00:00Z"),
+                "abc", 10)).thenReturn(new CursorPageDTO<>(List.of(
+                        new PurchaseHistoryItemDTO(7L, 2L, "Hades", 1999L, Instant.parse("2026-01-15T10:00:00Z"))),
+                        "next"));
+
+        mockMvc.perform(get("/rest/purchases/user/{userId}", 1L)
+                .param("from", "2026-01-01T00:00:00Z")
+                .param("to", "2026-02-01T00:00:00Z")
+                .param("cursor", "abc")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].gameId").value(2))
+                .andExpect(jsonPath("$.items[0].gameName").value("Hades"))
+                .andExpect(jsonPath("$.items[0].priceCents").value(1999))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getPurchasesByUser_NoFilters_PassesNulls() throws Exception {
+        when(purchaseService.getHistory(1L, null, null, null, null)).thenReturn(new CursorPageDTO<>(List.of(), null));
 
         mockMvc.perform(get("/rest/purchases/user/{userId}", 1L))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getPurchasesByUser_MalformedFrom_Returns400() throws Exception {
+        mockMvc.perform(get("/rest/purchases/user/{userId}", 1L).param("from", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(purchaseService);
+    }
+
+    @Test
+    void exportPurchases_StreamsCsv() throws Exception {
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(2).write("id,userId\n5,1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportPurchases(eq(1L), eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/rest/purchases/export").param("userId", "1").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,userId\n5,1\n"));
+
+        verify(exportService).checkPurchaseExport(1L);
+    }
+
+    @Test
+    void exportPurchases_UnknownUser_ReturnsNotFound() throws Exception {
+        doThrow(new NotFoundException("User not found")).when(exportService).checkPurchaseExport(99L);
+
+        mockMvc.perform(get("/rest/purchases/export").param("userId", "99"))
+                .andExpect(status().isNotFound());
 
-        verify(purchaseService).getByUser(1L);
+        verify(exportService, never()).exportPurchases(any(), any(), any());
     }
 }
@@ -0,0 +1,128 @@
+package com.example.controller;
+
+import com.example.project.controller.StatsController;
+import com.example.project.model.BackpressurePolicy;
+import com.example.project.model.CacheStatsDTO;
+import com.example.project.model.NameFilterStatsDTO;
+import com.example.project.model.PurchasePipelineStatsDTO;
+import com.example.project.model.WriteQueueStatsDTO;
+import com.example.project.model.WriteStripeStatsDTO;
+import com.example.project.service.StatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsControllerTest {
+
+    @Mock
+    private StatsService statsService;
+
+    @InjectMocks
+    private StatsController statsController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(statsController).build();
+    }
+
+    @Test
+    void getGameCacheStats_Success() throws Exception {
+        when(statsService.getGameCacheStats()).thenReturn(new CacheStatsDTO(3, 10000, 6, 2, 1));
+
+        mockMvc.perform(get("/rest/stats/game-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(jsonPath("$.maxSize").value(10000))
+                .andExpect(jsonPath("$.hits").value(6))
+                .andExpect(jsonPath("$.misses").value(2))
+                .andExpect(jsonPath("$.evictions").value(1))
+                .andExpect(jsonPath("$.hitRate").value(0.75));
+
+        verify(statsService).getGameCacheStats();
+    }
+
+    @Test
+    void getUserWriteQueueStats_Success() throws Exception {
+        when(statsService.getUserWriteQueueStats()).thenReturn(new WriteQueueStatsDTO(500, List.of(
+                new WriteStripeStatsDTO(0, 2, 40, 1, 0, 1.5, 12.0),
+                new WriteStripeStatsDTO(1, 1, 10, 0, 0, 0.5, 3.0))));
+
+        mockMvc.perform(get("/rest/stats/user-write-queue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacityPerStripe").value(500))
+                .andExpect(jsonPath("$.queueDepth").value(3))
+                .andExpect(jsonPath("$.stripes[0].executed").value(40))
+                .andExpect(jsonPath("$.stripes[0].rejected").value(1))
+                .andExpect(jsonPath("$.stripes[0].maxWaitMillis").value(12.0))
+                .andExpect(jsonPath("$.stripes[1].queueDepth").value(1));
+
+        verify(statsService).getUserWriteQueueStats();
+    }
+
+    @Test
+    void getNameFilterStats_Success() throws Exception {
+        NameFilterStatsDTO usernames = new NameFilterStatsDTO();
+        usernames.setName("usernames");
+        usernames.setReady(true);
+        usernames.setLookupsAvoided(99);
+        usernames.setFalsePositives(1);
+        when(statsService.getNameFilterStats()).thenReturn(List.of(usernames));
+
+        mockMvc.perform(get("/rest/stats/name-filters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("usernames"))
+                .andExpect(jsonPath("$[0].lookupsAvoided").value(99))
+                .andExpect(jsonPath("$[0].observedFalsePositiveRate").value(0.01));
+
+        verify(statsService).getNameFilterStats();
+    }
+
+    @Test
+    void getIdempotencyCacheStats_Success() throws Exception {
+        when(statsService.getIdempotencyCacheStats()).thenReturn(new CacheStatsDTO(2, 10000, 9, 3, 0));
+
+        mockMvc.perform(get("/rest/stats/idempotency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hits").value(9))
+                .andExpect(jsonPath("$.hitRate").value(0.75));
+
+        verify(statsService).getIdempotencyCacheStats();
+    }
+
+    @Test
+    void getPurchasePipelineStats_Success() throws Exception {
+        PurchasePipelineStatsDTO stats = new PurchasePipelineStatsDTO();
+        stats.setWorkers(4);
+        stats.setQueueDepth(12);
+        stats.setBackpressure(BackpressurePolicy.REJECT);
+        stats.setAccepted(300);
+        stats.setRejected(2);
+        stats.setMeanBatchSize(7.5);
+        when(statsService.getPurchasePipelineStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/rest/stats/purchase-pipeline"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workers").value(4))
+                .andExpect(jsonPath("$.queueDepth").value(12))
+                .andExpect(jsonPath("$.backpressure").value("REJECT"))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.meanBatchSize").value(7.5));
+
+        verify(statsService).getPurchasePipelineStats();
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.controller;
 
 import com.example.project.controller.UserController;
+import com.example.project.exception.BadRequestException;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
-import com.example.project.model.Game;
+import com.example.project.model.BalanceTopUpRequestDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.GameSummaryDTO;
 import com.example.project.model.User;
+import com.example.project.model.UserSummaryDTO;
+import com.example.project.queue.UserWriteQueue;
 import com.example.project.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,9 +24,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,6 +39,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserWriteQueue userWriteQueue;
+
     @InjectMocks
     private UserController userController;
 
@@ -91,18 +98,28 @@ class UserControllerTest {
 
     @Test
     void getAllUsers_Success() throws Exception {
-        User user2 = new User();
-        user2.setId(2L);
-        user2.setUsername("alex");
-
-        List<User> users = Arrays.asList(user, user2);
-        when(userService.getAll()).thenReturn(users);
+        List<UserSummaryDTO> users = Arrays.asList(
+                new UserSummaryDTO(1L, "mihai", 500L, 3L),
+                new UserSummaryDTO(2L, "alex", 0L, 0L));
+        when(userService.getPage(null, 2, List.of("ownedGames", "wishlist")))
+                .thenReturn(new CursorPageDTO<>(users, "next"));
 
-        mockMvc.perform(get("/rest/users"))
+        mockMvc.perform(get("/rest/users").param("size", "2").param("expand", "ownedGames,wishlist"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].ownedGameCount").value(3))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(userService).getPage(null, 2, List.of("ownedGames", "wishlist"));
+    }
+
+    @Test
+    void getAllUsers_UnsupportedExpand_Returns400() throws Exception {
+        when(userService.getPage(null, null, List.of("purchases")))
+                .thenThrow(new BadRequestException("Unsupported expand: purchases"));
 
-        verify(userService).getAll();
+        mockMvc.perform(get("/rest/users").param("expand", "purchases"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -118,21 +135,33 @@ class UserControllerTest {
 
     @Test
     void getOwnedGames_Success() throws Exception {
-        Game game = new Game();
-        game.setId(10L);
-        game.setName("Hades");
+        List<GameSummaryDTO> owned = List.of(new GameSummaryDTO(10L, "Hades"));
+        when(userService.getOwnedGames(1L, null, 5, "name")).thenReturn(new CursorPageDTO<>(owned, null));
 
-        Set<Game> owned = new HashSet<>();
-        owned.add(game);
+        mockMvc.perform(get("/rest/users/{userId}/owned-games", 1L).param("size", "5").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Hades"));
 
-        when(userService.getOwnedGames(1L)).thenReturn(owned);
+        verify(userService).getOwnedGames(1L, null, 5, "name");
+    }
 
-        mockMvc.perform(get("/rest/users/{userId}/owned-games", 1L))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].name").value("Hades"));
+    @Test
+    void ownsGame_Owned_Returns204() throws Exception {
+        when(userService.ownsGame(1L, 10L)).thenReturn(true);
 
-        verify(userService).getOwnedGames(1L);
+        mockMvc.perform(get("/rest/users/{userId}/owned-games/{gameId}", 1L, 10L))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(head("/rest/users/{userId}/owned-games/{gameId}", 1L, 10L))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void ownsGame_NotOwned_Returns404() throws Exception {
+        when(userService.ownsGame(1L, 11L)).thenReturn(false);
+
+        mockMvc.perform(head("/rest/users/{userId}/owned-games/{gameId}", 1L, 11L))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -156,4 +185,24 @@ class UserControllerTest {
 
         verify(userService).removeOwnedGame(1L, 10L);
     }
+
+    @Test
+    void topUpBalance_RunsThroughUserQueue() throws Exception {
+        user.setBalanceCents(500L);
+        when(userWriteQueue.submit(eq(1L), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(userService.topUpBalance(1L, 500L)).thenReturn(user);
+
+        BalanceTopUpRequestDTO req = new BalanceTopUpRequestDTO();
+        req.setAmountCents(500L);
+
+        mockMvc.perform(post("/rest/users/{id}/balance", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balanceCents").value(500));
+
+        verify(userWriteQueue).submit(eq(1L), any());
+        verify(userService).topUpBalance(1L, 500L);
+    }
 }
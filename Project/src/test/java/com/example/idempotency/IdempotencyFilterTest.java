@@ -0,0 +1,259 @@
+package com.example.idempotency;
+
+import com.example.project.idempotency.IdempotencyFilter;
+import com.example.project.idempotency.IdempotencyStore;
+import com.example.project.model.IdempotentResponseDTO;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String TOP_UP = "/rest/users/1/balance";
+
+    @Mock
+    private IdempotencyStore store;
+
+    private IdempotencyFilter filter;
+
+    /** Stands in for the controller: counts calls and echoes the body it read with the given status. */
+    private final AtomicInteger handled = new AtomicInteger();
+    private int handlerStatus = 200;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(store, List.of("/rest/users/*/balance", "/rest/purchases/user/*/game/*"), 64);
+    }
+
+    @Test
+    void withoutHeader_PassesThrough() throws Exception {
+        MockHttpServletResponse response = run(request(TOP_UP, null, "{\"amountCents\":500}"));
+
+        assertEquals(1, handled.get());
+        assertEquals("{\"amountCents\":500}", response.getContentAsString());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void otherPath_PassesThrough() throws Exception {
+        run(request("/rest/games", "key-1", "{}"));
+
+        assertEquals(1, handled.get());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void firstRequest_RunsAndRecordsTheResponse() throws Exception {
+        handlerStatus = 201;
+
+        MockHttpServletResponse response = run(request(TOP_UP, "key-1", "{\"amountCents\":500}"));
+
+        assertEquals(1, handled.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"amountCents\":500}", response.getContentAsString());
+        ArgumentCaptor<String> recordKey = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        verify(store).claim(recordKey.capture(), requestHash.capture());
+        verify(store).complete(recordKey.getValue(), requestHash.getValue(), 201, "application/json",
+                "{\"amountCents\":500}");
+        verify(store, never()).release(any());
+    }
+
+    @Test
+    void retry_IsReplayedWithoutRunning() throws Exception {
+        when(store.claim(anyString(), anyString())).thenAnswer(inv -> new IdempotentResponseDTO(
+                inv.getArgument(1), 201, "application/json", "{\"balanceCents\":500}"));
+
+        MockHttpServletResponse response = run(request(TOP_UP, "key-1", "{\"amountCents\":500}"));
+
+        assertEquals(0, handled.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{\"balanceCents\":500}", response.getContentAsString());
+        verify(store, never()).complete(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void retry_WithDifferentBody_Returns400() throws Exception {
+        when(store.claim(anyString(), anyString()))
+                .thenReturn(new IdempotentResponseDTO("another-hash", 201, "application/json", "{}"));
+
+        MockHttpServletResponse response = run(request(TOP_UP, "key-1", "{\"amountCents\":900}"));
+
+        assertEquals(0, handled.get());
+        assertEquals(400, response.getStatus());
+    }
+
+    @Test
+    void retry_WhileFirstStillRunning_Returns409() throws Exception {
+        when(store.claim(anyString(), anyString())).thenReturn(new IdempotentResponseDTO(null, null, null, null));
+
+        MockHttpServletResponse response = run(request(TOP_UP, "key-1", "{\"amountCents\":500}"));
+
+        assertEquals(0, handled.get());
+        assertEquals(409, response.getStatus());
+    }
+
+    @Test
+    void completeFails_RetryAfterThePendingTimeout_Returns409() throws Exception {
+        doThrow(new QueryTimeoutException("idempotency_records"))
+                .when(store).complete(anyString(), anyString(), anyInt(), any(), any());
+
+        MockHttpServletResponse first = run(request(TOP_UP, "key-1", "{\"amountCents\":500}"));
+
+        assertEquals(200, first.getStatus());
+        verify(store, never()).release(any());
+
+        // Long after the request, the table still holds the unfinished claim, so the retry must not run.
+        when(store.claim(anyString(), anyString())).thenReturn(new IdempotentResponseDTO(null, null, null, null));
+
+        MockHttpServletResponse retry = run(request(TOP_UP, "key-1", "{\"amountCents\":500}"));
+
+        assertEquals(409, retry.getStatus());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void cachedBody_CanBeReadThroughAReadListener() throws Exception {
+        StringBuilder events = new StringBuilder();
+        HttpServlet handler = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServletInputStream in = req.getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        events.append("data:").append(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        events.append(";done");
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        events.append(";error");
+                    }
+                });
+            }
+        };
+
+        filter.doFilter(request(TOP_UP, "key-1", "{\"amountCents\":500}"), new MockHttpServletResponse(),
+                new MockFilterChain(handler));
+
+        assertEquals("data:{\"amountCents\":500};done", events.toString());
+    }
+
+    @Test
+    void failedResponse_ReleasesTheKey() throws Exception {
+        handlerStatus = 404;
+
+        MockHttpServletResponse response = run(request(TOP_UP, "key-1", "{\"amountCents\":500}"));
+
+        assertEquals(404, response.getStatus());
+        verify(store).release(anyString());
+        verify(store, never()).complete(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void sameKeyOnAnotherPath_IsAnotherRecord() throws Exception {
+        run(request(TOP_UP, "key-1", "{}"));
+        run(request("/rest/users/2/balance", "key-1", "{}"));
+
+        ArgumentCaptor<String> recordKeys = ArgumentCaptor.forClass(String.class);
+        verify(store, times(2)).claim(recordKeys.capture(), anyString());
+        assertNotEquals(recordKeys.getAllValues().get(0), recordKeys.getAllValues().get(1));
+    }
+
+    @Test
+    void oversizedBody_Returns413WithoutClaiming() throws Exception {
+        MockHttpServletResponse response = run(request(TOP_UP, "key-1", "{\"note\":\"" + "x".repeat(64) + "\"}"));
+
+        assertEquals(413, response.getStatus());
+        assertEquals(0, handled.get());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void oversizedBodyWithoutContentLength_Returns413() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", TOP_UP) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.addHeader(IdempotencyFilter.HEADER, "key-1");
+        request.setContent("x".repeat(65).getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletResponse response = run(request);
+
+        assertEquals(413, response.getStatus());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void bodyAtTheLimit_Runs() throws Exception {
+        MockHttpServletResponse response = run(request(TOP_UP, "key-1", "x".repeat(64)));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void blankKey_Returns400() throws Exception {
+        MockHttpServletResponse response = run(request(TOP_UP, " ", "{}"));
+
+        assertEquals(400, response.getStatus());
+        assertEquals(0, handled.get());
+        verifyNoInteractions(store);
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet handler = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                handled.incrementAndGet();
+                byte[] body = req.getInputStream().readAllBytes();
+                resp.setStatus(handlerStatus);
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(body);
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(handler));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String uri, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
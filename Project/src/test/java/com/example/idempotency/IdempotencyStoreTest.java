@@ -0,0 +1,139 @@
+package com.example.idempotency;
+
+import com.example.project.idempotency.IdempotencyStore;
+import com.example.project.model.CacheStatsDTO;
+import com.example.project.model.IdempotentResponseDTO;
+import com.example.project.repository.IdempotencyJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final long TTL_MS = 1000;
+
+    @Mock
+    private IdempotencyJdbcRepository repository;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, 2, TTL_MS, 3, now::get);
+    }
+
+    @Test
+    void claim_NewKey_ClaimsInTheTable() {
+        assertNull(store.claim("k1", "h1"));
+
+        verify(repository).claim("k1", "h1", TTL_MS);
+    }
+
+    @Test
+    void claim_AfterComplete_AnsweredFromMemory() {
+        store.claim("k1", "h1");
+        store.complete("k1", "h1", 201, "application/json", "{\"id\":1}");
+
+        IdempotentResponseDTO replay = store.claim("k1", "h1");
+
+        assertEquals(201, replay.getStatus());
+        assertEquals("h1", replay.getRequestHash());
+        assertEquals("{\"id\":1}", replay.getBody());
+        verify(repository).complete("k1", 201, "application/json", "{\"id\":1}");
+        verify(repository, times(1)).claim(any(), any(), anyLong());
+
+        CacheStatsDTO stats = store.stats();
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void claim_CompletedInTheTable_IsCachedAfterTheFirstRead() {
+        when(repository.claim("k1", "h1", TTL_MS))
+                .thenReturn(new IdempotentResponseDTO("h1", 200, "application/json", "{}"));
+
+        store.claim("k1", "h1");
+        store.claim("k1", "h1");
+
+        verify(repository, times(1)).claim("k1", "h1", TTL_MS);
+    }
+
+    @Test
+    void claim_PendingInTheTable_IsNotCached() {
+        when(repository.claim("k1", "h1", TTL_MS))
+                .thenReturn(new IdempotentResponseDTO("h1", null, null, null));
+
+        assertFalse(store.claim("k1", "h1").isCompleted());
+        assertFalse(store.claim("k1", "h1").isCompleted());
+
+        verify(repository, times(2)).claim("k1", "h1", TTL_MS);
+    }
+
+    @Test
+    void claim_CompleteFailed_StaysPendingLongAfterTheRequest() {
+        store.claim("k1", "h1");
+        doThrow(new QueryTimeoutException("idempotency_records")).when(repository).complete("k1", 201, null, "{}");
+        assertThrows(QueryTimeoutException.class, () -> store.complete("k1", "h1", 201, null, "{}"));
+        when(repository.claim("k1", "h1", TTL_MS)).thenReturn(new IdempotentResponseDTO("h1", null, null, null));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS - 1));
+
+        assertFalse(store.claim("k1", "h1").isCompleted());
+
+        assertEquals(0, store.stats().getSize());
+    }
+
+    @Test
+    void claim_AfterTtl_GoesBackToTheTable() {
+        store.complete("k1", "h1", 200, "application/json", "{}");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS));
+
+        assertNull(store.claim("k1", "h1"));
+
+        verify(repository).claim("k1", "h1", TTL_MS);
+        assertEquals(0, store.stats().getSize());
+    }
+
+    @Test
+    void complete_BeyondCapacity_EvictsLeastRecentlyUsed() {
+        store.complete("k1", "h1", 200, null, "1");
+        store.complete("k2", "h2", 200, null, "2");
+        store.claim("k1", "h1");
+        store.complete("k3", "h3", 200, null, "3");
+
+        assertNull(store.claim("k2", "h2"));
+
+        assertEquals("1", store.claim("k1", "h1").getBody());
+        assertEquals("3", store.claim("k3", "h3").getBody());
+        verify(repository, times(1)).claim(any(), any(), anyLong());
+        assertEquals(1, store.stats().getEvictions());
+    }
+
+    @Test
+    void release_DropsTheClaim() {
+        store.release("k1");
+
+        verify(repository).release("k1");
+    }
+
+    @Test
+    void cleanUp_DeletesBatchesUntilAShortOne() {
+        when(repository.deleteExpired(3)).thenReturn(3, 3, 1);
+
+        assertEquals(7, store.cleanUp());
+
+        verify(repository, times(3)).deleteExpired(3);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.index;
+
+import com.example.project.index.CompressedBitmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    @Test
+    void addRemoveContains_AcrossContainerKinds() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i * 2);
+        }
+        bitmap.add(200_000);
+
+        assertEquals(10_001, bitmap.cardinality());
+        assertTrue(bitmap.contains(19_998));
+        assertFalse(bitmap.contains(19_999));
+        assertTrue(bitmap.contains(200_000));
+
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.remove(i * 2);
+        }
+        assertEquals(1, bitmap.cardinality());
+        assertEquals(200_000, bitmap.nextValue(0));
+        assertEquals(-1, bitmap.nextValue(200_001));
+    }
+
+    @Test
+    void booleanOperations_MatchBitSet() {
+        Random random = new Random(42);
+        BitSet expectedA = new BitSet();
+        BitSet expectedB = new BitSet();
+        CompressedBitmap a = new CompressedBitmap();
+        CompressedBitmap b = new CompressedBitmap();
+        for (int i = 0; i < 50_000; i++) {
+            int x = random.nextInt(300_000);
+            int y = random.nextInt(i % 2 == 0 ? 300_000 : 70_000);
+            expectedA.set(x);
+            a.add(x);
+            expectedB.set(y);
+            b.add(y);
+        }
+
+        BitSet and = (BitSet) expectedA.clone();
+        and.and(expectedB);
+        BitSet or = (BitSet) expectedA.clone();
+        or.or(expectedB);
+        BitSet andNot = (BitSet) expectedA.clone();
+        andNot.andNot(expectedB);
+
+        assertEquals(toList(and), toList(CompressedBitmap.and(a, b)));
+        assertEquals(toList(or), toList(CompressedBitmap.or(a, b)));
+        assertEquals(toList(andNot), toList(CompressedBitmap.andNot(a, b)));
+        assertEquals(and.cardinality(), CompressedBitmap.andCardinality(a, b));
+    }
+
+    @Test
+    void booleanOperations_OnArrayContainers_MatchBitSet() {
+        BitSet expectedA = new BitSet();
+        BitSet expectedB = new BitSet();
+        CompressedBitmap a = new CompressedBitmap();
+        CompressedBitmap b = new CompressedBitmap();
+        // 3000 values each, so every chunk stays an array but the union of
+        // the first chunk passes 4096 and has to become a bitmap.
+        for (int i = 0; i < 3000; i++) {
+            expectedA.set(i * 2);
+            a.add(i * 2);
+            expectedB.set(i * 3);
+            b.add(i * 3);
+        }
+        for (int i = 0; i < 100; i++) {
+            expectedA.set(70_000 + i);
+            a.add(70_000 + i);
+            expectedB.set(70_050 + i);
+            b.add(70_050 + i);
+        }
+
+        BitSet or = (BitSet) expectedA.clone();
+        or.or(expectedB);
+        BitSet andNot = (BitSet) expectedA.clone();
+        andNot.andNot(expectedB);
+        BitSet bAndNotA = (BitSet) expectedB.clone();
+        bAndNotA.andNot(expectedA);
+
+        CompressedBitmap union = CompressedBitmap.or(a, b);
+        assertEquals(toList(or), toList(union));
+        assertEquals(or.cardinality(), union.cardinality());
+        assertEquals(toList(andNot), toList(CompressedBitmap.andNot(a, b)));
+        assertEquals(toList(bAndNotA), toList(CompressedBitmap.andNot(b, a)));
+        assertTrue(CompressedBitmap.andNot(a, a).isEmpty());
+    }
+
+    private static List<Integer> toList(BitSet bits) {
+        List<Integer> values = new ArrayList<>();
+        bits.stream().forEach(values::add);
+        return values;
+    }
+
+    private static List<Integer> toList(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.index;
+
+import com.example.project.index.GameNameIndex;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.repository.GameRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameNameIndexTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @InjectMocks
+    private GameNameIndex gameNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(gameRepository.findAllSummaries()).thenReturn(List.of(
+                new GameSummaryDTO(1L, "Elden Ring"),
+                new GameSummaryDTO(2L, "Ring"),
+                new GameSummaryDTO(3L, "Ringfit Adventure"),
+                new GameSummaryDTO(4L, "Hades"),
+                new GameSummaryDTO(6L, "Doom")));
+        gameNameIndex.rebuild();
+    }
+
+    @Test
+    void search_RanksExactThenPrefixThenSubstring() {
+        List<GameSummaryDTO> result = gameNameIndex.search("RING", 10);
+
+        assertEquals(List.of(2L, 3L, 1L), result.stream().map(GameSummaryDTO::getId).toList());
+    }
+
+    @Test
+    void search_ShortQueryAndLimit() {
+        assertEquals(1, gameNameIndex.search("a", 1).size());
+        assertTrue(gameNameIndex.search("zzz", 10).isEmpty());
+        assertTrue(gameNameIndex.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemove_VisibleBeforeRebuild() {
+        gameNameIndex.put(5L, "Ring of Pain");
+        gameNameIndex.remove(1L);
+
+        List<Long> ids = gameNameIndex.search("ring", 10).stream().map(GameSummaryDTO::getId).toList();
+
+        assertTrue(ids.contains(5L));
+        assertFalse(ids.contains(1L));
+        verify(gameRepository, times(1)).findAllSummaries();
+    }
+
+    @Test
+    void fuzzySearch_FindsMisspelledNames() {
+        assertEquals(List.of(1L), ids(gameNameIndex.fuzzySearch("Eldn Ring", null, 10)));
+        assertEquals(List.of(4L), ids(gameNameIndex.fuzzySearch("hadse", null, 10)));
+    }
+
+    @Test
+    void fuzzySearch_FindsTransposedLetters() {
+        assertEquals(List.of(4L), ids(gameNameIndex.fuzzySearch("Hdaes", null, 10)));
+        assertEquals(List.of(4L), ids(gameNameIndex.fuzzySearch("haeds", null, 10)));
+    }
+
+    @Test
+    void fuzzySearch_FindsShortNames() {
+        assertEquals(List.of(6L), ids(gameNameIndex.fuzzySearch("Deom", null, 10)));
+        assertEquals(List.of(6L), ids(gameNameIndex.fuzzySearch("dom", null, 10)));
+    }
+
+    @Test
+    void fuzzySearch_RanksWholeNameBeforePrefixMatch() {
+        assertEquals(List.of(2L, 3L), ids(gameNameIndex.fuzzySearch("rinf", 1, 10)));
+    }
+
+    @Test
+    void fuzzySearch_RespectsDistanceBound() {
+        assertTrue(gameNameIndex.fuzzySearch("Eldn Ring", 0, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> gameNameIndex.fuzzySearch("Eldn Ring", 4, 10));
+    }
+
+    @Test
+    void fuzzySearch_SeesPendingChanges() {
+        gameNameIndex.put(5L, "Stardew Valley");
+        gameNameIndex.remove(1L);
+
+        assertEquals(List.of(5L), ids(gameNameIndex.fuzzySearch("Stardw Valey", null, 10)));
+        assertTrue(gameNameIndex.fuzzySearch("Eldn Ring", null, 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<GameSummaryDTO> result) {
+        return result.stream().map(GameSummaryDTO::getId).toList();
+    }
+}
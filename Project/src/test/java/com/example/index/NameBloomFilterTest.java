@@ -0,0 +1,102 @@
+package com.example.index;
+
+import com.example.project.index.NameBloomFilter;
+import com.example.project.model.NameFilterStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameBloomFilterTest {
+
+    @Test
+    void beforeFirstRebuild_EveryCheckGoesToTheLookup() {
+        NameBloomFilter filter = new NameBloomFilter("usernames", 0.01);
+        AtomicInteger lookups = new AtomicInteger();
+
+        assertFalse(filter.isTaken("mihai", name -> {
+            lookups.incrementAndGet();
+            return false;
+        }));
+
+        assertEquals(1, lookups.get());
+        NameFilterStatsDTO stats = filter.stats();
+        assertFalse(stats.isReady());
+        assertEquals(0, stats.getLookupsAvoided());
+        // not counted as a false positive: the filter made no claim
+        assertEquals(0, stats.getFalsePositives());
+    }
+
+    @Test
+    void neverRulesOutANameItHasSeen() {
+        NameBloomFilter filter = new NameBloomFilter("game-names", 0.01);
+        List<String> loaded = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            loaded.add("game-" + i);
+        }
+        filter.rebuild(() -> loaded);
+        for (int i = 5_000; i < 10_000; i++) {
+            filter.put("game-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("game-" + i), "game-" + i);
+        }
+        assertEquals(10_000, filter.stats().getInsertions());
+    }
+
+    @Test
+    void skipsTheLookupForNewNames_AtAboutTheTargetRate() {
+        NameBloomFilter filter = new NameBloomFilter("usernames", 0.01);
+        List<String> loaded = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            loaded.add("user-" + i);
+        }
+        filter.rebuild(() -> loaded);
+
+        AtomicInteger lookups = new AtomicInteger();
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(filter.isTaken("new-" + i, name -> {
+                lookups.incrementAndGet();
+                return false;
+            }));
+        }
+        assertTrue(filter.isTaken("user-42", name -> true));
+
+        NameFilterStatsDTO stats = filter.stats();
+        assertTrue(stats.isReady());
+        assertEquals(lookups.get(), stats.getFalsePositives());
+        assertEquals(10_000 - lookups.get(), stats.getLookupsAvoided());
+        assertEquals(lookups.get() + 1, stats.getLookupsPerformed());
+        assertTrue(stats.getObservedFalsePositiveRate() < 0.03, "observed " + stats.getObservedFalsePositiveRate());
+        assertTrue(stats.getExpectedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    void rebuild_KeepsNamesPutWhileLoading() {
+        NameBloomFilter filter = new NameBloomFilter("usernames", 0.01);
+        filter.rebuild(List::of);
+
+        filter.rebuild(() -> {
+            filter.put("added-during-rebuild");
+            return List.of("loaded");
+        });
+
+        assertTrue(filter.mightContain("loaded"));
+        assertTrue(filter.mightContain("added-during-rebuild"));
+    }
+
+    @Test
+    void rebuild_DropsNamesNoLongerLoaded() {
+        NameBloomFilter filter = new NameBloomFilter("usernames", 0.01);
+        filter.rebuild(() -> List.of("deleted"));
+        assertTrue(filter.mightContain("deleted"));
+
+        filter.rebuild(List::of);
+
+        assertFalse(filter.mightContain("deleted"));
+    }
+}
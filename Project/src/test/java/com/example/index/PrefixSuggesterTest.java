@@ -0,0 +1,58 @@
+package com.example.index;
+
+import com.example.project.index.PrefixSuggester;
+import com.example.project.model.NamePopularityDTO;
+import com.example.project.model.SuggestionDTO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixSuggesterTest {
+
+    private PrefixSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new PrefixSuggester();
+        suggester.replace(List.of(
+                new NamePopularityDTO(1L, "Elden Ring", 50L),
+                new NamePopularityDTO(2L, "Elder Scrolls", 80L),
+                new NamePopularityDTO(3L, "Eldest Souls", 5L),
+                new NamePopularityDTO(4L, "Hades", 90L),
+                new NamePopularityDTO(5L, "Elf Quest", 50L)), suggester.sequence());
+    }
+
+    @Test
+    void suggest_OrdersByPopularityThenName() {
+        assertEquals(List.of(2L, 1L, 3L), ids(suggester.suggest("ELD", 10)));
+        assertEquals(List.of(2L, 1L, 5L), ids(suggester.suggest("el", 3)));
+    }
+
+    @Test
+    void suggest_NoMatchOrBlankPrefix_ReturnsEmpty() {
+        assertTrue(suggester.suggest("zelda", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void pendingChanges_OverrideSnapshotUntilReplaced() {
+        suggester.put(6L, "Eldorado", 0);
+        suggester.remove(2L);
+
+        assertEquals(List.of(1L, 3L, 6L), ids(suggester.suggest("eld", 10)));
+        assertEquals(2, suggester.pendingSize());
+
+        suggester.replace(List.of(new NamePopularityDTO(6L, "Eldorado", 7L)), suggester.sequence());
+
+        assertEquals(0, suggester.pendingSize());
+        assertEquals(List.of(6L), ids(suggester.suggest("eld", 10)));
+    }
+
+    private static List<Long> ids(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getId).toList();
+    }
+}
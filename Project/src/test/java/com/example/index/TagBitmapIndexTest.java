@@ -0,0 +1,169 @@
+package com.example.index;
+
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.TagQuery;
+import com.example.project.index.TagQueryResult;
+import com.example.project.model.GameTag;
+import com.example.project.model.GameTagLinkDTO;
+import com.example.project.repository.GameRepository;
+import com.example.project.repository.GameTagRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TagBitmapIndexTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GameTagRepository gameTagRepository;
+
+    @InjectMocks
+    private TagBitmapIndex tagBitmapIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(gameRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(gameTagRepository.findAll()).thenReturn(List.of(tag(10L, "RPG"), tag(11L, "Survival"), tag(12L, "Indie"), tag(13L, "Open World")));
+        when(gameRepository.findAllTagLinks()).thenReturn(List.of(
+                new GameTagLinkDTO(1L, 10L),
+                new GameTagLinkDTO(1L, 13L),
+                new GameTagLinkDTO(2L, 10L),
+                new GameTagLinkDTO(2L, 11L),
+                new GameTagLinkDTO(3L, 12L),
+                new GameTagLinkDTO(4L, 11L)));
+        tagBitmapIndex.rebuild();
+    }
+
+    @Test
+    void query_AndNot() {
+        assertEquals(List.of(1L), query("rpg AND NOT survival"));
+    }
+
+    @Test
+    void query_OrWithGroupingAndQuotedNames() {
+        assertEquals(List.of(1L, 3L), query("(indie OR \"open world\") AND NOT survival"));
+        assertEquals(List.of(1L, 2L, 3L), query("RPG or Indie"));
+    }
+
+    @Test
+    void query_NotAloneUsesAllGames() {
+        assertEquals(List.of(3L, 4L), query("NOT rpg"));
+    }
+
+    @Test
+    void anyOf_MatchesGamesWithAnyListedTag() {
+        TagQueryResult result = tagBitmapIndex.queryWithFacets(TagQuery.anyOf(List.of("indie", " Open World", "strategy")),
+                null, 10);
+
+        assertEquals(List.of(1L, 3L), result.getGameIds());
+        assertEquals(Map.of("RPG", 1, "Open World", 1, "Indie", 1), result.getFacets());
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.anyOf(List.of(" ")));
+    }
+
+    @Test
+    void query_UnknownTagMatchesNothing() {
+        assertEquals(List.of(), query("strategy"));
+        assertEquals(List.of(1L, 2L), query("rpg OR strategy"));
+    }
+
+    @Test
+    void query_ResumesAfterCursorAndRespectsLimit() {
+        assertEquals(List.of(1L, 2L), tagBitmapIndex.query(TagQuery.parse("rpg OR indie OR survival"), null, 2));
+        assertEquals(List.of(3L, 4L), tagBitmapIndex.query(TagQuery.parse("rpg OR indie OR survival"), 2L, 2));
+    }
+
+    @Test
+    void query_GamesIndexedOutOfIdOrder_PageInIndexOrder() {
+        tagBitmapIndex.addGame(7L);
+        tagBitmapIndex.addGame(6L);
+        TagQuery notRpg = TagQuery.parse("NOT rpg");
+
+        assertEquals(List.of(3L, 4L, 7L, 6L), tagBitmapIndex.query(notRpg, null, 10));
+        assertEquals(List.of(6L), tagBitmapIndex.query(notRpg, 7L, 10));
+        assertEquals(List.of(), tagBitmapIndex.query(notRpg, 6L, 10));
+        // 5 was never indexed, like a game deleted before the last rebuild.
+        assertEquals(List.of(7L, 6L), tagBitmapIndex.query(notRpg, 5L, 10));
+    }
+
+    @Test
+    void mutations_AreVisibleWithoutRebuild() {
+        tagBitmapIndex.addGame(5L);
+        tagBitmapIndex.putTag(14L, "Strategy");
+        tagBitmapIndex.tag(5L, 14L);
+        tagBitmapIndex.untag(1L, 10L);
+        tagBitmapIndex.removeGame(2L);
+
+        assertEquals(List.of(5L), query("strategy"));
+        assertEquals(List.of(), query("rpg"));
+        assertEquals(List.of(1L, 3L, 4L, 5L), query("NOT rpg"));
+
+        tagBitmapIndex.removeTag(14L);
+        assertEquals(List.of(), query("strategy"));
+    }
+
+    @Test
+    void facets_CountsTagsAcrossWholeResultSet() {
+        Map<String, Integer> facets = tagBitmapIndex.facets(TagQuery.parse("rpg OR survival"));
+
+        assertEquals(List.of("RPG", "Survival", "Open World"), List.copyOf(facets.keySet()));
+        assertEquals(2, facets.get("RPG"));
+        assertEquals(2, facets.get("Survival"));
+        assertEquals(1, facets.get("Open World"));
+        assertFalse(facets.containsKey("Indie"));
+    }
+
+    @Test
+    void facets_WithoutQueryCoverAllGames() {
+        tagBitmapIndex.removeGame(4L);
+
+        Map<String, Integer> facets = tagBitmapIndex.facets(null);
+
+        assertEquals(1, facets.get("Survival"));
+        assertEquals(1, facets.get("Indie"));
+    }
+
+    @Test
+    void queryWithFacets_MatchesQueryAndFacets() {
+        TagQuery query = TagQuery.parse("rpg OR survival");
+
+        TagQueryResult result = tagBitmapIndex.queryWithFacets(query, 1L, 2);
+
+        assertEquals(tagBitmapIndex.query(query, 1L, 2), result.getGameIds());
+        assertEquals(List.of(2L, 4L), result.getGameIds());
+        assertEquals(tagBitmapIndex.facets(query), result.getFacets());
+        assertEquals(List.of("RPG", "Survival", "Open World"), List.copyOf(result.getFacets().keySet()));
+    }
+
+    @Test
+    void parse_MalformedQuery_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("rpg AND"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("(rpg OR indie"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("rpg indie"));
+        assertThrows(IllegalArgumentException.class, () -> TagQuery.parse("\"open world"));
+    }
+
+    private List<Long> query(String expression) {
+        return tagBitmapIndex.query(TagQuery.parse(expression), null, 100);
+    }
+
+    private static GameTag tag(Long id, String name) {
+        GameTag tag = new GameTag();
+        tag.setId(id);
+        tag.setName(name);
+        return tag;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.index;
+
+import com.example.project.index.TagDictionary;
+import com.example.project.model.GameTag;
+import com.example.project.repository.GameTagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TagDictionaryTest {
+
+    @Mock
+    private GameTagRepository gameTagRepository;
+
+    private TagDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new TagDictionary(gameTagRepository);
+    }
+
+    @Test
+    void loadsOnceOnFirstUse() {
+        when(gameTagRepository.findAll()).thenReturn(List.of(tag(2L, "RPG"), tag(1L, "Indie")));
+
+        List<GameTag> all = dictionary.getAll();
+        assertTrue(dictionary.containsName("rpg"));
+        assertEquals("Indie", dictionary.getById(1L).get().getName());
+
+        assertEquals(List.of(1L, 2L), all.stream().map(GameTag::getId).toList());
+        verify(gameTagRepository, times(1)).findAll();
+    }
+
+    @Test
+    void namesAreMatchedCaseInsensitively() {
+        when(gameTagRepository.findAll()).thenReturn(List.of(tag(1L, "Open World"), tag(2L, "RPG")));
+
+        assertTrue(dictionary.containsName("  open world "));
+        assertFalse(dictionary.containsName("open"));
+        assertEquals(Set.of(1L, 2L), dictionary.idsForNames(Arrays.asList(" OPEN WORLD", "rpg", "unknown", null, " ")));
+    }
+
+    @Test
+    void putAndRemove_AreVisibleImmediately() {
+        when(gameTagRepository.findAll()).thenReturn(List.of(tag(1L, "RPG")));
+
+        dictionary.put(tag(3L, "Roguelike"));
+        assertTrue(dictionary.containsName("roguelike"));
+        assertEquals(2, dictionary.getAll().size());
+
+        dictionary.remove(1L);
+        assertFalse(dictionary.containsName("rpg"));
+        assertTrue(dictionary.getById(1L).isEmpty());
+        assertEquals(1, dictionary.getAll().size());
+    }
+
+    @Test
+    void put_Rename_DropsOldName() {
+        when(gameTagRepository.findAll()).thenReturn(List.of(tag(1L, "Rpg")));
+
+        dictionary.put(tag(1L, "Role-playing"));
+
+        assertFalse(dictionary.containsName("rpg"));
+        assertTrue(dictionary.containsName("role-playing"));
+    }
+
+    @Test
+    void returnedTagsAreCopies() {
+        when(gameTagRepository.findAll()).thenReturn(List.of(tag(1L, "RPG")));
+
+        dictionary.getById(1L).get().setName("Changed");
+
+        assertEquals("RPG", dictionary.getById(1L).get().getName());
+    }
+
+    @Test
+    void reload_ReplacesContents() {
+        when(gameTagRepository.findAll())
+                .thenReturn(List.of(tag(1L, "RPG")))
+                .thenReturn(List.of(tag(2L, "Indie")));
+
+        assertTrue(dictionary.containsName("rpg"));
+        dictionary.reload();
+
+        assertFalse(dictionary.containsName("rpg"));
+        assertTrue(dictionary.containsName("indie"));
+    }
+
+    private static GameTag tag(Long id, String name) {
+        GameTag tag = new GameTag(name);
+        tag.setId(id);
+        return tag;
+    }
+}
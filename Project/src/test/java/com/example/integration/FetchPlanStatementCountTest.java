@@ -0,0 +1,183 @@
+package com.example.integration;
+
+import com.example.project.GameLibraryApplication;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every read endpoint must issue the same number of SQL statements whether
+ * the data it serializes holds n or 2n rows. Requests go through the full
+ * MVC stack, including JSON serialization, with open-in-view disabled, so a
+ * missing fetch plan shows up either as a growing count or as a lazy-loading
+ * failure.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = GameLibraryApplication.class, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanStatementCountTest {
+
+    private static final String PREFIX = "fetch-plan-";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    private Fixture small;
+    private Fixture large;
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        small = seed("small", 3);
+        large = seed("large", 6);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM reviews WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM purchases WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM wishlist_games WHERE wishlist_id IN (SELECT w.id FROM wishlists w JOIN users u ON u.id = w.user_id WHERE u.username LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM wishlists WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM user_games WHERE user_id IN (SELECT id FROM users WHERE username LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM game_tags WHERE game_id IN (SELECT id FROM games WHERE name LIKE ?)", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM games WHERE name LIKE ?", PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM tags WHERE name LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void gameEndpoints() throws Exception {
+        assertConstant("/rest/games/{id}", small.firstGameId, large.firstGameId);
+        assertConstant("/rest/games/search/tags?tags={tag}", small.firstTagName, large.firstTagName);
+        assertConstant("/rest/games?size={size}", small.games, large.games);
+    }
+
+    @Test
+    void userEndpoints() throws Exception {
+        assertConstant("/rest/users/{id}", small.ownerId, large.ownerId);
+        assertConstant("/rest/users/by-username/{username}", small.ownerName, large.ownerName);
+        assertConstant("/rest/users/{id}/owned-games", small.ownerId, large.ownerId);
+    }
+
+    @Test
+    void userListing() throws Exception {
+        String uri = "/rest/users?size=100&expand=ownedGames,wishlist";
+        statementsFor(uri);
+        long before = statementsFor(uri);
+        seed("listing", 4);
+        long after = statementsFor(uri);
+
+        assertEquals(before, after, "GET " + uri);
+    }
+
+    @Test
+    void wishlistEndpoints() throws Exception {
+        assertConstant("/rest/wishlists/user/{id}", small.ownerId, large.ownerId);
+        assertConstant("/rest/wishlists/user/{id}/games", small.ownerId, large.ownerId);
+    }
+
+    @Test
+    void reviewAndPurchaseEndpoints() throws Exception {
+        assertConstant("/rest/reviews/user/{id}", small.ownerId, large.ownerId);
+        assertConstant("/rest/reviews/game/{id}", small.firstGameId, large.firstGameId);
+        assertConstant("/rest/purchases/user/{id}", small.ownerId, large.ownerId);
+    }
+
+    private void assertConstant(String uri, Object smallArg, Object largeArg) throws Exception {
+        statementsFor(uri, smallArg);
+        long smallCount = statementsFor(uri, smallArg);
+        long largeCount = statementsFor(uri, largeArg);
+
+        assertEquals(smallCount, largeCount, "GET " + uri);
+    }
+
+    private long statementsFor(String uri, Object... args) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(uri, args)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * n tags, n games carrying every tag, one owner who owns, wishlists,
+     * purchased and reviewed every game, and n more users who each reviewed
+     * the first game.
+     */
+    private Fixture seed(String name, int n) {
+        String prefix = PREFIX + name + "-";
+        List<Long> tagIds = new ArrayList<>();
+        List<Long> gameIds = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tagIds.add(insert("INSERT INTO tags (name) VALUES (?) RETURNING id", prefix + "tag-" + i));
+        }
+        for (int i = 0; i < n; i++) {
+            long gameId = insert("INSERT INTO games (name) VALUES (?) RETURNING id", prefix + "game-" + i);
+            gameIds.add(gameId);
+            for (Long tagId : tagIds) {
+                jdbcTemplate.update("INSERT INTO game_tags (game_id, tag_id) VALUES (?, ?)", gameId, tagId);
+            }
+        }
+
+        String ownerName = prefix + "owner";
+        long ownerId = insert("INSERT INTO users (username) VALUES (?) RETURNING id", ownerName);
+        long wishlistId = insert("INSERT INTO wishlists (user_id) VALUES (?) RETURNING id", ownerId);
+        for (Long gameId : gameIds) {
+            jdbcTemplate.update("INSERT INTO user_games (user_id, game_id) VALUES (?, ?)", ownerId, gameId);
+            jdbcTemplate.update("INSERT INTO wishlist_games (wishlist_id, game_id) VALUES (?, ?)", wishlistId, gameId);
+            jdbcTemplate.update("INSERT INTO purchases (user_id, game_id, price_cents, purchased_at) VALUES (?, ?, 0, now())", ownerId, gameId);
+            jdbcTemplate.update("INSERT INTO reviews (user_id, game_id, rating) VALUES (?, ?, 5)", ownerId, gameId);
+        }
+        for (int i = 0; i < n; i++) {
+            long reviewerId = insert("INSERT INTO users (username) VALUES (?) RETURNING id", prefix + "reviewer-" + i);
+            jdbcTemplate.update("INSERT INTO user_games (user_id, game_id) VALUES (?, ?)", reviewerId, gameIds.get(0));
+            jdbcTemplate.update("INSERT INTO reviews (user_id, game_id, rating) VALUES (?, ?, 4)", reviewerId, gameIds.get(0));
+        }
+        return new Fixture(n, ownerId, ownerName, gameIds.get(0), prefix + "tag-0");
+    }
+
+    private long insert(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private static final class Fixture {
+
+        final int games;
+        final long ownerId;
+        final String ownerName;
+        final long firstGameId;
+        final String firstTagName;
+
+        Fixture(int games, long ownerId, String ownerName, long firstGameId, String firstTagName) {
+            this.games = games;
+            this.ownerId = ownerId;
+            this.ownerName = ownerName;
+            this.firstGameId = firstGameId;
+            this.firstTagName = firstTagName;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.queue;
+
+import com.example.project.exception.ConflictException;
+import com.example.project.exception.ServiceUnavailableException;
+import com.example.project.model.BackpressurePolicy;
+import com.example.project.model.PurchasePipelineStatsDTO;
+import com.example.project.model.PurchaseReceiptDTO;
+import com.example.project.model.PurchaseRequestState;
+import com.example.project.model.PurchaseRequestStatusDTO;
+import com.example.project.queue.PurchasePipeline;
+import com.example.project.service.PurchaseOrder;
+import com.example.project.service.PurchaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PurchasePipelineTest {
+
+    private final PurchaseService purchaseService = mock(PurchaseService.class);
+    private PurchasePipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void acceptedPurchase_CanBePolledUntilItSucceeds() throws Exception {
+        pipeline = pipeline(2, 100, BackpressurePolicy.REJECT);
+        doAnswer(inv -> {
+            for (PurchaseOrder order : inv.<List<PurchaseOrder>>getArgument(0)) {
+                order.succeeded(receipt(order));
+            }
+            return null;
+        }).when(purchaseService).createBatch(anyList());
+
+        PurchaseRequestStatusDTO queued = pipeline.submit(1L, 2L, 1999L);
+        assertEquals(PurchaseRequestState.QUEUED, queued.getState());
+
+        PurchaseRequestStatusDTO done = awaitCompletion(queued.getRequestId());
+        assertEquals(PurchaseRequestState.SUCCEEDED, done.getState());
+        assertEquals(2L, done.getReceipt().getGameId());
+        assertNotNull(done.getCompletedAt());
+        assertNull(done.getErrorStatus());
+
+        PurchasePipelineStatsDTO stats = pipeline.stats();
+        assertEquals(1, stats.getAccepted());
+        assertEquals(1, stats.getSucceeded());
+        assertEquals(1, stats.getBatches());
+    }
+
+    @Test
+    void refusedPurchase_FailsWithItsHttpStatus() throws Exception {
+        pipeline = pipeline(1, 100, BackpressurePolicy.REJECT);
+        doAnswer(inv -> {
+            inv.<List<PurchaseOrder>>getArgument(0).get(0).failed(new ConflictException("Insufficient balance"));
+            return null;
+        }).when(purchaseService).createBatch(anyList());
+
+        PurchaseRequestStatusDTO done = awaitCompletion(pipeline.submit(1L, 2L, 1999L).getRequestId());
+
+        assertEquals(PurchaseRequestState.FAILED, done.getState());
+        assertEquals(409, done.getErrorStatus());
+        assertEquals("Insufficient balance", done.getError());
+        assertNull(done.getReceipt());
+        assertEquals(1, pipeline.stats().getFailed());
+    }
+
+    @Test
+    void queuedPurchases_RunTogetherInOneBatch() throws Exception {
+        pipeline = pipeline(1, 100, BackpressurePolicy.REJECT);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            List<PurchaseOrder> orders = inv.getArgument(0);
+            if (started.getCount() > 0) {
+                started.countDown();
+                await(release);
+            }
+            for (PurchaseOrder order : orders) {
+                order.succeeded(receipt(order));
+            }
+            return null;
+        }).when(purchaseService).createBatch(anyList());
+
+        pipeline.submit(1L, 1L, 100L);
+        assertTrue(await(started));
+        String last = null;
+        for (long gameId = 2; gameId <= 4; gameId++) {
+            last = pipeline.submit(1L, gameId, 100L).getRequestId();
+        }
+        release.countDown();
+
+        assertEquals(PurchaseRequestState.SUCCEEDED, awaitCompletion(last).getState());
+        PurchasePipelineStatsDTO stats = pipeline.stats();
+        assertEquals(2, stats.getBatches());
+        assertEquals(3, stats.getMaxBatchSize());
+        assertEquals(4, stats.getSucceeded());
+    }
+
+    @Test
+    void failedBatch_RetriesEachPurchaseAlone() throws Exception {
+        pipeline = pipeline(1, 100, BackpressurePolicy.REJECT);
+        doThrow(new DataIntegrityViolationException("purchases_game_id_fkey"))
+                .when(purchaseService).createBatch(anyList());
+        when(purchaseService.create(1L, 2L, 1999L))
+                .thenReturn(new PurchaseReceiptDTO(10L, 1L, 2L, "Hades", 1999L, Instant.now(), 1L));
+
+        PurchaseRequestStatusDTO done = awaitCompletion(pipeline.submit(1L, 2L, 1999L).getRequestId());
+
+        assertEquals(PurchaseRequestState.SUCCEEDED, done.getState());
+        assertEquals(10L, done.getReceipt().getPurchaseId());
+        verify(purchaseService).create(1L, 2L, 1999L);
+    }
+
+    @Test
+    void unexpectedFailure_HidesItsMessage() throws Exception {
+        pipeline = pipeline(1, 100, BackpressurePolicy.REJECT);
+        doThrow(new IllegalStateException("connection reset")).when(purchaseService).createBatch(anyList());
+        when(purchaseService.create(1L, 2L, 1999L)).thenThrow(new IllegalStateException("connection reset"));
+
+        PurchaseRequestStatusDTO done = awaitCompletion(pipeline.submit(1L, 2L, 1999L).getRequestId());
+
+        assertEquals(PurchaseRequestState.FAILED, done.getState());
+        assertEquals(500, done.getErrorStatus());
+        assertEquals("The purchase could not be completed.", done.getError());
+    }
+
+    @Test
+    void fullLane_RejectsAndForgetsThePurchase() throws Exception {
+        pipeline = pipeline(1, 1, BackpressurePolicy.REJECT);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            started.countDown();
+            await(release);
+            return null;
+        }).when(purchaseService).createBatch(anyList());
+
+        pipeline.submit(1L, 1L, 100L);
+        assertTrue(await(started));
+        pipeline.submit(1L, 2L, 100L);
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> pipeline.submit(1L, 3L, 100L));
+        assertEquals("Too many queued purchases, retry later.", ex.getMessage());
+        assertEquals(1, pipeline.stats().getQueueDepth());
+        assertEquals(1, pipeline.stats().getRejected());
+        release.countDown();
+    }
+
+    @Test
+    void fullLane_BlockPolicyWaitsForRoom() throws Exception {
+        pipeline = pipeline(1, 1, BackpressurePolicy.BLOCK);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            started.countDown();
+            await(release);
+            for (PurchaseOrder order : inv.<List<PurchaseOrder>>getArgument(0)) {
+                order.succeeded(receipt(order));
+            }
+            return null;
+        }).when(purchaseService).createBatch(anyList());
+
+        pipeline.submit(1L, 1L, 100L);
+        assertTrue(await(started));
+        pipeline.submit(1L, 2L, 100L);
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            sleep(50);
+            release.countDown();
+        });
+
+        String blocked = pipeline.submit(1L, 3L, 100L).getRequestId();
+
+        releaser.join();
+        assertEquals(PurchaseRequestState.SUCCEEDED, awaitCompletion(blocked).getState());
+        assertEquals(0, pipeline.stats().getRejected());
+    }
+
+    @Test
+    void shutdown_LetsTheRunningBatchCommitAndFailsTheQueue() throws Exception {
+        pipeline = pipeline(1, 100, BackpressurePolicy.REJECT);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        doAnswer(inv -> {
+            started.countDown();
+            interrupted.set(!await(release));
+            for (PurchaseOrder order : inv.<List<PurchaseOrder>>getArgument(0)) {
+                order.succeeded(receipt(order));
+            }
+            return null;
+        }).when(purchaseService).createBatch(anyList());
+
+        String running = pipeline.submit(1L, 1L, 100L).getRequestId();
+        assertTrue(await(started));
+        String queued = pipeline.submit(1L, 2L, 100L).getRequestId();
+        Thread stopper = Thread.ofVirtual().start(pipeline::shutdown);
+        sleep(50);
+        release.countDown();
+        stopper.join();
+
+        assertFalse(interrupted.get(), "the running batch was interrupted");
+        assertEquals(PurchaseRequestState.SUCCEEDED, pipeline.status(running).orElseThrow().getState());
+        PurchaseRequestStatusDTO abandoned = pipeline.status(queued).orElseThrow();
+        assertEquals(PurchaseRequestState.FAILED, abandoned.getState());
+        assertEquals(503, abandoned.getErrorStatus());
+        verify(purchaseService, times(1)).createBatch(anyList());
+    }
+
+    @Test
+    void shutdown_StopsIdleWorkers() {
+        pipeline = pipeline(2, 10, BackpressurePolicy.REJECT);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), pipeline::shutdown);
+
+        assertThrows(ServiceUnavailableException.class, () -> pipeline.submit(1L, 2L, 100L));
+    }
+
+    @Test
+    void unknownRequest_HasNoStatus() {
+        pipeline = pipeline(1, 10, BackpressurePolicy.REJECT);
+
+        assertTrue(pipeline.status("missing").isEmpty());
+    }
+
+    private PurchasePipeline pipeline(int workers, int capacity, BackpressurePolicy backpressure) {
+        return new PurchasePipeline(purchaseService, workers, capacity, 50, backpressure, 5_000, 1_000, 60_000);
+    }
+
+    private PurchaseRequestStatusDTO awaitCompletion(String requestId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            PurchaseRequestStatusDTO status = pipeline.status(requestId).orElseThrow();
+            if (status.getState() != PurchaseRequestState.QUEUED) {
+                return status;
+            }
+            assertTrue(System.nanoTime() < deadline, "purchase " + requestId + " never completed");
+            Thread.sleep(1);
+        }
+    }
+
+    private static PurchaseReceiptDTO receipt(PurchaseOrder order) {
+        return new PurchaseReceiptDTO(order.getGameId() + 100, order.getUserId(), order.getGameId(), "Game",
+                order.getPriceCents(), Instant.now(), 0L);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
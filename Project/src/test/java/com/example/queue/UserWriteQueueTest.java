@@ -0,0 +1,184 @@
+package com.example.queue;
+
+import com.example.project.exception.ConflictException;
+import com.example.project.exception.ServiceUnavailableException;
+import com.example.project.model.WriteStripeStatsDTO;
+import com.example.project.queue.UserWriteQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserWriteQueueTest {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private UserWriteQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void sameUser_RunsOneAtATime() throws Exception {
+        queue = new UserWriteQueue(4, 100, 5_000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            int n = i;
+            results.add(callers.submit(() -> queue.submit(1L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(2);
+                running.decrementAndGet();
+                return n;
+            })));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, maxRunning.get());
+        WriteStripeStatsDTO stripe = queue.stats().getStripes().get(queue.stripeOf(1L));
+        assertEquals(16, stripe.getExecuted());
+        assertTrue(stripe.getMaxWaitMillis() > 0);
+    }
+
+    @Test
+    void usersOnDifferentStripes_RunInParallel() throws Exception {
+        queue = new UserWriteQueue(8, 100, 5_000);
+        long other = 2L;
+        while (queue.stripeOf(other) == queue.stripeOf(1L)) {
+            other++;
+        }
+        long otherUser = other;
+
+        // Each operation waits for the other one to start; on a shared
+        // stripe this could only end by timing out.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Future<Boolean> first = callers.submit(() -> queue.submit(1L, () -> {
+            bothStarted.countDown();
+            return await(bothStarted);
+        }));
+        Future<Boolean> second = callers.submit(() -> queue.submit(otherUser, () -> {
+            bothStarted.countDown();
+            return await(bothStarted);
+        }));
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullStripe_RejectsImmediately() throws Exception {
+        queue = new UserWriteQueue(1, 1, 5_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Boolean> running = callers.submit(() -> queue.submit(1L, () -> {
+            started.countDown();
+            return await(release);
+        }));
+        assertTrue(await(started));
+        Future<Boolean> queued = callers.submit(() -> queue.submit(1L, () -> true));
+        awaitDepth(2);
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> queue.submit(1L, () -> true));
+        assertEquals("Too many pending operations for this user, retry later.", ex.getMessage());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queue.stats().getStripes().get(0).getRejected());
+    }
+
+    @Test
+    void queuedPastTimeout_FailsAndNeverRuns() throws Exception {
+        queue = new UserWriteQueue(1, 10, 500);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Future<Boolean> running = callers.submit(() -> queue.submit(1L, () -> {
+            started.countDown();
+            return await(release);
+        }));
+        assertTrue(await(started));
+
+        assertThrows(ServiceUnavailableException.class, () -> queue.submit(1L, () -> ran.getAndSet(true)));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals("done", queue.submit(1L, () -> "done"));
+        assertFalse(ran.get());
+        assertEquals(1, queue.stats().getStripes().get(0).getTimedOut());
+    }
+
+    @Test
+    void startedOperation_IsWaitedForPastTimeout() {
+        queue = new UserWriteQueue(1, 10, 20);
+
+        assertEquals("slow", queue.submit(1L, () -> {
+            sleep(100);
+            return "slow";
+        }));
+    }
+
+    @Test
+    void exceptions_ReachTheCaller() {
+        queue = new UserWriteQueue(2, 10, 5_000);
+        ConflictException thrown = new ConflictException("Insufficient balance");
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> queue.submit(1L, () -> {
+            throw thrown;
+        }));
+        assertSame(thrown, ex);
+    }
+
+    @Test
+    void nestedSubmitOnSameStripe_RunsInline() {
+        queue = new UserWriteQueue(1, 10, 1_000);
+
+        assertEquals("inner", queue.submit(1L, () -> queue.submit(2L, () -> "inner")));
+    }
+
+    private void awaitDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.stats().getQueueDepth() < depth) {
+            assertTrue(System.nanoTime() < deadline, "queue never reached depth " + depth);
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
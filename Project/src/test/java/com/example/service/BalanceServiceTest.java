@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.project.model.LedgerReason;
+import com.example.project.model.User;
+import com.example.project.repository.BalanceLedgerJdbcRepository;
+import com.example.project.service.BalanceService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceServiceTest {
+
+    @Mock
+    private BalanceLedgerJdbcRepository ledgerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BalanceService balanceService;
+
+    @BeforeEach
+    void setUp() {
+        balanceService = new BalanceService(ledgerRepository, transactionManager, 50, 2);
+    }
+
+    @Test
+    void credit_LocksUserThenAppends() {
+        balanceService.credit(1L, 500L, LedgerReason.TOP_UP);
+
+        InOrder order = inOrder(ledgerRepository);
+        order.verify(ledgerRepository).lockUser(1L);
+        order.verify(ledgerRepository).append(1L, 500L, LedgerReason.TOP_UP);
+    }
+
+    @Test
+    void credit_NonPositive_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> balanceService.credit(1L, 0L, LedgerReason.TOP_UP));
+
+        verifyNoInteractions(ledgerRepository);
+    }
+
+    @Test
+    void debit_ReturnsWhetherTheBalanceCoveredIt() {
+        when(ledgerRepository.appendDebit(1L, 1999L, LedgerReason.PURCHASE)).thenReturn(false);
+
+        assertFalse(balanceService.debit(1L, 1999L, LedgerReason.PURCHASE));
+
+        InOrder order = inOrder(ledgerRepository);
+        order.verify(ledgerRepository).lockUser(1L);
+        order.verify(ledgerRepository).appendDebit(1L, 1999L, LedgerReason.PURCHASE);
+    }
+
+    @Test
+    void debit_Zero_WritesNothing() {
+        assertTrue(balanceService.debit(1L, 0L, LedgerReason.PURCHASE));
+
+        verifyNoInteractions(ledgerRepository);
+    }
+
+    @Test
+    void lock_TakesTheUsersLedgerLockOnly() {
+        balanceService.lock(1L);
+
+        verify(ledgerRepository).lockUser(1L);
+        verifyNoMoreInteractions(ledgerRepository);
+    }
+
+    @Test
+    void lockAll_LocksEveryUserInOneCall() {
+        balanceService.lockAll(new long[] { 3L, 1L });
+
+        verify(ledgerRepository).lockUsers(new long[] { 3L, 1L });
+        verifyNoMoreInteractions(ledgerRepository);
+    }
+
+    @Test
+    void fill_ReadsAllBalancesInOneQuery() {
+        User first = user(1L);
+        User second = user(2L);
+        when(ledgerRepository.balancesOf(List.of(1L, 2L))).thenReturn(Map.of(1L, 700L));
+
+        balanceService.fill(List.of(first, second));
+
+        assertEquals(700L, first.getBalanceCents());
+        assertEquals(0L, second.getBalanceCents());
+        verify(ledgerRepository).balancesOf(any());
+    }
+
+    @Test
+    void compact_ProcessesBatchesUntilAShortOne() {
+        when(ledgerRepository.findUsersToCompact(50, 2)).thenReturn(List.of(1L, 2L), List.of(3L));
+        when(ledgerRepository.compact(new long[] { 1L, 2L })).thenReturn(2);
+        when(ledgerRepository.compact(new long[] { 3L })).thenReturn(1);
+
+        assertEquals(3, balanceService.compact());
+
+        verify(ledgerRepository, times(2)).findUsersToCompact(50, 2);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void compact_NothingToDo_OpensNoTransaction() {
+        when(ledgerRepository.findUsersToCompact(50, 2)).thenReturn(List.of());
+
+        assertEquals(0, balanceService.compact());
+
+        verify(ledgerRepository, never()).compact(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.service;
+
+import com.example.project.exception.NotFoundException;
+import com.example.project.model.ExportFormat;
+import com.example.project.model.GameExportRowDTO;
+import com.example.project.model.PurchaseExportDTO;
+import com.example.project.repository.GameRepository;
+import com.example.project.repository.PurchaseRepository;
+import com.example.project.repository.UserRepository;
+import com.example.project.service.ExportService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private PurchaseRepository purchaseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(gameRepository, purchaseRepository, userRepository, transactionManager);
+    }
+
+    @Test
+    void exportGames_Ndjson_GroupsTagsPerGame() throws Exception {
+        when(gameRepository.streamExportRows()).thenReturn(Stream.of(
+                new GameExportRowDTO(1L, "Hades", "RPG"),
+                new GameExportRowDTO(1L, "Hades", "Roguelike"),
+                new GameExportRowDTO(2L, "Celeste", null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportGames(ExportFormat.NDJSON, out);
+
+        assertEquals("""
+                {"id":1,"name":"Hades","tags":["RPG","Roguelike"]}
+                {"id":2,"name":"Celeste","tags":[]}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportGames_Csv_QuotesWhenNeeded() throws Exception {
+        when(gameRepository.streamExportRows()).thenReturn(Stream.of(
+                new GameExportRowDTO(1L, "Hades", "RPG"),
+                new GameExportRowDTO(2L, "Say \"hi\", world", null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportGames(ExportFormat.CSV, out);
+
+        assertEquals("""
+                id,name,tags
+                1,Hades,RPG
+                2,"Say ""hi"", world",
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportPurchases_ByUser_RunsInReadOnlyTransaction() throws Exception {
+        when(purchaseRepository.streamExportByUserId(1L)).thenReturn(Stream.of(
+                new PurchaseExportDTO(5L, 1L, "mihai", 2L, "Hades", 1999L, Instant.parse("2026-01-02T03:04:05Z"))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPurchases(1L, ExportFormat.CSV, out);
+
+        assertEquals("""
+                id,userId,username,gameId,gameName,priceCents,purchasedAt
+                5,1,mihai,2,Hades,1999,2026-01-02T03:04:05Z
+                """, out.toString(StandardCharsets.UTF_8));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        verify(purchaseRepository, never()).streamExport();
+    }
+
+    @Test
+    void exportPurchases_All_UsesUnfilteredQuery() throws Exception {
+        when(purchaseRepository.streamExport()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPurchases(null, ExportFormat.NDJSON, out);
+
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+        verify(purchaseRepository).streamExport();
+    }
+
+    @Test
+    void checkPurchaseExport_UnknownUser_Throws() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> exportService.checkPurchaseExport(99L));
+        assertEquals("User not found", ex.getMessage());
+    }
+}
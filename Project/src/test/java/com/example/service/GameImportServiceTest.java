@@ -0,0 +1,180 @@
+package com.example.service;
+
+import com.example.project.cache.GameRecordCache;
+import com.example.project.index.AutocompleteIndex;
+import com.example.project.index.GameNameIndex;
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.NameBloomFilter;
+import com.example.project.index.TagDictionary;
+import com.example.project.index.UniqueNameFilters;
+import com.example.project.model.GameTag;
+import com.example.project.model.ImportReportDTO;
+import com.example.project.repository.GameJdbcRepository;
+import com.example.project.service.GameImportService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameImportServiceTest {
+
+    @Mock
+    private GameJdbcRepository gameJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private GameNameIndex gameNameIndex;
+
+    @Mock
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Mock
+    private AutocompleteIndex autocompleteIndex;
+
+    @Mock
+    private GameRecordCache gameRecordCache;
+
+    @Mock
+    private UniqueNameFilters uniqueNameFilters;
+
+    private final NameBloomFilter gameNames = new NameBloomFilter("game-names", 0.01);
+
+    private GameImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        gameNames.rebuild(List::of);
+        lenient().when(uniqueNameFilters.gameNames()).thenReturn(gameNames);
+        importService = new GameImportService(gameJdbcRepository, transactionManager, tagDictionary,
+                gameNameIndex, tagBitmapIndex, autocompleteIndex, gameRecordCache, uniqueNameFilters, 1000);
+    }
+
+    @Test
+    void importGames_CreatesGamesTagsAndLinks() {
+        when(tagDictionary.idForName("rpg")).thenReturn(Optional.of(7L));
+        when(tagDictionary.idForName("roguelike")).thenReturn(Optional.empty());
+        when(gameJdbcRepository.insertTags(any())).thenReturn(Map.of("Roguelike", 8L));
+        when(gameJdbcRepository.insertGames(any())).thenReturn(Map.of("Hades", 1L));
+        when(gameJdbcRepository.findGameIds(any())).thenReturn(Map.of("Hades", 1L, "Celeste", 2L));
+        when(gameJdbcRepository.insertTagLinks(any(), any())).thenReturn(3);
+
+        ImportReportDTO report = importService.importGames(ndjson(
+                "{\"name\": \"Hades\", \"tags\": [\"RPG\", \"Roguelike\"]}",
+                "{\"name\": \"Celeste\", \"tags\": [\"rpg\"]}"));
+
+        assertEquals(2, report.getLinesRead());
+        assertEquals(1, report.getGamesCreated());
+        assertEquals(1, report.getGamesMatched());
+        assertEquals(1, report.getTagsCreated());
+        assertEquals(3, report.getTagLinksAdded());
+        assertEquals(0, report.getErrorCount());
+
+        ArgumentCaptor<long[]> gameIds = ArgumentCaptor.forClass(long[].class);
+        ArgumentCaptor<long[]> tagIds = ArgumentCaptor.forClass(long[].class);
+        verify(gameJdbcRepository).insertTagLinks(gameIds.capture(), tagIds.capture());
+        assertArrayEquals(new long[] {1L, 1L, 2L}, gameIds.getValue());
+        assertArrayEquals(new long[] {7L, 8L, 7L}, tagIds.getValue());
+
+        ArgumentCaptor<GameTag> createdTag = ArgumentCaptor.forClass(GameTag.class);
+        verify(tagDictionary).put(createdTag.capture());
+        assertEquals(8L, createdTag.getValue().getId());
+        assertEquals("Roguelike", createdTag.getValue().getName());
+        verify(gameNameIndex).put(1L, "Hades");
+        assertTrue(gameNames.mightContain("Hades"));
+        verify(tagBitmapIndex).addGame(1L);
+        verify(tagBitmapIndex).tag(2L, 7L);
+        verify(gameRecordCache).invalidate(2L);
+        verify(gameRecordCache, never()).invalidate(1L);
+    }
+
+    @Test
+    void importGames_ReportsInvalidLinesAndSkipsThem() {
+        when(gameJdbcRepository.insertGames(any())).thenReturn(Map.of("Hades", 1L));
+
+        ImportReportDTO report = importService.importGames(ndjson(
+                "{\"name\": \"Hades\"}",
+                "",
+                "{not json",
+                "{\"tags\": [\"RPG\"]}",
+                "{\"name\": \"" + "x".repeat(256) + "\"}"));
+
+        assertEquals(4, report.getLinesRead());
+        assertEquals(1, report.getGamesCreated());
+        assertEquals(3, report.getErrorCount());
+        assertEquals(List.of(3L, 4L, 5L), report.getErrors().stream().map(e -> e.getLine()).toList());
+        assertEquals("Malformed JSON.", report.getErrors().get(0).getMessage());
+        assertEquals("Name is required.", report.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void importGames_RepeatedNameMergesTags() {
+        when(tagDictionary.idForName(any())).thenAnswer(inv -> Optional.of(inv.<String>getArgument(0).equals("rpg") ? 7L : 9L));
+        when(gameJdbcRepository.insertGames(any())).thenReturn(Map.of("Hades", 1L));
+        when(gameJdbcRepository.insertTagLinks(any(), any())).thenReturn(2);
+
+        importService.importGames(ndjson(
+                "{\"name\": \"Hades\", \"tags\": [\"RPG\"]}",
+                "{\"name\": \"Hades\", \"tags\": [\"Action\", \"rpg\"]}"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> names = ArgumentCaptor.forClass(Collection.class);
+        verify(gameJdbcRepository).insertGames(names.capture());
+        assertEquals(Set.of("Hades"), Set.copyOf(names.getValue()));
+
+        ArgumentCaptor<long[]> tagIds = ArgumentCaptor.forClass(long[].class);
+        verify(gameJdbcRepository).insertTagLinks(any(), tagIds.capture());
+        assertArrayEquals(new long[] {7L, 9L}, tagIds.getValue());
+    }
+
+    @Test
+    void importGames_FlushesEveryChunk() {
+        importService = new GameImportService(gameJdbcRepository, transactionManager, tagDictionary,
+                gameNameIndex, tagBitmapIndex, autocompleteIndex, gameRecordCache, uniqueNameFilters, 2);
+        when(gameJdbcRepository.insertGames(any())).thenAnswer(inv -> Map.of());
+
+        importService.importGames(ndjson("{\"name\": \"a\"}", "{\"name\": \"b\"}", "{\"name\": \"c\"}"));
+
+        verify(gameJdbcRepository, times(2)).insertGames(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void importGames_FailedChunk_ReportsItsLines() {
+        when(gameJdbcRepository.insertGames(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        ImportReportDTO report = importService.importGames(ndjson("{\"name\": \"a\"}", "{\"name\": \"b\"}"));
+
+        assertEquals(2, report.getErrorCount());
+        assertEquals(0, report.getGamesCreated());
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(gameNameIndex);
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
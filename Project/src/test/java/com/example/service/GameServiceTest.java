@@ -1,9 +1,26 @@
 package com.example.service;
 
+import com.example.project.cache.GameRecordCache;
+import com.example.project.exception.BadRequestException;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
+import com.example.project.model.BulkTagRequestDTO;
+import com.example.project.model.BulkTagResultDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.index.AutocompleteIndex;
+import com.example.project.index.GameNameIndex;
+import com.example.project.index.NameBloomFilter;
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.TagDictionary;
+import com.example.project.index.TagQuery;
+import com.example.project.index.TagQueryResult;
+import com.example.project.index.UniqueNameFilters;
 import com.example.project.model.Game;
+import com.example.project.model.GameSummaryDTO;
 import com.example.project.model.GameTag;
+import com.example.project.model.GameTagLinkDTO;
+import com.example.project.model.SuggestionDTO;
+import com.example.project.repository.GameJdbcRepository;
 import com.example.project.repository.GameRepository;
 import com.example.project.repository.GameTagRepository;
 import com.example.project.repository.PurchaseRepository;
@@ -16,11 +33,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +63,29 @@ class GameServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private GameNameIndex gameNameIndex;
+
+    @Mock
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Mock
+    private AutocompleteIndex autocompleteIndex;
+
+    @Mock
+    private GameRecordCache gameRecordCache;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private GameJdbcRepository gameJdbcRepository;
+
+    @Mock
+    private UniqueNameFilters uniqueNameFilters;
+
+    private final NameBloomFilter gameNames = new NameBloomFilter("game-names", 0.01);
+
     @InjectMocks
     private GameService gameService;
 
@@ -46,10 +94,15 @@ class GameServiceTest {
 
     @BeforeEach
     void setUp() {
+        // not yet filled, so every uniqueness check reaches the repository
+        lenient().when(uniqueNameFilters.gameNames()).thenReturn(gameNames);
+
         game = new Game();
+        game.setId(1L);
         game.setName("Elden Ring");
 
         tag = new GameTag();
+        tag.setId(2L);
         tag.setName("RPG");
     }
 
@@ -64,6 +117,9 @@ class GameServiceTest {
         assertEquals("Elden Ring", result.getName());
         verify(gameRepository).findByName("Elden Ring");
         verify(gameRepository).save(game);
+        verify(gameNameIndex).put(game.getId(), "Elden Ring");
+        verify(tagBitmapIndex).addGame(1L);
+        verify(autocompleteIndex).putGame(1L, "Elden Ring");
     }
 
     @Test
@@ -78,14 +134,71 @@ class GameServiceTest {
     }
 
     @Test
-    void getAll_Success() {
-        when(gameRepository.findAll()).thenReturn(List.of(game));
+    void createGame_NameRuledOutByFilter_SkipsLookup() {
+        gameNames.rebuild(List::of);
+        when(gameRepository.save(game)).thenReturn(game);
 
-        List<Game> result = gameService.getAll();
+        gameService.create(game);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(gameRepository).findAll();
+        verify(gameRepository, never()).findByName(any());
+        assertTrue(gameNames.mightContain("Elden Ring"));
+        assertEquals(1, gameNames.stats().getLookupsAvoided());
+    }
+
+    @Test
+    void createGame_UniqueConstraintViolation_ThrowsConflict() {
+        gameNames.rebuild(List::of);
+        when(gameRepository.save(game)).thenThrow(new DataIntegrityViolationException("games_name_key"));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> gameService.create(game));
+        assertEquals("Game with this name already exists.", ex.getMessage());
+
+        verifyNoInteractions(gameNameIndex, autocompleteIndex);
+    }
+
+    @Test
+    void getPage_FirstPage_ReturnsItemsAndCursor() {
+        Game hades = new Game("Hades");
+        hades.setId(2L);
+        game.setId(1L);
+
+        when(gameRepository.findIdsAfterId(eq(Long.MIN_VALUE), any(Pageable.class))).thenReturn(List.of(1L, 2L, 3L));
+        when(gameRepository.findByIdIn(List.of(1L, 2L))).thenReturn(List.of(hades, game));
+
+        CursorPageDTO<Game> page = gameService.getPage(null, 2, "id", false);
+
+        assertEquals(List.of(game, hades), page.getItems());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+
+        when(gameRepository.findIdsAfterId(eq(2L), any(Pageable.class))).thenReturn(List.of(3L));
+        Game terraria = new Game("Terraria");
+        terraria.setId(3L);
+        when(gameRepository.findByIdIn(List.of(3L))).thenReturn(List.of(terraria));
+
+        CursorPageDTO<Game> next = gameService.getPage(page.getNextCursor(), 2, "id", false);
+
+        assertEquals(List.of(terraria), next.getItems());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getPage_CursorFromOtherSort_ThrowsBadRequest() {
+        game.setId(1L);
+        when(gameRepository.findIdsAfterName(eq(""), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(gameRepository.findByIdIn(List.of(1L))).thenReturn(List.of(game));
+
+        String nameCursor = gameService.getPage(null, 1, "name", false).getNextCursor();
+
+        assertThrows(BadRequestException.class, () -> gameService.getPage(nameCursor, 1, "id", false));
+        assertThrows(BadRequestException.class, () -> gameService.getPage("not-a-cursor", 1, "id", false));
+    }
+
+    @Test
+    void getPage_UnsupportedSort_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> gameService.getPage(null, 10, "rating", false));
+        verifyNoInteractions(gameRepository);
     }
 
     @Test
@@ -109,14 +222,15 @@ class GameServiceTest {
     }
 
     @Test
-    void searchByName_Success() {
-        when(gameRepository.findByNameContainingIgnoreCase("elden")).thenReturn(List.of(game));
+    void searchByName_UsesIndexWithoutDatabase() {
+        when(gameNameIndex.search("elden", 20)).thenReturn(List.of(new GameSummaryDTO(1L, "Elden Ring")));
 
-        List<Game> result = gameService.searchByName("elden");
+        List<GameSummaryDTO> result = gameService.searchByName("elden", null);
 
-        assertNotNull(result);
         assertEquals(1, result.size());
-        verify(gameRepository).findByNameContainingIgnoreCase("elden");
+        assertEquals("Elden Ring", result.get(0).getName());
+        verify(gameNameIndex).search("elden", 20);
+        verifyNoInteractions(gameRepository);
     }
 
     @Test
@@ -129,13 +243,122 @@ class GameServiceTest {
 
     @Test
     void searchByTags_NormalizesAndCallsRepo() {
-        when(gameRepository.findByAnyTagNames(List.of("rpg", "action"))).thenReturn(List.of(game));
+        when(tagDictionary.idsForNames(List.of(" RPG ", "Action"))).thenReturn(Set.of(2L));
+        when(gameRepository.findByAnyTagIds(Set.of(2L))).thenReturn(List.of(game));
 
         List<Game> result = gameService.searchByTags(List.of(" RPG ", "Action"));
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(gameRepository).findByAnyTagNames(List.of("rpg", "action"));
+        verify(gameRepository).findByAnyTagIds(Set.of(2L));
+    }
+
+    @Test
+    void searchByTags_UnknownTags_SkipsDatabase() {
+        when(tagDictionary.idsForNames(List.of("nope"))).thenReturn(Set.of());
+
+        assertTrue(gameService.searchByTags(List.of("nope")).isEmpty());
+
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void searchByTagQuery_ReturnsPageInIndexOrder() {
+        Game hades = new Game("Hades");
+        hades.setId(5L);
+        when(tagBitmapIndex.query(any(TagQuery.class), eq(null), eq(2))).thenReturn(List.of(1L, 5L));
+        when(gameRepository.findByIdIn(List.of(1L))).thenReturn(List.of(game));
+
+        CursorPageDTO<Game> page = gameService.searchByTagQuery("rpg AND NOT survival", null, 1, false);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Elden Ring", page.getItems().get(0).getName());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+
+        when(tagBitmapIndex.query(any(TagQuery.class), eq(1L), eq(2))).thenReturn(List.of(5L));
+        when(gameRepository.findByIdIn(List.of(5L))).thenReturn(List.of(hades));
+
+        CursorPageDTO<Game> next = gameService.searchByTagQuery("rpg AND NOT survival", page.getNextCursor(), 1, false);
+
+        assertEquals("Hades", next.getItems().get(0).getName());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void searchByTagQuery_WithFacets_AddsCountsFromIndex() {
+        Map<String, Integer> facets = Map.of("RPG", 2, "Open World", 1);
+        when(tagBitmapIndex.queryWithFacets(any(TagQuery.class), eq(null), eq(21)))
+                .thenReturn(new TagQueryResult(List.of(1L), facets));
+        when(gameRepository.findByIdIn(List.of(1L))).thenReturn(List.of(game));
+
+        CursorPageDTO<Game> page = gameService.searchByTagQuery("rpg", null, null, true);
+
+        assertEquals(List.of(game), page.getItems());
+        assertEquals(facets, page.getFacets());
+        // the query is evaluated once, for the page and the counts together
+        verify(tagBitmapIndex, never()).query(any(), any(), anyInt());
+        verify(tagBitmapIndex, never()).facets(any());
+    }
+
+    @Test
+    void searchByTagsWithFacets_RunsAnyOfQueryThroughIndex() {
+        Map<String, Integer> facets = Map.of("RPG", 1, "Open World", 1);
+        when(tagBitmapIndex.queryWithFacets(any(TagQuery.class), eq(null), eq(Integer.MAX_VALUE)))
+                .thenReturn(new TagQueryResult(List.of(1L), facets));
+        when(gameRepository.findByIdIn(List.of(1L))).thenReturn(List.of(game));
+
+        CursorPageDTO<Game> page = gameService.searchByTagsWithFacets(List.of("RPG", "Strategy"));
+
+        assertEquals(List.of(game), page.getItems());
+        assertEquals(facets, page.getFacets());
+        assertNull(page.getNextCursor());
+        verify(gameRepository, never()).findByAnyTagIds(any());
+    }
+
+    @Test
+    void searchByTagsWithFacets_NoTags_ReturnsEmptyPage() {
+        CursorPageDTO<Game> page = gameService.searchByTagsWithFacets(List.of(" "));
+
+        assertTrue(page.getItems().isEmpty());
+        assertTrue(page.getFacets().isEmpty());
+        verifyNoInteractions(tagBitmapIndex, gameRepository);
+    }
+
+    @Test
+    void searchByTagQuery_MalformedQuery_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> gameService.searchByTagQuery("rpg AND (indie", null, null, false));
+
+        verifyNoInteractions(tagBitmapIndex);
+    }
+
+    @Test
+    void fuzzySearchByName_UsesIndex() {
+        when(gameNameIndex.fuzzySearch("Eldn Ring", null, 20)).thenReturn(List.of(new GameSummaryDTO(1L, "Elden Ring")));
+
+        List<GameSummaryDTO> result = gameService.fuzzySearchByName("Eldn Ring", null, null);
+
+        assertEquals(1, result.size());
+        assertEquals("Elden Ring", result.get(0).getName());
+    }
+
+    @Test
+    void fuzzySearchByName_DistanceOutOfRange_ThrowsBadRequest() {
+        when(gameNameIndex.fuzzySearch("Eldn Ring", 9, 20)).thenThrow(new IllegalArgumentException("Edit distance must be between 0 and 3."));
+
+        assertThrows(BadRequestException.class, () -> gameService.fuzzySearchByName("Eldn Ring", 9, null));
+    }
+
+    @Test
+    void autocomplete_UsesIndexWithDefaultLimit() {
+        when(autocompleteIndex.suggestGames("eld", 20)).thenReturn(List.of(new SuggestionDTO(1L, "Elden Ring")));
+
+        List<SuggestionDTO> result = gameService.autocomplete("eld", null);
+
+        assertEquals(1, result.size());
+        assertEquals("Elden Ring", result.get(0).getName());
+        verifyNoInteractions(gameRepository);
     }
 
     @Test
@@ -150,6 +373,10 @@ class GameServiceTest {
         verify(purchaseRepository).existsByGameId(1L);
         verify(reviewRepository).existsByGameId(1L);
         verify(gameRepository).deleteById(1L);
+        verify(gameNameIndex).remove(1L);
+        verify(tagBitmapIndex).removeGame(1L);
+        verify(gameRecordCache).invalidate(1L);
+        verify(autocompleteIndex).removeGame(1L);
     }
 
     @Test
@@ -166,54 +393,209 @@ class GameServiceTest {
     @Test
     void addTag_Success() {
         when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
-        when(gameTagRepository.findById(2L)).thenReturn(Optional.of(tag));
+        when(gameTagRepository.existsById(2L)).thenReturn(true);
+        when(gameJdbcRepository.insertTagLink(1L, 2L)).thenReturn(true);
 
         Game result = gameService.addTag(1L, 2L);
 
         assertNotNull(result);
-        assertTrue(result.getTags().contains(tag));
+        // the link row is written directly; GameTag.games is never touched
+        assertTrue(tag.getGames().isEmpty());
 
         verify(gameRepository).findById(1L);
-        verify(gameTagRepository).findById(2L);
+        verify(gameRepository, never()).save(any(Game.class));
+        verify(gameTagRepository, never()).findById(any());
+        verify(tagBitmapIndex).tag(1L, 2L);
+        verify(gameRecordCache).invalidate(1L);
+    }
+
+    @Test
+    void addTag_InTransaction_UpdatesIndexOnlyAfterCommit() {
+        when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+        when(gameTagRepository.existsById(2L)).thenReturn(true);
+        when(gameJdbcRepository.insertTagLink(1L, 2L)).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            gameService.addTag(1L, 2L);
+
+            verifyNoInteractions(tagBitmapIndex, gameRecordCache);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(tagBitmapIndex).tag(1L, 2L);
+        verify(gameRecordCache).invalidate(1L);
+    }
+
+    @Test
+    void removeTag_RolledBack_LeavesIndexAlone() {
+        when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+        when(gameTagRepository.existsById(2L)).thenReturn(true);
+        when(gameJdbcRepository.deleteTagLink(1L, 2L)).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            gameService.removeTag(1L, 2L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verifyNoInteractions(tagBitmapIndex, gameRecordCache);
+    }
+
+    @Test
+    void addTag_AlreadyLinked_LeavesIndexAlone() {
+        when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+        when(gameTagRepository.existsById(2L)).thenReturn(true);
+        when(gameJdbcRepository.insertTagLink(1L, 2L)).thenReturn(false);
+
+        gameService.addTag(1L, 2L);
+
+        verifyNoInteractions(tagBitmapIndex, gameRecordCache);
     }
 
     @Test
     void addTag_TagNotFound_Throws() {
         when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
-        when(gameTagRepository.findById(2L)).thenReturn(Optional.empty());
+        when(gameTagRepository.existsById(2L)).thenReturn(false);
 
         NotFoundException ex = assertThrows(NotFoundException.class, () -> gameService.addTag(1L, 2L));
         assertEquals("Tag not found.", ex.getMessage());
 
         verify(gameRepository).findById(1L);
-        verify(gameTagRepository).findById(2L);
+        verify(gameTagRepository).existsById(2L);
+        verifyNoInteractions(gameJdbcRepository);
     }
 
     @Test
     void removeTag_Success() {
-        game.addTag(tag);
-
         when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
-        when(gameTagRepository.findById(2L)).thenReturn(Optional.of(tag));
+        when(gameTagRepository.existsById(2L)).thenReturn(true);
+        when(gameJdbcRepository.deleteTagLink(1L, 2L)).thenReturn(true);
 
         Game result = gameService.removeTag(1L, 2L);
 
         assertNotNull(result);
-        assertFalse(result.getTags().contains(tag));
 
         verify(gameRepository).findById(1L);
-        verify(gameTagRepository).findById(2L);
+        verify(gameRepository, never()).save(any(Game.class));
+        verify(gameJdbcRepository).deleteTagLink(1L, 2L);
+        verify(tagBitmapIndex).untag(1L, 2L);
+        verify(gameRecordCache).invalidate(1L);
     }
 
     @Test
     void removeTag_TagNotFound_Throws() {
         when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
-        when(gameTagRepository.findById(2L)).thenReturn(Optional.empty());
+        when(gameTagRepository.existsById(2L)).thenReturn(false);
 
         NotFoundException ex = assertThrows(NotFoundException.class, () -> gameService.removeTag(1L, 2L));
         assertEquals("Tag not found.", ex.getMessage());
 
         verify(gameRepository).findById(1L);
-        verify(gameTagRepository).findById(2L);
+        verify(gameTagRepository).existsById(2L);
+        verifyNoInteractions(gameJdbcRepository);
+    }
+
+    @Test
+    void bulkUpdateTags_AddPairs_UsesOneStatementAndUpdatesIndex() {
+        BulkTagRequestDTO request = new BulkTagRequestDTO();
+        request.setAction("add");
+        request.setPairs(List.of(new GameTagLinkDTO(1L, 2L), new GameTagLinkDTO(3L, 2L), new GameTagLinkDTO(1L, 2L)));
+        when(gameJdbcRepository.linkExisting(any(), any())).thenReturn(List.of(new GameTagLinkDTO(3L, 2L)));
+
+        BulkTagResultDTO result = gameService.bulkUpdateTags(request);
+
+        assertEquals(2, result.getRequested());
+        assertEquals(1, result.getChanged());
+        verify(gameJdbcRepository).linkExisting(new long[] {1L, 3L}, new long[] {2L, 2L});
+        verify(tagBitmapIndex).tag(3L, 2L);
+        verify(tagBitmapIndex, never()).tag(1L, 2L);
+        verify(gameRecordCache).invalidate(3L);
+        verifyNoInteractions(gameRepository, gameTagRepository);
+    }
+
+    @Test
+    void bulkUpdateTags_InTransaction_UpdatesIndexOnlyAfterCommit() {
+        BulkTagRequestDTO request = new BulkTagRequestDTO();
+        request.setAction("remove");
+        request.setPairs(List.of(new GameTagLinkDTO(1L, 2L), new GameTagLinkDTO(3L, 2L)));
+        when(gameJdbcRepository.unlink(any(), any()))
+                .thenReturn(List.of(new GameTagLinkDTO(1L, 2L), new GameTagLinkDTO(3L, 2L)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            gameService.bulkUpdateTags(request);
+
+            verifyNoInteractions(tagBitmapIndex, gameRecordCache);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(tagBitmapIndex).untag(1L, 2L);
+        verify(tagBitmapIndex).untag(3L, 2L);
+        verify(gameRecordCache).invalidate(1L);
+        verify(gameRecordCache).invalidate(3L);
+    }
+
+    @Test
+    void bulkUpdateTags_RemoveByQuery_ResolvesGamesFromIndex() {
+        BulkTagRequestDTO request = new BulkTagRequestDTO();
+        request.setAction("remove");
+        request.setTagId(2L);
+        request.setQuery("rpg AND NOT indie");
+        when(tagDictionary.getById(2L)).thenReturn(Optional.of(tag));
+        when(tagBitmapIndex.query(any(TagQuery.class), eq(null), anyInt())).thenReturn(List.of(1L, 5L));
+        when(gameJdbcRepository.unlink(any(), any())).thenReturn(List.of(new GameTagLinkDTO(1L, 2L), new GameTagLinkDTO(5L, 2L)));
+
+        BulkTagResultDTO result = gameService.bulkUpdateTags(request);
+
+        assertEquals(2, result.getRequested());
+        assertEquals(2, result.getChanged());
+        verify(gameJdbcRepository).unlink(new long[] {1L, 5L}, new long[] {2L, 2L});
+        verify(tagBitmapIndex).untag(1L, 2L);
+        verify(tagBitmapIndex).untag(5L, 2L);
+        verify(gameRecordCache).invalidate(1L);
+        verify(gameRecordCache).invalidate(5L);
+    }
+
+    @Test
+    void bulkUpdateTags_UnknownTagInQuery_Throws() {
+        BulkTagRequestDTO request = new BulkTagRequestDTO();
+        request.setAction("add");
+        request.setTagId(99L);
+        request.setQuery("rpg");
+        when(tagDictionary.getById(99L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> gameService.bulkUpdateTags(request));
+        assertEquals("Tag not found.", ex.getMessage());
+        verifyNoInteractions(gameJdbcRepository);
+    }
+
+    @Test
+    void bulkUpdateTags_InvalidRequests_Throw() {
+        BulkTagRequestDTO badAction = new BulkTagRequestDTO();
+        badAction.setAction("toggle");
+        badAction.setPairs(List.of(new GameTagLinkDTO(1L, 2L)));
+        assertThrows(BadRequestException.class, () -> gameService.bulkUpdateTags(badAction));
+
+        BulkTagRequestDTO both = new BulkTagRequestDTO();
+        both.setAction("add");
+        both.setPairs(List.of(new GameTagLinkDTO(1L, 2L)));
+        both.setTagId(2L);
+        both.setQuery("rpg");
+        assertThrows(BadRequestException.class, () -> gameService.bulkUpdateTags(both));
+
+        BulkTagRequestDTO neither = new BulkTagRequestDTO();
+        neither.setAction("add");
+        assertThrows(BadRequestException.class, () -> gameService.bulkUpdateTags(neither));
+
+        verifyNoInteractions(gameJdbcRepository);
     }
 }
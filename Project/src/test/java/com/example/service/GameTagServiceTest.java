@@ -1,8 +1,13 @@
 package com.example.service;
 
+import com.example.project.cache.GameRecordCache;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
+import com.example.project.index.AutocompleteIndex;
+import com.example.project.index.TagBitmapIndex;
+import com.example.project.index.TagDictionary;
 import com.example.project.model.GameTag;
+import com.example.project.model.SuggestionDTO;
 import com.example.project.repository.GameTagRepository;
 import com.example.project.service.GameTagService;
 
@@ -12,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +32,18 @@ class GameTagServiceTest {
     @Mock
     private GameTagRepository gameTagRepository;
 
+    @Mock
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Mock
+    private AutocompleteIndex autocompleteIndex;
+
+    @Mock
+    private GameRecordCache gameRecordCache;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
     @InjectMocks
     private GameTagService gameTagService;
 
@@ -34,11 +52,13 @@ class GameTagServiceTest {
     @BeforeEach
     void setUp() {
         tag = new GameTag();
+        tag.setId(1L);
         tag.setName("RPG");
     }
 
     @Test
     void createTag_Success() {
+        when(tagDictionary.containsName("RPG")).thenReturn(false);
         when(gameTagRepository.findByNameIgnoreCase("RPG")).thenReturn(Optional.empty());
         when(gameTagRepository.save(any(GameTag.class))).thenReturn(tag);
 
@@ -46,50 +66,89 @@ class GameTagServiceTest {
 
         assertNotNull(result);
         assertEquals("RPG", result.getName());
-        verify(gameTagRepository).findByNameIgnoreCase("RPG");
+        verify(tagDictionary).containsName("RPG");
         verify(gameTagRepository).save(tag);
+        verify(tagDictionary).put(tag);
+        verify(tagBitmapIndex).putTag(1L, "RPG");
+        verify(autocompleteIndex).putTag(1L, "RPG");
     }
 
     @Test
     void createTag_Duplicate_ThrowsConflict() {
-        when(gameTagRepository.findByNameIgnoreCase("RPG")).thenReturn(Optional.of(new GameTag()));
+        when(tagDictionary.containsName("RPG")).thenReturn(true);
 
         ConflictException ex = assertThrows(ConflictException.class, () -> gameTagService.create(tag));
         assertEquals("Tag with this name already exists.", ex.getMessage());
 
-        verify(gameTagRepository).findByNameIgnoreCase("RPG");
+        verify(tagDictionary).containsName("RPG");
+        verify(gameTagRepository, never()).save(any(GameTag.class));
+    }
+
+    @Test
+    void createTag_CaseVariantUnknownToDictionary_ThrowsConflict() {
+        GameTag lower = new GameTag("rpg");
+        when(tagDictionary.containsName("rpg")).thenReturn(false);
+        when(gameTagRepository.findByNameIgnoreCase("rpg")).thenReturn(Optional.of(tag));
+
+        assertThrows(ConflictException.class, () -> gameTagService.create(lower));
+
         verify(gameTagRepository, never()).save(any(GameTag.class));
+        verify(tagDictionary, never()).put(any());
+    }
+
+    @Test
+    void createTag_ConcurrentDuplicate_ThrowsConflict() {
+        when(tagDictionary.containsName("RPG")).thenReturn(false);
+        when(gameTagRepository.findByNameIgnoreCase("RPG")).thenReturn(Optional.empty());
+        when(gameTagRepository.save(tag)).thenThrow(new DataIntegrityViolationException("uk_tags_lower_name"));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> gameTagService.create(tag));
+
+        assertEquals("Tag with this name already exists.", ex.getMessage());
+        verify(tagDictionary, never()).put(any());
+        verifyNoInteractions(tagBitmapIndex, autocompleteIndex);
     }
 
     @Test
     void getAll_Success() {
-        when(gameTagRepository.findAll()).thenReturn(List.of(tag));
+        when(tagDictionary.getAll()).thenReturn(List.of(tag));
 
         List<GameTag> result = gameTagService.getAll();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(gameTagRepository).findAll();
+        verifyNoInteractions(gameTagRepository);
     }
 
     @Test
     void getById_Success() {
-        when(gameTagRepository.findById(1L)).thenReturn(Optional.of(tag));
+        when(tagDictionary.getById(1L)).thenReturn(Optional.of(tag));
 
         GameTag result = gameTagService.getById(1L);
 
         assertNotNull(result);
-        verify(gameTagRepository).findById(1L);
+        verifyNoInteractions(gameTagRepository);
     }
 
     @Test
     void getById_NotFound_Throws() {
-        when(gameTagRepository.findById(999L)).thenReturn(Optional.empty());
+        when(tagDictionary.getById(999L)).thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(NotFoundException.class, () -> gameTagService.getById(999L));
         assertEquals("Tag not found.", ex.getMessage());
 
-        verify(gameTagRepository).findById(999L);
+        verify(tagDictionary).getById(999L);
+    }
+
+    @Test
+    void autocomplete_UsesIndex() {
+        when(autocompleteIndex.suggestTags("rp", 5)).thenReturn(List.of(new SuggestionDTO(1L, "RPG")));
+
+        List<SuggestionDTO> result = gameTagService.autocomplete("rp", 5);
+
+        assertEquals(1, result.size());
+        assertEquals("RPG", result.get(0).getName());
+        verifyNoInteractions(gameTagRepository);
     }
 
     @Test
@@ -100,6 +159,10 @@ class GameTagServiceTest {
 
         verify(gameTagRepository).existsById(1L);
         verify(gameTagRepository).deleteById(1L);
+        verify(tagBitmapIndex).removeTag(1L);
+        verify(autocompleteIndex).removeTag(1L);
+        verify(gameRecordCache).invalidateAll();
+        verify(tagDictionary).remove(1L);
     }
 
     @Test
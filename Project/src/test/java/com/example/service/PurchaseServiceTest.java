@@ -1,23 +1,36 @@
 package com.example.service;
 
+import com.example.project.cache.GameRecord;
+import com.example.project.cache.GameRecordCache;
+import com.example.project.exception.BadRequestException;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
-import com.example.project.model.Game;
-import com.example.project.model.Purchase;
-import com.example.project.model.User;
-import com.example.project.repository.GameRepository;
+import com.example.project.model.CartGameStatusDTO;
+import com.example.project.model.CheckoutItemDTO;
+import com.example.project.model.CheckoutLineDTO;
+import com.example.project.model.CheckoutResultDTO;
+import com.example.project.model.CursorPageDTO;
+import com.example.project.model.LedgerReason;
+import com.example.project.model.PurchaseAttemptDTO;
+import com.example.project.model.PurchaseHistoryItemDTO;
+import com.example.project.model.PurchaseReceiptDTO;
+import com.example.project.repository.PurchaseJdbcRepository;
 import com.example.project.repository.PurchaseRepository;
 import com.example.project.repository.UserRepository;
+import com.example.project.service.BalanceService;
+import com.example.project.service.PurchaseOrder;
 import com.example.project.service.PurchaseService;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,125 +45,320 @@ class PurchaseServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private GameRepository gameRepository;
+    private GameRecordCache gameRecordCache;
 
-    @InjectMocks
-    private PurchaseService purchaseService;
-
-    private User user;
-    private Game game;
+    @Mock
+    private BalanceService balanceService;
 
-    @BeforeEach
-    void setUp() {
-        user = new User();
-        user.setUsername("mihai");
-        user.increaseBalance(5000L);
+    @Mock
+    private PurchaseJdbcRepository purchaseJdbcRepository;
 
-        game = new Game();
-        game.setName("Hades");
-    }
+    @InjectMocks
+    private PurchaseService purchaseService;
 
     @Test
     void createPurchase_Success() {
-        when(purchaseRepository.existsByUserIdAndGameId(1L, 2L)).thenReturn(false);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(gameRepository.findById(2L)).thenReturn(Optional.of(game));
-        when(purchaseRepository.save(any(Purchase.class))).thenAnswer(inv -> inv.getArgument(0));
+        Instant purchasedAt = Instant.now();
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenReturn(new PurchaseAttemptDTO(true, false, 5000L, 10L, purchasedAt));
 
-        Purchase result = purchaseService.create(1L, 2L, 1999L);
+        PurchaseReceiptDTO result = purchaseService.create(1L, 2L, 1999L);
 
-        assertNotNull(result);
-        assertEquals(user, result.getUser());
-        assertEquals(game, result.getGame());
+        assertEquals(10L, result.getPurchaseId());
+        assertEquals(1L, result.getUserId());
+        assertEquals(2L, result.getGameId());
+        assertEquals("Hades", result.getGameName());
         assertEquals(1999L, result.getPriceCents());
-
-        // economic coherence
-        assertEquals(3001L, user.getBalanceCents());
-        assertTrue(user.getOwnedGames().contains(game));
-
-        ArgumentCaptor<Purchase> captor = ArgumentCaptor.forClass(Purchase.class);
-        verify(purchaseRepository).save(captor.capture());
-        assertEquals(user, captor.getValue().getUser());
-        assertEquals(game, captor.getValue().getGame());
-        assertEquals(1999L, captor.getValue().getPriceCents());
+        assertEquals(purchasedAt, result.getPurchasedAt());
+        assertEquals(3001L, result.getBalanceCents());
+
+        // the ledger lock, then a single statement does the rest
+        InOrder order = inOrder(balanceService, purchaseJdbcRepository);
+        order.verify(balanceService).lock(1L);
+        order.verify(purchaseJdbcRepository).purchase(1L, 2L, 1999L);
+        verifyNoMoreInteractions(balanceService);
+        // no pre-check and no entity is loaded or saved
+        verifyNoInteractions(purchaseRepository, userRepository);
     }
 
     @Test
     void createPurchase_InsufficientBalance_ThrowsConflict() {
-        User poorUser = new User();
-        poorUser.setUsername("poor");
-
-        when(purchaseRepository.existsByUserIdAndGameId(1L, 2L)).thenReturn(false);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(poorUser));
-        when(gameRepository.findById(2L)).thenReturn(Optional.of(game));
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenReturn(new PurchaseAttemptDTO(true, false, 500L, null, null));
 
         ConflictException ex = assertThrows(ConflictException.class,
                 () -> purchaseService.create(1L, 2L, 1999L));
 
         assertEquals("Insufficient balance", ex.getMessage());
-        verify(purchaseRepository, never()).save(any(Purchase.class));
     }
 
     @Test
     void createPurchase_Duplicate_ThrowsConflict() {
-        when(purchaseRepository.existsByUserIdAndGameId(1L, 2L)).thenReturn(true);
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenReturn(new PurchaseAttemptDTO(true, true, 500L, null, null));
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> purchaseService.create(1L, 2L, 1999L));
+
+        assertEquals("User already purchased this game", ex.getMessage());
+        verify(purchaseRepository, never()).existsByUserIdAndGameId(any(), any());
+    }
+
+    @Test
+    void createPurchase_ConcurrentDuplicate_ThrowsConflict() {
+        // The balance covered the price, yet the unique constraint skipped the insert.
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenReturn(new PurchaseAttemptDTO(true, false, 5000L, null, null));
 
         ConflictException ex = assertThrows(ConflictException.class,
                 () -> purchaseService.create(1L, 2L, 1999L));
 
         assertEquals("User already purchased this game", ex.getMessage());
-        verify(purchaseRepository).existsByUserIdAndGameId(1L, 2L);
-        verify(purchaseRepository, never()).save(any(Purchase.class));
     }
 
     @Test
     void createPurchase_UserNotFound_Throws() {
-        when(purchaseRepository.existsByUserIdAndGameId(1L, 2L)).thenReturn(false);
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenReturn(new PurchaseAttemptDTO(false, false, 0L, null, null));
 
         NotFoundException ex = assertThrows(NotFoundException.class,
                 () -> purchaseService.create(1L, 2L, 1999L));
 
         assertEquals("User not found", ex.getMessage());
-        verify(userRepository).findById(1L);
-        verify(purchaseRepository, never()).save(any(Purchase.class));
     }
 
     @Test
     void createPurchase_GameNotFound_Throws() {
-        when(purchaseRepository.existsByUserIdAndGameId(1L, 2L)).thenReturn(false);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(gameRepository.findById(2L)).thenReturn(Optional.empty());
+        when(gameRecordCache.get(2L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> purchaseService.create(1L, 2L, 1999L));
+
+        assertEquals("Game not found", ex.getMessage());
+        verify(gameRecordCache).get(2L);
+        verifyNoInteractions(balanceService, purchaseJdbcRepository);
+    }
+
+    @Test
+    void createPurchase_GameDeletedAfterCaching_ThrowsNotFound() {
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenThrow(new DataIntegrityViolationException("purchases_game_id_fkey"));
 
         NotFoundException ex = assertThrows(NotFoundException.class,
                 () -> purchaseService.create(1L, 2L, 1999L));
 
         assertEquals("Game not found", ex.getMessage());
-        verify(gameRepository).findById(2L);
-        verify(purchaseRepository, never()).save(any(Purchase.class));
     }
 
     @Test
-    void getByUser_Success() {
+    void createBatch_LocksEveryBuyerOnceAndRecordsEachOutcome() {
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(gameRecordCache.get(99L)).thenReturn(Optional.empty());
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenReturn(new PurchaseAttemptDTO(true, false, 5000L, 10L, Instant.now()));
+        when(purchaseJdbcRepository.purchase(3L, 2L, 1999L))
+                .thenReturn(new PurchaseAttemptDTO(true, false, 100L, null, null));
+        PurchaseOrder bought = new PurchaseOrder(1L, 2L, 1999L);
+        PurchaseOrder broke = new PurchaseOrder(3L, 2L, 1999L);
+        PurchaseOrder unknownGame = new PurchaseOrder(1L, 99L, 1999L);
+
+        purchaseService.createBatch(List.of(bought, broke, unknownGame));
+
+        assertEquals(10L, bought.getReceipt().getPurchaseId());
+        assertEquals(3001L, bought.getReceipt().getBalanceCents());
+        assertNull(bought.getFailure());
+        assertEquals("Insufficient balance", broke.getFailure().getMessage());
+        assertInstanceOf(NotFoundException.class, unknownGame.getFailure());
+        assertNull(unknownGame.getReceipt());
+
+        InOrder order = inOrder(balanceService, purchaseJdbcRepository);
+        order.verify(balanceService).lockAll(new long[] { 1L, 3L, 1L });
+        order.verify(purchaseJdbcRepository, times(2)).purchase(anyLong(), anyLong(), anyLong());
+        verifyNoMoreInteractions(balanceService);
+    }
+
+    @Test
+    void createBatch_GameDeletedAfterCaching_FailsTheWholeBatch() {
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(purchaseJdbcRepository.purchase(1L, 2L, 1999L))
+                .thenThrow(new DataIntegrityViolationException("purchases_game_id_fkey"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> purchaseService.createBatch(List.of(new PurchaseOrder(1L, 2L, 1999L))));
+    }
+
+    @Test
+    void createBatch_Empty_DoesNothing() {
+        purchaseService.createBatch(List.of());
+
+        verifyNoInteractions(balanceService, purchaseJdbcRepository, gameRecordCache);
+    }
+
+    @Test
+    void getHistory_ReturnsOnePageAndACursor() {
+        Instant newest = Instant.parse("2026-03-02T10:00:00.123456Z");
+        Instant older = Instant.parse("2026-03-01T10:00:00Z");
+        when(purchaseJdbcRepository.findHistory(1L, null, null, null, null, 3)).thenReturn(List.of(
+                new PurchaseHistoryItemDTO(9L, 4L, "Celeste", 999L, newest),
+                new PurchaseHistoryItemDTO(8L, 2L, "Hades", 1999L, older),
+                new PurchaseHistoryItemDTO(7L, 3L, "Doom", 499L, older)));
+
+        CursorPageDTO<PurchaseHistoryItemDTO> page = purchaseService.getHistory(1L, null, null, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        // a non-empty page is one query; the user is not looked up
+        verifyNoInteractions(userRepository, purchaseRepository);
+
+        when(purchaseJdbcRepository.findHistory(1L, null, null, older, 8L, 3))
+                .thenReturn(List.of(new PurchaseHistoryItemDTO(7L, 3L, "Doom", 499L, older)));
+
+        CursorPageDTO<PurchaseHistoryItemDTO> next = purchaseService.getHistory(1L, null, null,
+                page.getNextCursor(), 2);
+
+        assertEquals(7L, next.getItems().get(0).getPurchaseId());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getHistory_PassesTheTimeRange() {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-02-01T00:00:00Z");
+        when(purchaseJdbcRepository.findHistory(1L, from, to, null, null, 21)).thenReturn(List.of(
+                new PurchaseHistoryItemDTO(8L, 2L, "Hades", 1999L, Instant.parse("2026-01-15T00:00:00Z"))));
+
+        CursorPageDTO<PurchaseHistoryItemDTO> page = purchaseService.getHistory(1L, from, to, null, null);
+
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void getHistory_EmptyRange_ThrowsBadRequest() {
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+
+        assertThrows(BadRequestException.class, () -> purchaseService.getHistory(1L, at, at, null, null));
+
+        verifyNoInteractions(purchaseJdbcRepository);
+    }
+
+    @Test
+    void getHistory_InvalidCursor_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> purchaseService.getHistory(1L, null, null, "not-a-cursor", null));
+
+        verifyNoInteractions(purchaseJdbcRepository);
+    }
+
+    @Test
+    void getHistory_EmptyPageForKnownUser_ReturnsEmpty() {
+        when(purchaseJdbcRepository.findHistory(1L, null, null, null, null, 21)).thenReturn(List.of());
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(purchaseRepository.findByUserId(1L)).thenReturn(List.of(new Purchase()));
 
-        List<Purchase> result = purchaseService.getByUser(1L);
+        CursorPageDTO<PurchaseHistoryItemDTO> page = purchaseService.getHistory(1L, null, null, null, null);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(userRepository).existsById(1L);
-        verify(purchaseRepository).findByUserId(1L);
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.isHasMore());
     }
 
     @Test
-    void getByUser_UserNotFound_Throws() {
+    void getHistory_UserNotFound_Throws() {
+        when(purchaseJdbcRepository.findHistory(1L, null, null, null, null, 21)).thenReturn(List.of());
         when(userRepository.existsById(1L)).thenReturn(false);
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> purchaseService.getByUser(1L));
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> purchaseService.getHistory(1L, null, null, null, null));
         assertEquals("User not found", ex.getMessage());
+    }
+
+    @Test
+    void checkout_DebitsOnceAndInsertsTheWholeCart() {
+        List<CheckoutItemDTO> items = List.of(new CheckoutItemDTO(2L, 1999L), new CheckoutItemDTO(3L, 999L));
+        long[] gameIds = { 2L, 3L };
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(purchaseJdbcRepository.findCartGames(1L, gameIds)).thenReturn(List.of(
+                new CartGameStatusDTO(2L, "Hades", false), new CartGameStatusDTO(3L, "Celeste", false)));
+        when(balanceService.debit(1L, 2998L, LedgerReason.PURCHASE)).thenReturn(true);
+        List<CheckoutLineDTO> lines = List.of(
+                new CheckoutLineDTO(10L, 2L, "Hades", 1999L, Instant.now()),
+                new CheckoutLineDTO(11L, 3L, "Celeste", 999L, Instant.now()));
+        when(purchaseJdbcRepository.insertCheckout(1L, gameIds, new long[] { 1999L, 999L })).thenReturn(lines);
+        when(balanceService.balanceOf(1L)).thenReturn(2L);
+
+        CheckoutResultDTO result = purchaseService.checkout(1L, items);
+
+        assertEquals(2998L, result.getTotalCents());
+        assertEquals(2L, result.getBalanceCents());
+        assertEquals(lines, result.getPurchases());
+        InOrder order = inOrder(purchaseJdbcRepository, balanceService);
+        order.verify(purchaseJdbcRepository).findCartGames(1L, gameIds);
+        order.verify(balanceService).debit(1L, 2998L, LedgerReason.PURCHASE);
+        order.verify(purchaseJdbcRepository).insertCheckout(1L, gameIds, new long[] { 1999L, 999L });
+        // nothing goes through the entities
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(purchaseRepository);
+    }
+
+    @Test
+    void checkout_AlreadyPurchased_ThrowsConflictBeforeDebiting() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(purchaseJdbcRepository.findCartGames(1L, new long[] { 2L, 3L })).thenReturn(List.of(
+                new CartGameStatusDTO(2L, "Hades", false), new CartGameStatusDTO(3L, "Celeste", true)));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> purchaseService.checkout(1L,
+                List.of(new CheckoutItemDTO(2L, 1999L), new CheckoutItemDTO(3L, 999L))));
+
+        assertEquals("User already purchased game 3", ex.getMessage());
+        verifyNoInteractions(balanceService);
+        verify(purchaseJdbcRepository, never()).insertCheckout(anyLong(), any(), any());
+    }
+
+    @Test
+    void checkout_UnknownGame_ThrowsNotFound() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(purchaseJdbcRepository.findCartGames(1L, new long[] { 99L }))
+                .thenReturn(List.of(new CartGameStatusDTO(99L, null, false)));
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> purchaseService.checkout(1L, List.of(new CheckoutItemDTO(99L, 100L))));
+
+        assertEquals("Game not found: 99", ex.getMessage());
+        verifyNoInteractions(balanceService);
+    }
+
+    @Test
+    void checkout_InsufficientBalance_InsertsNothing() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(purchaseJdbcRepository.findCartGames(1L, new long[] { 2L }))
+                .thenReturn(List.of(new CartGameStatusDTO(2L, "Hades", false)));
+        when(balanceService.debit(1L, 1999L, LedgerReason.PURCHASE)).thenReturn(false);
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> purchaseService.checkout(1L, List.of(new CheckoutItemDTO(2L, 1999L))));
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        verify(purchaseJdbcRepository, never()).insertCheckout(anyLong(), any(), any());
+    }
+
+    @Test
+    void checkout_GameTwiceInCart_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> purchaseService.checkout(1L,
+                List.of(new CheckoutItemDTO(2L, 1999L), new CheckoutItemDTO(2L, 1999L))));
+
+        verifyNoInteractions(userRepository, purchaseJdbcRepository, balanceService);
+    }
+
+    @Test
+    void checkout_TotalOverflows_ThrowsBadRequest() {
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> purchaseService.checkout(1L,
+                List.of(new CheckoutItemDTO(2L, Long.MAX_VALUE), new CheckoutItemDTO(3L, 1L))));
 
-        verify(userRepository).existsById(1L);
-        verify(purchaseRepository, never()).findByUserId(anyLong());
+        assertEquals("Cart total is too large", ex.getMessage());
+        verifyNoInteractions(userRepository, purchaseJdbcRepository, balanceService);
     }
 }
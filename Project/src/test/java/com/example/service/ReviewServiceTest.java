@@ -1,5 +1,7 @@
 package com.example.service;
 
+import com.example.project.cache.GameRecord;
+import com.example.project.cache.GameRecordCache;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
 import com.example.project.model.Game;
@@ -18,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,6 +38,9 @@ class ReviewServiceTest {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private GameRecordCache gameRecordCache;
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -54,7 +60,8 @@ class ReviewServiceTest {
     void createReview_Success() {
         when(reviewRepository.findByUserIdAndGameId(1L, 2L)).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(gameRepository.findById(2L)).thenReturn(Optional.of(game));
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
+        when(gameRepository.getReferenceById(2L)).thenReturn(game);
         when(reviewRepository.save(any(Review.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Review result = reviewService.create(1L, 2L, 5, "Amazing");
@@ -1,11 +1,22 @@
 package com.example.service;
 
+import com.example.project.cache.GameRecord;
+import com.example.project.cache.GameRecordCache;
+import com.example.project.exception.BadRequestException;
 import com.example.project.exception.ConflictException;
 import com.example.project.exception.NotFoundException;
+import com.example.project.index.NameBloomFilter;
+import com.example.project.index.UniqueNameFilters;
+import com.example.project.model.CursorPageDTO;
 import com.example.project.model.Game;
+import com.example.project.model.GameSummaryDTO;
+import com.example.project.model.LedgerReason;
 import com.example.project.model.User;
+import com.example.project.model.UserSummaryDTO;
 import com.example.project.repository.GameRepository;
+import com.example.project.repository.UserJdbcRepository;
 import com.example.project.repository.UserRepository;
+import com.example.project.service.BalanceService;
 import com.example.project.service.UserService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +44,20 @@ class UserServiceTest {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private GameRecordCache gameRecordCache;
+
+    @Mock
+    private BalanceService balanceService;
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    @Mock
+    private UniqueNameFilters uniqueNameFilters;
+
+    private final NameBloomFilter usernames = new NameBloomFilter("usernames", 0.01);
+
     @InjectMocks
     private UserService userService;
 
@@ -40,6 +66,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        // not yet filled, so every uniqueness check reaches the repository
+        lenient().when(uniqueNameFilters.usernames()).thenReturn(usernames);
+
         user = new User();
         user.setUsername("mihai");
 
@@ -60,6 +89,19 @@ class UserServiceTest {
         verify(userRepository).save(user);
     }
 
+    @Test
+    void createUser_WithBalance_RecordsOpeningEntry() {
+        user.setId(1L);
+        user.setBalanceCents(1000L);
+        when(userRepository.findByUsername("mihai")).thenReturn(Optional.empty());
+        when(userRepository.save(user)).thenReturn(user);
+
+        User result = userService.create(user);
+
+        assertEquals(1000L, result.getBalanceCents());
+        verify(balanceService).credit(1L, 1000L, LedgerReason.OPENING);
+    }
+
     @Test
     void createUser_Duplicate_ThrowsConflict() {
         when(userRepository.findByUsername("mihai")).thenReturn(Optional.of(new User()));
@@ -72,14 +114,74 @@ class UserServiceTest {
     }
 
     @Test
-    void getAll_Success() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+    void createUser_NameRuledOutByFilter_SkipsLookup() {
+        usernames.rebuild(List::of);
+        when(userRepository.save(user)).thenReturn(user);
 
-        List<User> result = userService.getAll();
+        userService.create(user);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(userRepository).findAll();
+        verify(userRepository, never()).findByUsername(any());
+        assertTrue(usernames.mightContain("mihai"));
+        assertEquals(1, usernames.stats().getLookupsAvoided());
+    }
+
+    @Test
+    void createUser_UniqueConstraintViolation_ThrowsConflict() {
+        usernames.rebuild(List::of);
+        when(userRepository.save(user)).thenThrow(new DataIntegrityViolationException("users_username_key"));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> userService.create(user));
+        assertEquals("Username already exists.", ex.getMessage());
+
+        verifyNoInteractions(balanceService);
+    }
+
+    @Test
+    void getPage_ReturnsSummariesAndCursor() {
+        when(userJdbcRepository.findSummariesAfter(Long.MIN_VALUE, 3)).thenReturn(List.of(
+                new UserSummaryDTO(1L, "a", 100L, 2L),
+                new UserSummaryDTO(2L, "b", 0L, 0L),
+                new UserSummaryDTO(3L, "c", 0L, 1L)));
+
+        CursorPageDTO<UserSummaryDTO> page = userService.getPage(null, 2, null);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(100L, page.getItems().get(0).getBalanceCents());
+        assertEquals(2L, page.getItems().get(0).getOwnedGameCount());
+        assertNull(page.getItems().get(0).getOwnedGames());
+        assertNotNull(page.getNextCursor());
+        // summaries only: no entity graph is loaded
+        verifyNoInteractions(userRepository);
+
+        when(userJdbcRepository.findSummariesAfter(2L, 3)).thenReturn(List.of(new UserSummaryDTO(3L, "c", 0L, 1L)));
+
+        CursorPageDTO<UserSummaryDTO> next = userService.getPage(page.getNextCursor(), 2, null);
+
+        assertEquals(1, next.getItems().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getPage_Expand_AttachesCollectionsForThePage() {
+        user.setId(1L);
+        user.addOwnedGame(game);
+        when(userJdbcRepository.findSummariesAfter(Long.MIN_VALUE, 21))
+                .thenReturn(List.of(new UserSummaryDTO(1L, "mihai", 0L, 1L)));
+        when(userRepository.findByIdIn(List.of(1L))).thenReturn(List.of(user));
+
+        CursorPageDTO<UserSummaryDTO> page = userService.getPage(null, null, List.of("ownedGames"));
+
+        UserSummaryDTO item = page.getItems().get(0);
+        assertEquals(1, item.getOwnedGames().size());
+        assertNull(item.getWishlist());
+        verify(userRepository).findByIdIn(List.of(1L));
+    }
+
+    @Test
+    void getPage_UnsupportedExpand_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> userService.getPage(null, 10, List.of("purchases")));
+
+        verifyNoInteractions(userJdbcRepository);
     }
 
     @Test
@@ -124,55 +226,150 @@ class UserServiceTest {
 
     @Test
     void getOwnedGames_Success() {
-        user.addOwnedGame(game);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userJdbcRepository.findOwnedGamesAfterId(1L, Long.MIN_VALUE, 2)).thenReturn(List.of(
+                new GameSummaryDTO(10L, "Hades"), new GameSummaryDTO(11L, "Celeste")));
 
-        Set<Game> result = userService.getOwnedGames(1L);
+        CursorPageDTO<GameSummaryDTO> page = userService.getOwnedGames(1L, null, 1, null);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(userRepository).findById(1L);
+        assertEquals(1, page.getItems().size());
+        assertEquals("Hades", page.getItems().get(0).getName());
+        assertNotNull(page.getNextCursor());
+        // no Game entities are loaded
+        verify(userRepository, never()).findById(any());
+
+        when(userJdbcRepository.findOwnedGamesAfterId(1L, 10L, 2)).thenReturn(List.of(new GameSummaryDTO(11L, "Celeste")));
+
+        CursorPageDTO<GameSummaryDTO> next = userService.getOwnedGames(1L, page.getNextCursor(), 1, "id");
+
+        assertEquals(11L, next.getItems().get(0).getId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getOwnedGames_ByName_ContinuesAfterNameAndId() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userJdbcRepository.findOwnedGamesAfterName(1L, "", Long.MIN_VALUE, 2)).thenReturn(List.of(
+                new GameSummaryDTO(11L, "Celeste"), new GameSummaryDTO(10L, "Hades")));
+        when(userJdbcRepository.findOwnedGamesAfterName(1L, "Celeste", 11L, 2)).thenReturn(List.of(
+                new GameSummaryDTO(10L, "Hades")));
+
+        CursorPageDTO<GameSummaryDTO> page = userService.getOwnedGames(1L, null, 1, "name");
+        CursorPageDTO<GameSummaryDTO> next = userService.getOwnedGames(1L, page.getNextCursor(), 1, "name");
+
+        assertEquals("Celeste", page.getItems().get(0).getName());
+        assertEquals("Hades", next.getItems().get(0).getName());
+        // a name cursor is not valid for the id ordering
+        assertThrows(BadRequestException.class, () -> userService.getOwnedGames(1L, page.getNextCursor(), 1, "id"));
+    }
+
+    @Test
+    void getOwnedGames_UserNotFound_ThrowsNotFound() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> userService.getOwnedGames(99L, null, null, null));
+        assertEquals("User not found.", ex.getMessage());
+
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void getOwnedGames_UnsupportedSort_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> userService.getOwnedGames(1L, null, null, "price"));
+    }
+
+    @Test
+    void ownsGame_DelegatesToIndexedCheck() {
+        when(userJdbcRepository.ownsGame(1L, 10L)).thenReturn(true);
+        when(userJdbcRepository.ownsGame(1L, 11L)).thenReturn(false);
+
+        assertTrue(userService.ownsGame(1L, 10L));
+        assertFalse(userService.ownsGame(1L, 11L));
     }
 
     @Test
     void addOwnedGame_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(gameRepository.findById(2L)).thenReturn(Optional.of(game));
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
 
         User result = userService.addOwnedGame(1L, 2L);
 
         assertNotNull(result);
-        assertTrue(result.getOwnedGames().contains(game));
-
         verify(userRepository).findById(1L);
-        verify(gameRepository).findById(2L);
+        verify(gameRecordCache).get(2L);
+        verify(userJdbcRepository).grantOwnership(1L, 2L);
+        // the association row is written directly, so Game.owners is never touched
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(gameRepository);
     }
 
     @Test
     void addOwnedGame_GameNotFound_Throws() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(gameRepository.findById(2L)).thenReturn(Optional.empty());
+        when(gameRecordCache.get(2L)).thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(NotFoundException.class, () -> userService.addOwnedGame(1L, 2L));
         assertEquals("Game not found.", ex.getMessage());
 
         verify(userRepository).findById(1L);
-        verify(gameRepository).findById(2L);
+        verify(gameRecordCache).get(2L);
+        verifyNoInteractions(userJdbcRepository);
     }
 
     @Test
     void removeOwnedGame_Success() {
-        user.addOwnedGame(game);
-
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(gameRepository.findById(2L)).thenReturn(Optional.of(game));
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hades", Set.of())));
 
         User result = userService.removeOwnedGame(1L, 2L);
 
         assertNotNull(result);
-        assertFalse(result.getOwnedGames().contains(game));
-
         verify(userRepository).findById(1L);
-        verify(gameRepository).findById(2L);
+        verify(userJdbcRepository).revokeOwnership(1L, 2L);
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void removeOwnedGame_GameNotFound_Throws() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(gameRecordCache.get(2L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> userService.removeOwnedGame(1L, 2L));
+        assertEquals("Game not found.", ex.getMessage());
+
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void topUpBalance_AppendsLedgerEntry() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        doAnswer(inv -> {
+            inv.<User>getArgument(0).setBalanceCents(2500L);
+            return null;
+        }).when(balanceService).fill(user);
+
+        User result = userService.topUpBalance(1L, 500L);
+
+        assertEquals(2500L, result.getBalanceCents());
+        verify(balanceService).credit(1L, 500L, LedgerReason.TOP_UP);
+        // the users row itself is not written
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void topUpBalance_UserNotFound_Throws() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> userService.topUpBalance(1L, 500L));
+        assertEquals("User not found.", ex.getMessage());
+
+        verifyNoInteractions(balanceService);
+    }
+
+    @Test
+    void topUpBalance_NonPositiveAmount_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> userService.topUpBalance(1L, 0L));
+
+        verifyNoInteractions(userRepository, balanceService);
     }
 }
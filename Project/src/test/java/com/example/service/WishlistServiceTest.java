@@ -1,5 +1,7 @@
 package com.example.service;
 
+import com.example.project.cache.GameRecord;
+import com.example.project.cache.GameRecordCache;
 import com.example.project.exception.NotFoundException;
 import com.example.project.model.Game;
 import com.example.project.model.User;
@@ -35,6 +37,9 @@ class WishlistServiceTest {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private GameRecordCache gameRecordCache;
+
     @InjectMocks
     private WishlistService wishlistService;
 
@@ -113,26 +118,28 @@ class WishlistServiceTest {
     void addGame_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(wishlistRepository.findByUserId(1L)).thenReturn(Optional.of(wishlist));
-        when(gameRepository.findById(2L)).thenReturn(Optional.of(game));
+        when(gameRecordCache.get(2L)).thenReturn(Optional.of(new GameRecord(2L, "Hollow Knight", Set.of())));
+        when(gameRepository.getReferenceById(2L)).thenReturn(game);
 
         Wishlist result = wishlistService.addGame(1L, 2L);
 
         assertNotNull(result);
         assertTrue(result.getGames().contains(game));
 
-        verify(gameRepository).findById(2L);
+        verify(gameRecordCache).get(2L);
+        verify(gameRepository, never()).findById(anyLong());
     }
 
     @Test
     void addGame_GameNotFound_Throws() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(wishlistRepository.findByUserId(1L)).thenReturn(Optional.of(wishlist));
-        when(gameRepository.findById(2L)).thenReturn(Optional.empty());
+        when(gameRecordCache.get(2L)).thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(NotFoundException.class, () -> wishlistService.addGame(1L, 2L));
         assertEquals("Game not found", ex.getMessage());
 
-        verify(gameRepository).findById(2L);
+        verify(gameRecordCache).get(2L);
     }
 
     @Test